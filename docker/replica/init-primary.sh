@@ -0,0 +1,4 @@
+#!/bin/bash
+# primary 최초 초기화 시 streaming replication 접속 허용 (docker-entrypoint-initdb.d에서 1회 실행)
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
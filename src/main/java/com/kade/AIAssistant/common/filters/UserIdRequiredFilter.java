@@ -2,6 +2,7 @@ package com.kade.AIAssistant.common.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kade.AIAssistant.feature.conversation.dto.response.ErrorResponse;
+import com.kade.AIAssistant.infra.datasource.DataSourceRoutingContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 /**
  * /api/v1/ai/conv, /api/v1/ai/pref 요청에 대해 USER-ID 헤더가 비어 있으면 400 응답으로 바로 끊는다.
  * <p>컨트롤러에서 반복하던 USER-ID 검증을 앞단 필터로 모은다.
+ * <p>검증된 USER-ID는 요청 동안 {@link DataSourceRoutingContext}에 바인딩된다 (replica 라우팅의 read-your-writes 판단용).
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 10)
@@ -74,6 +76,12 @@ public class UserIdRequiredFilter extends OncePerRequestFilter {
             response.getWriter().write(objectMapper.writeValueAsString(body));
             return;
         }
-        filterChain.doFilter(request, response);
+        // DataSource 라우팅의 read-your-writes 판단용
+        DataSourceRoutingContext.bind(userId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRoutingContext.clear();
+        }
     }
 }
@@ -7,6 +7,7 @@ import com.kade.AIAssistant.feature.preference.dto.response.PreferenceResponse;
 import com.kade.AIAssistant.feature.preference.service.PreferenceService;
 import com.kade.AIAssistant.infra.langfuse.prompt.LangfusePromptTemplate;
 import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.loader.SingleFlightLoader;
 import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
 import java.time.Duration;
 import java.util.Map;
@@ -29,6 +30,7 @@ public class PromptService {
     private final RedisCacheService promptCacheService;
     private final PreferenceService preferenceService;
     private final ObjectMapper objectMapper;
+    private final SingleFlightLoader singleFlightLoader;
 
     private static final String USER_CONTEXT_TEMPLATE = """
             <USER_CONTEXT type="data">
@@ -86,11 +88,18 @@ public class PromptService {
         return Optional.of(message);
     }
 
+    /**
+     * 사용자 선호 캐시 key (요청 시작 시 prefetch 대상)
+     */
+    public static String preferenceCacheKey(String userId) {
+        return String.format("%s:%s", RedisKeyPrefix.USER_PREFERENCE_PROMPT, userId);
+    }
+
     /**
      * Redis 캐시 우선 조회, 미스 시 DB 조회 후 캐싱. 단일 책임: 선호 데이터 해소.
      */
     private PreferenceResponse resolvePreference(String userId) {
-        String cacheKey = String.format("%s:%s", RedisKeyPrefix.USER_PREFERENCE_PROMPT, userId);
+        String cacheKey = preferenceCacheKey(userId);
         var cached = promptCacheService.get(cacheKey);
         if (cached.isPresent()) {
             log.debug("[PromptService] 사용자 선호 캐시 히트: userId={}", userId);
@@ -98,8 +107,11 @@ public class PromptService {
             return raw instanceof PreferenceResponse pr ? pr : objectMapper.convertValue(raw, PreferenceResponse.class);
         }
         log.debug("[PromptService] 사용자 선호 캐시 미스, DB 조회: userId={}", userId);
-        PreferenceResponse pref = preferenceService.getPreference(userId);
-        promptCacheService.set(cacheKey, pref, USER_PREFERENCE_CACHE_TTL);
-        return pref;
+        // 같은 사용자의 동시 미스는 DB 조회 한 번으로 합침
+        return singleFlightLoader.load("user_preference", cacheKey, () -> {
+            PreferenceResponse pref = preferenceService.getPreference(userId);
+            promptCacheService.set(cacheKey, pref, USER_PREFERENCE_CACHE_TTL);
+            return pref;
+        });
     }
 }
@@ -6,6 +6,7 @@ import com.kade.AIAssistant.common.exceptions.customs.PromptNotFoundException;
 import com.kade.AIAssistant.infra.langfuse.prompt.LangfuseClient;
 import com.kade.AIAssistant.infra.langfuse.prompt.LangfusePromptTemplate;
 import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.loader.SingleFlightLoader;
 import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
 import java.io.IOException;
 import java.time.Duration;
@@ -19,40 +20,76 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class PromptTemplateProvider {
 
+    private static final Duration CACHE_TTL = Duration.ofHours(1L);
+    private static final String LOADER_NAME = "system_prompt";
+    /**
+     * Langfuse 호출 lease (LangfuseClient 재시도 포함 최대 소요 시간 기준)
+     */
+    private static final SingleFlightLoader.Lease LANGFUSE_LEASE =
+            new SingleFlightLoader.Lease(Duration.ofSeconds(15), Duration.ofSeconds(10));
+
     private final RedisCacheService promptCacheService;
     private final LangfuseClient langfuseClient;
     private final ObjectMapper objectMapper;
+    private final SingleFlightLoader singleFlightLoader;
 
 
     public LangfusePromptTemplate getSystemPromptTemplate(PromptType promptType) {
         log.info("[PromptTemplateProvider] Redis 캐시 조회: {}", promptType.name());
 
-        String cacheKey = String.format("%s:{%s}", RedisKeyPrefix.SYSTEM_PROMPT, promptType.name());
+        String cacheKey = cacheKey(promptType);
 
-        try {
-            // 1. Redis에서 캐시 조회
-            Optional<Object> cachedData = promptCacheService.get(cacheKey);
-
-            LangfusePromptTemplate langfusePromptTemplate;
-            if (cachedData.isPresent()) {
-                // 2-2. 캐시가 있는 경우, JSON에서 객체로 변환
-                log.info("[PromptTemplateProvider] Redis 캐시 히트: {}", promptType.name());
-                String jsonData = (String) cachedData.get();
-                langfusePromptTemplate = objectMapper.readValue(jsonData, LangfusePromptTemplate.class);
-            } else {
-                // 2-1. 캐시가 없는 경우, PromptClient로 요청 후 캐싱
-                log.info("[PromptTemplateProvider] Redis 캐시 미스, Langfuse API 호출: {}", promptType.name());
-                langfusePromptTemplate = langfuseClient.getPrompt(promptType);
-
-                // JSON으로 직렬화해서 Redis에 저장
-                String jsonData = objectMapper.writeValueAsString(langfusePromptTemplate);
-                promptCacheService.set(cacheKey, jsonData, Duration.ofHours(1L));
-                log.info("[PromptTemplateProvider] Redis 캐시 저장 완료: {}", promptType.name());
+        // 1. Redis에서 캐시 조회
+        Optional<LangfusePromptTemplate> cached = readCache(cacheKey, promptType);
+        if (cached.isPresent()) {
+            log.info("[PromptTemplateProvider] Redis 캐시 히트: {}", promptType.name());
+            // TTL 만료 직전이면 백그라운드에서 미리 갱신 (만료 시점에 요청이 몰리지 않도록)
+            if (singleFlightLoader.shouldRefreshEarly(cacheKey, CACHE_TTL)) {
+                singleFlightLoader.refreshAsync(LOADER_NAME, cacheKey, () -> fetchAndCache(cacheKey, promptType));
             }
-            return langfusePromptTemplate;
+            return cached.get();
+        }
+
+        // 2. 캐시가 없는 경우, Langfuse 호출은 노드 전체에서 한 번만 (나머지는 캐시가 채워질 때까지 대기)
+        log.info("[PromptTemplateProvider] Redis 캐시 미스, Langfuse API 호출: {}", promptType.name());
+        return singleFlightLoader.load(LOADER_NAME, cacheKey, LANGFUSE_LEASE,
+                () -> readCache(cacheKey, promptType),
+                () -> fetchAndCache(cacheKey, promptType));
+    }
+
+    /**
+     * 시스템 프롬프트 캐시 key (요청 시작 시 prefetch 대상)
+     */
+    public static String cacheKey(PromptType promptType) {
+        return String.format("%s:{%s}", RedisKeyPrefix.SYSTEM_PROMPT, promptType.name());
+    }
+
+    private Optional<LangfusePromptTemplate> readCache(String cacheKey, PromptType promptType) {
+        Optional<Object> cachedData = promptCacheService.get(cacheKey);
+        if (cachedData.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            // JSON에서 객체로 변환
+            String jsonData = (String) cachedData.get();
+            return Optional.of(objectMapper.readValue(jsonData, LangfusePromptTemplate.class));
+        } catch (IOException e) {
+            log.error("[PromptTemplateProvider] 파일 읽기 실패: {}", promptType.name(), e);
+            throw new PromptNotFoundException(promptType, "파일 읽기 오류: " + e.getMessage());
+        }
+    }
+
+    private LangfusePromptTemplate fetchAndCache(String cacheKey, PromptType promptType) {
+        LangfusePromptTemplate langfusePromptTemplate = langfuseClient.getPrompt(promptType);
+        try {
+            // JSON으로 직렬화해서 Redis에 저장
+            String jsonData = objectMapper.writeValueAsString(langfusePromptTemplate);
+            promptCacheService.set(cacheKey, jsonData, CACHE_TTL);
+            log.info("[PromptTemplateProvider] Redis 캐시 저장 완료: {}", promptType.name());
         } catch (IOException e) {
             log.error("[PromptTemplateProvider] 파일 읽기 실패: {}", promptType.name(), e);
             throw new PromptNotFoundException(promptType, "파일 읽기 오류: " + e.getMessage());
         }
+        return langfusePromptTemplate;
     }
 }
@@ -0,0 +1,46 @@
+package com.kade.AIAssistant.common.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 순 정렬 가능한 UUIDv7 (RFC 9562) 생성 유틸리티.
+ * <pre>
+ * [unix_ts_ms 48bit][ver=7 4bit][seq 12bit][var=10 2bit][random 62bit]
+ * </pre>
+ * <p>
+ * 같은 밀리초 안에서는 12비트 seq(RFC 9562 Method 3)를 증가시켜 프로세스 내 생성 순서가 단조 증가한다.
+ * seq가 넘치면 다음 밀리초 값을 미리 사용하므로 시계가 뒤로 가도 순서가 유지된다.
+ * PK B-tree에 항상 오른쪽 끝으로 삽입되어 랜덤 UUID(v4)보다 페이지 분할/WAL이 적고,
+ * 같은 timestamp의 메시지를 id로 정렬할 수 있다.
+ * </p>
+ */
+public final class UuidV7 {
+
+    private static final int SEQ_BITS = 12;
+    private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+
+    /**
+     * (unix_ts_ms << 12 | seq) 마지막 발급 값
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+        // 유틸 클래스 인스턴스화 금지
+    }
+
+    /**
+     * 현재 시각 기준 UUIDv7 생성
+     */
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << SEQ_BITS;
+        long state = LAST.updateAndGet(prev -> Math.max(now, prev + 1));
+        long millis = state >>> SEQ_BITS;
+        long seq = state & SEQ_MASK;
+
+        long msb = (millis << 16) | (0x7L << 12) | seq;
+        long lsb = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,61 @@
+package com.kade.AIAssistant.config;
+
+import com.kade.AIAssistant.infra.datasource.ReadYourWritesTracker;
+import com.kade.AIAssistant.infra.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * primary/replica 라우팅 DataSource 설정 ({@code app.datasource.replica.enabled=true}일 때만).
+ * <p>primary는 {@code spring.datasource.*}, replica는 {@code app.datasource.replica.urls}(쉼표 구분)를 사용하며
+ * 계정은 primary와 동일하다. 비활성화 시 Spring Boot 기본 DataSource(primary 단일)를 그대로 사용한다.
+ * <p>로컬 테스트: docker/replica/docker-compose.yml (primary + streaming replica)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.urls}") List<String> replicaUrls
+    ) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        log.info("[DataSourceRoutingConfig] replica 라우팅 활성화 - replica 수: {}", replicas.size());
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primary, replicas, readYourWritesTracker, meterRegistry);
+        routing.afterPropertiesSet();
+        // 트랜잭션 시작 시가 아니라 첫 쿼리 시점에 커넥션을 얻어야 readOnly 여부로 라우팅 가능
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -1,20 +1,28 @@
 package com.kade.AIAssistant.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import com.kade.AIAssistant.infra.redis.context.ChatMemoryLocalCache;
 import com.kade.AIAssistant.infra.redis.context.CustomChatMemoryRepository;
 import com.kade.AIAssistant.infra.redis.context.RedisChatMemory;
+import com.kade.AIAssistant.infra.redis.loader.SingleFlightLoader;
 import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * RedisChatMemory 및 RDB(ChatMemoryRepository) Bean 설정.
  * <p>RDB는 CustomChatMemoryRepository 사용 (CHAT_MESSAGE 테이블).
+ * <p>L1(프로세스 내) 캐시는 Redis pub/sub 채널({@link ChatMemoryLocalCache#INVALIDATION_CHANNEL})로 노드 간 무효화.
  */
 @Configuration
 public class RedisChatMemoryConfig {
@@ -25,16 +33,38 @@ public class RedisChatMemoryConfig {
         return customChatMemoryRepository;
     }
 
+    @Bean
+    public ChatMemoryLocalCache chatMemoryLocalCache(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.conversation.l1-cache.max-size:10000}") long maxSize,
+            @Value("${app.conversation.l1-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        return new ChatMemoryLocalCache(stringRedisTemplate, meterRegistry, maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer chatMemoryInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ChatMemoryLocalCache chatMemoryLocalCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(chatMemoryLocalCache, new ChannelTopic(ChatMemoryLocalCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+
     @Bean
     public RedisChatMemory redisChatMemory(
             RedisCacheService promptCacheService,
             ChatMemoryRepository chatMemoryRepository,
             ObjectMapper objectMapper,
-            ChatMessageRepository chatMessageRepository,
+            ChatMemoryLocalCache chatMemoryLocalCache,
+            SingleFlightLoader singleFlightLoader,
             @Value("${app.conversation.cache-limit:20}") int cacheLimit
     ) {
-        return new RedisChatMemory(promptCacheService, chatMemoryRepository, objectMapper, chatMessageRepository,
-                cacheLimit);
+        return new RedisChatMemory(promptCacheService, chatMemoryRepository, objectMapper, chatMemoryLocalCache,
+                singleFlightLoader, cacheLimit);
     }
 
     @Bean
@@ -3,6 +3,12 @@ package com.kade.AIAssistant.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kade.AIAssistant.infra.redis.codec.RedisValueCodec;
+import com.kade.AIAssistant.infra.redis.codec.SmileRedisValueCodec;
+import com.kade.AIAssistant.infra.redis.codec.VersionedRedisSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -10,11 +16,21 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+/**
+ * RedisTemplate 설정.
+ * <p>value는 {@link VersionedRedisSerializer}로 직렬화한다. {@code app.redis.codec.format}이 binary면 Smile 바이너리 프레임,
+ * json이면 기존 JSON 형식으로 기록하며, 읽기는 설정과 관계없이 두 형식을 모두 지원한다.
+ */
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(
+            RedisConnectionFactory connectionFactory,
+            MeterRegistry meterRegistry,
+            @Value("${app.redis.codec.format:binary}") String format,
+            @Value("${app.redis.codec.compression-threshold-bytes:1024}") int compressionThreshold
+    ) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -24,7 +40,12 @@ public class RedisConfig {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(mapper);
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(mapper);
+
+        RedisValueCodec smile = new SmileRedisValueCodec();
+        VersionedRedisSerializer serializer = new VersionedRedisSerializer(
+                List.of(smile), "binary".equalsIgnoreCase(format) ? smile : null,
+                jsonSerializer, compressionThreshold, meterRegistry);
 
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
@@ -0,0 +1,13 @@
+package com.kade.AIAssistant.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 스케줄링 활성화.
+ * <p>대화 삭제 purge 등 백그라운드 작업의 @Scheduled를 실행한다.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
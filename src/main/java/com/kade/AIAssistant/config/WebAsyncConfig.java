@@ -0,0 +1,25 @@
+package com.kade.AIAssistant.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * MVC 비동기 응답 기본 타임아웃.
+ *
+ * <p>SseEmitter는 생성 시 app.sse.timeout을 직접 지정하므로, 이 기본값은 타임아웃을 지정하지 않는
+ * StreamingResponseBody(대화 내보내기)에 적용된다. 지정하지 않으면 서블릿 컨테이너 기본값(약 30초)으로
+ * 큰 대화의 내보내기가 중간에 끊긴다.</p>
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Value("${app.conversation.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportTimeoutMs);
+    }
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
 import com.kade.AIAssistant.feature.conversation.dto.request.AssistantRequest;
 import com.kade.AIAssistant.feature.conversation.dto.request.ChangeSubjectRequest;
+import com.kade.AIAssistant.feature.conversation.service.ConversationExportService;
+import com.kade.AIAssistant.feature.conversation.service.ConversationSearchService;
 import com.kade.AIAssistant.feature.conversation.service.ConversationService;
 import com.kade.AIAssistant.feature.conversation.service.DocumentService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +14,8 @@ import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -27,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * AI 를 기능형으로 활용할 수 있는 컨트롤러 입니다. USER-ID 헤더 검증은 앞단 필터(common.filters.UserIdRequiredFilter)에서 수행한다.
@@ -38,6 +43,8 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 public class ConversationController {
 
     private final ConversationService conversationService;
+    private final ConversationSearchService conversationSearchService;
+    private final ConversationExportService conversationExportService;
     private final DocumentService ragService;
     private final ObjectMapper objectMapper;
 
@@ -81,6 +88,32 @@ public class ConversationController {
         return ResponseEntity.ok(conversationService.getConversations(userIdHeader));
     }
 
+    /**
+     * 대화 목록 커서 페이지 조회 ((updated_at, conversation_id) keyset). 첫 페이지는 Redis 캐시에서 응답하며,
+     * 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회한다.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getConversationList(
+            @RequestHeader(value = "USER-ID") String userIdHeader,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return ResponseEntity.ok(conversationService.getConversationList(userIdHeader, limit, cursor));
+    }
+
+    /**
+     * 내 대화 기록 전문 검색 (관련도 순, (rank, id) keyset). 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회한다.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchConversations(
+            @RequestHeader(value = "USER-ID") String userIdHeader,
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return ResponseEntity.ok(conversationSearchService.search(userIdHeader, query, limit, cursor));
+    }
+
     @PostMapping(value = "", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public SseEmitter conversationStreamWithFile(
             @RequestPart("file") MultipartFile file,
@@ -174,6 +207,40 @@ public class ConversationController {
                 userIdHeader, conversationId, limit, beforeTimestamp));
     }
 
+    /**
+     * 대화 메시지 커서 페이지 조회 ((timestamp, id) keyset). 응답의 nextCursor를 cursor로 넘기면 더 오래된 메시지를 조회한다.
+     */
+    @GetMapping("/{conversationId}/messages")
+    public ResponseEntity<?> getConversationMessages(
+            @PathVariable String conversationId,
+            @RequestHeader(value = "USER-ID") String userIdHeader,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return ResponseEntity.ok(conversationService.getConversationPage(
+                userIdHeader, conversationId, limit, cursor));
+    }
+
+    /**
+     * 대화 전체 내보내기 (format=ndjson|markdown, 기본 ndjson). 메시지를 keyset 페이지 단위로 읽어 chunked 응답으로 바로 전송한다.
+     */
+    @GetMapping("/{conversationId}/export")
+    public ResponseEntity<StreamingResponseBody> exportConversation(
+            @PathVariable String conversationId,
+            @RequestHeader(value = "USER-ID") String userIdHeader,
+            @RequestParam(value = "format", required = false) String format
+    ) {
+        ConversationExportService.Format exportFormat = ConversationExportService.Format.from(format);
+        StreamingResponseBody body = conversationExportService.export(userIdHeader, conversationId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(ConversationExportService.filename(conversationId, exportFormat))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @DeleteMapping("/{conversationId}")
     public ResponseEntity<?> deleteConversation(
             @PathVariable String conversationId,
@@ -0,0 +1,54 @@
+package com.kade.AIAssistant.feature.conversation.dto.request;
+
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 대화/프로젝트 목록 keyset 페이지네이션 커서 ({@code (updated_at, conversation_id)}).
+ * 클라이언트에는 Base64URL로 인코딩한 불투명 문자열로만 전달한다.
+ * <p>updated_at은 Postgres TIMESTAMP와 같은 마이크로초 단위로 인코딩한다.
+ *
+ * @param updatedAt      이전 페이지 마지막 항목의 updated_at
+ * @param conversationId 이전 페이지 마지막 항목의 conversationId
+ */
+public record ConversationListCursor(Instant updatedAt, String conversationId) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ConversationListCursor ofMicros(long epochMicros, String conversationId) {
+        Instant updatedAt = Instant.ofEpochSecond(
+                Math.floorDiv(epochMicros, 1_000_000L), Math.floorMod(epochMicros, 1_000_000L) * 1_000L);
+        return new ConversationListCursor(updatedAt, conversationId);
+    }
+
+    /**
+     * Instant → epoch 마이크로초. pgjdbc와 같이 나노초는 반올림한다.
+     */
+    public static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + (instant.getNano() + 500) / 1_000;
+    }
+
+    public String encode() {
+        String raw = toMicros(updatedAt) + SEPARATOR + conversationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidRequestException 형식이 올바르지 않을 때
+     */
+    public static ConversationListCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String conversationId = raw.substring(separator + 1);
+            if (conversationId.isEmpty()) {
+                throw new IllegalArgumentException("conversationId 없음");
+            }
+            return ofMicros(Long.parseLong(raw.substring(0, separator)), conversationId);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("잘못된 cursor 입니다.");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kade.AIAssistant.feature.conversation.dto.request;
+
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 대화 메시지 keyset 페이지네이션 커서 ({@code (timestamp, id)}).
+ * 클라이언트에는 Base64URL로 인코딩한 불투명 문자열로만 전달한다.
+ *
+ * @param timestamp 이전 페이지의 가장 오래된 메시지 timestamp
+ * @param id        이전 페이지의 가장 오래된 메시지 id
+ */
+public record MessageCursor(Instant timestamp, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = timestamp.getEpochSecond() + "." + timestamp.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidRequestException 형식이 올바르지 않을 때
+     */
+    public static MessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            String[] seconds = raw.substring(0, separator).split("\\.");
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(seconds[0]), Long.parseLong(seconds[1]));
+            return new MessageCursor(timestamp, UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("잘못된 cursor 입니다.");
+        }
+    }
+}
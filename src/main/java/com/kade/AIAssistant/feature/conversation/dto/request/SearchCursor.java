@@ -0,0 +1,37 @@
+package com.kade.AIAssistant.feature.conversation.dto.request;
+
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 대화 검색 keyset 페이지네이션 커서 ({@code (rank, id)}).
+ * rank는 DB에서 다시 계산한 값과 정확히 비교해야 하므로 float 비트 그대로 인코딩한다.
+ *
+ * @param rank 이전 페이지 마지막 결과의 ts_rank
+ * @param id   이전 페이지 마지막 결과의 메시지 id
+ */
+public record SearchCursor(float rank, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = Float.floatToIntBits(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidRequestException 형식이 올바르지 않을 때
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            float rank = Float.intBitsToFloat(Integer.parseInt(raw.substring(0, separator)));
+            return new SearchCursor(rank, UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("잘못된 cursor 입니다.");
+        }
+    }
+}
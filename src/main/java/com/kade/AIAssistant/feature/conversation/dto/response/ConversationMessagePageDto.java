@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.conversation.dto.response;
+
+import java.util.List;
+
+/**
+ * 대화 메시지 커서 페이지 응답.
+ *
+ * @param messages   오래된 순으로 정렬된 메시지
+ * @param nextCursor 더 오래된 메시지를 조회할 커서 (없으면 null)
+ * @param hasMore    더 오래된 메시지 존재 여부
+ */
+public record ConversationMessagePageDto(
+        List<ConversationMessageDto> messages,
+        String nextCursor,
+        boolean hasMore
+) {
+}
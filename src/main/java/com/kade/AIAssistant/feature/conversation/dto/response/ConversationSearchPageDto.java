@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.conversation.dto.response;
+
+import java.util.List;
+
+/**
+ * 대화 검색 커서 페이지 응답.
+ *
+ * @param results    관련도 순 검색 결과
+ * @param nextCursor 다음 페이지 커서 (없으면 null)
+ * @param hasMore    다음 페이지 존재 여부
+ */
+public record ConversationSearchPageDto(
+        List<ConversationSearchResultDto> results,
+        String nextCursor,
+        boolean hasMore
+) {
+}
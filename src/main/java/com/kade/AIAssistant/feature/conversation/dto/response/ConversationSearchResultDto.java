@@ -0,0 +1,20 @@
+package com.kade.AIAssistant.feature.conversation.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 대화 검색 결과 한 건.
+ *
+ * @param type    메시지 타입 (user, assistant 등)
+ * @param snippet 검색어가 {@code **}로 강조된 본문 발췌
+ */
+public record ConversationSearchResultDto(
+        String conversationId,
+        String subject,
+        UUID messageId,
+        String type,
+        Instant timestamp,
+        String snippet
+) {
+}
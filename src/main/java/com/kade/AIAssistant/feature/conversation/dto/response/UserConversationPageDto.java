@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.conversation.dto.response;
+
+import java.util.List;
+
+/**
+ * 유저의 대화 목록 커서 페이지 응답.
+ *
+ * @param conversations 최신순(updated_at DESC) 대화 목록
+ * @param nextCursor    다음 페이지 커서 (없으면 null)
+ * @param hasMore       다음 페이지 존재 여부
+ */
+public record UserConversationPageDto(
+        List<UserConversationItemDto> conversations,
+        String nextCursor,
+        boolean hasMore
+) {
+}
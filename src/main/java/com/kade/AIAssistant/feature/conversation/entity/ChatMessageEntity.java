@@ -1,6 +1,7 @@
 package com.kade.AIAssistant.feature.conversation.entity;
 
 import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.common.utils.UuidV7;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -21,6 +22,7 @@ import lombok.NoArgsConstructor;
  * 채팅 메시지 테이블(CHAT_MESSAGE) 매핑.
  * <p>안정적인 id로 모든 대화 히스토리를 저장합니다.
  * id는 변경되지 않으므로 CHAT_ATTACHMENT와 FK 제약이 가능합니다.
+ * <p>신규 id는 UUIDv7(시간 순), 기존 행의 랜덤 UUID(v4)도 그대로 유효합니다.
  * <p>CASCADE 삭제는 JPA에서 처리 (orphanRemoval = true).
  */
 @Entity
@@ -49,8 +51,18 @@ public class ChatMessageEntity {
     @OneToMany(mappedBy = "message", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ChatAttachmentEntity> attachments = new ArrayList<>();
 
+    /**
+     * id를 시간 순 UUIDv7로 생성 ({@link UuidV7}). PK 인덱스에 순차 삽입되고 같은 timestamp는 id 순으로 정렬된다.
+     */
     public ChatMessageEntity(String conversationId, MessageType type, String content, Instant timestamp) {
-        this.id = UUID.randomUUID();
+        this(UuidV7.generate(), conversationId, type, content, timestamp);
+    }
+
+    /**
+     * id를 지정하는 생성자. ChatMemory metadata로 전달된 CHAT_MESSAGE.id를 그대로 저장할 때 사용.
+     */
+    public ChatMessageEntity(UUID id, String conversationId, MessageType type, String content, Instant timestamp) {
+        this.id = id;
         this.conversationId = conversationId;
         this.type = type;
         this.content = content;
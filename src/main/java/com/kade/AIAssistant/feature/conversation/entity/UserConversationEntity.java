@@ -40,8 +40,13 @@ public class UserConversationEntity {
 
     public UserConversationEntity(String userId, String conversationId, String subject) {
         this.id = new UserConversationId(userId, conversationId);
+        this.subject = initialSubject(subject);
+    }
+
+    /** 등록 시 제목. null이면 "(제목 없음)", VARCHAR(32) 초과분은 절단. */
+    public static String initialSubject(String subject) {
         String raw = subject != null ? subject : "(제목 없음)";
-        this.subject = raw.length() > 32 ? raw.substring(0, 32) : raw;
+        return raw.length() > 32 ? raw.substring(0, 32) : raw;
     }
 
     /** updatedAt만 현재 시각으로 갱신. 기존 대화에 새 메시지 보낼 때 save 전에 호출. */
@@ -1,8 +1,12 @@
 package com.kade.AIAssistant.feature.conversation.repository;
 
 import com.kade.AIAssistant.feature.conversation.entity.ChatAttachmentEntity;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * CHAT_ATTACHMENT 조회/저장용 JPA Repository.
@@ -11,5 +15,16 @@ public interface ChatAttachmentRepository extends JpaRepository<ChatAttachmentEn
 
     List<ChatAttachmentEntity> findByConversationIdOrderByCreatedAtDesc(String conversationId);
 
+    /**
+     * 주어진 메시지들의 첨부파일만 조회 (페이지 단위, message_id IN (...) 한 번).
+     * 인덱스: CHAT_ATTACHMENT(message_id)
+     */
+    @Query("SELECT new com.kade.AIAssistant.feature.conversation.repository.ChatAttachmentView(" +
+           "a.message.id, a.filename, a.mimeType, a.size, a.createdAt) " +
+           "FROM ChatAttachmentEntity a " +
+           "WHERE a.message.id IN :messageIds " +
+           "ORDER BY a.createdAt DESC")
+    List<ChatAttachmentView> findViewsByMessageIdIn(@Param("messageIds") Collection<UUID> messageIds);
+
     void deleteByConversationId(String conversationId);
 }
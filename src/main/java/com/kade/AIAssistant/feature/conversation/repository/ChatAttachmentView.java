@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 대화 조회용 첨부파일 메타데이터 projection.
+ * message 연관(EAGER)을 로드하지 않고 FK(message_id)만 읽는다.
+ */
+public record ChatAttachmentView(
+        UUID messageId,
+        String filename,
+        String mimeType,
+        Long size,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,124 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.feature.conversation.dto.response.AttachmentDto;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 대화 내보내기용 CHAT_MESSAGE 페이지 조회.
+ * <p>(timestamp, id) keyset으로 한 번에 최대 pageSize 메시지만 읽고, 첨부는 그 페이지 메시지에 대해서만 조인한다.
+ * 페이지마다 짧은 트랜잭션으로 호출하면 다운로드 전체 동안 커넥션을 잡고 있지 않는다.
+ * 엔티티/영속성 컨텍스트 없이 record로 읽는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageExportRepository {
+
+    /**
+     * 첨부가 여러 개인 메시지는 연속된 행으로 나오므로 id가 바뀔 때 한 메시지로 묶는다.
+     * 인덱스: CHAT_MESSAGE(conversation_id, "timestamp" DESC, id DESC) backward scan
+     */
+    private static final String FIRST_PAGE_SQL = """
+            WITH page AS (
+                SELECT id, type, "timestamp", content FROM CHAT_MESSAGE
+                WHERE conversation_id = ?
+                ORDER BY "timestamp", id
+                LIMIT ?)
+            SELECT p.id, p.type, p."timestamp", p.content,
+                   a.filename, a.mime_type, a.size, a.created_at
+            FROM page p
+            LEFT JOIN CHAT_ATTACHMENT a ON a.message_id = p.id
+            ORDER BY p."timestamp", p.id, a.id""";
+
+    private static final String NEXT_PAGE_SQL = """
+            WITH page AS (
+                SELECT id, type, "timestamp", content FROM CHAT_MESSAGE
+                WHERE conversation_id = ? AND ("timestamp", id) > (?, ?)
+                ORDER BY "timestamp", id
+                LIMIT ?)
+            SELECT p.id, p.type, p."timestamp", p.content,
+                   a.filename, a.mime_type, a.size, a.created_at
+            FROM page p
+            LEFT JOIN CHAT_ATTACHMENT a ON a.message_id = p.id
+            ORDER BY p."timestamp", p.id, a.id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 내보내기 메시지 한 건
+     *
+     * @param attachments 첨부 메타데이터 (없으면 빈 리스트)
+     */
+    public record ExportedMessage(UUID id, MessageType type, Instant timestamp, String content,
+                                  List<AttachmentDto> attachments) {
+    }
+
+    /**
+     * after 이후 메시지를 오래된 순으로 최대 pageSize개 조회
+     *
+     * @param after 이전 페이지의 마지막 메시지 (첫 페이지면 null)
+     * @return 이 페이지 메시지 (비어 있으면 끝)
+     */
+    public List<ExportedMessage> readPage(String conversationId, ExportedMessage after, int pageSize) {
+        List<ExportedMessage> page = new ArrayList<>(pageSize);
+        MessageGrouper grouper = new MessageGrouper(page::add);
+        if (after == null) {
+            jdbcTemplate.query(FIRST_PAGE_SQL, grouper, conversationId, pageSize);
+        } else {
+            jdbcTemplate.query(NEXT_PAGE_SQL, grouper,
+                    conversationId, Timestamp.from(after.timestamp()), after.id(), pageSize);
+        }
+        grouper.flush();
+        return page;
+    }
+
+    /**
+     * 같은 메시지의 첨부 행을 모아 id가 바뀔 때 내보낸다
+     */
+    private static final class MessageGrouper implements RowCallbackHandler {
+
+        private final Consumer<ExportedMessage> consumer;
+        private ExportedMessage current;
+
+        private MessageGrouper(Consumer<ExportedMessage> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            if (current == null || !current.id().equals(id)) {
+                flush();
+                current = new ExportedMessage(id,
+                        MessageType.valueOf(rs.getString("type")),
+                        rs.getTimestamp("timestamp").toInstant(),
+                        rs.getString("content"),
+                        new ArrayList<>(0));
+            }
+            String filename = rs.getString("filename");
+            if (filename != null) {
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                current.attachments().add(new AttachmentDto(filename, rs.getString("mime_type"),
+                        rs.getLong("size"), createdAt != null ? createdAt.toInstant() : null));
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
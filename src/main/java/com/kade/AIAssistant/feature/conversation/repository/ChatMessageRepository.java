@@ -16,9 +16,9 @@ import org.springframework.data.repository.query.Param;
 public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity, UUID> {
 
     /**
-     * conversationId로 최신 메시지 조회 (페이징)
+     * conversationId로 최신 메시지 조회 (페이징). 같은 timestamp는 id(UUIDv7, 생성 순) 역순
      */
-    List<ChatMessageEntity> findByConversationIdOrderByTimestampDesc(String conversationId, Pageable pageable);
+    List<ChatMessageEntity> findByConversationIdOrderByTimestampDescIdDesc(String conversationId, Pageable pageable);
 
     /**
      * conversationId의 가장 최근 USER 타입 메시지 ID 조회 (Idempotency claim 시 사용)
@@ -30,7 +30,7 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity,
      * conversationId로 최신 메시지 조회 (기본 메서드)
      */
     default List<ChatMessageEntity> findRecentByConversationId(String conversationId, Pageable pageable) {
-        return findByConversationIdOrderByTimestampDesc(conversationId, pageable);
+        return findByConversationIdOrderByTimestampDescIdDesc(conversationId, pageable);
     }
 
     /**
@@ -39,13 +39,45 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity,
     @Query("SELECT m FROM ChatMessageEntity m " +
            "WHERE m.conversationId = :conversationId " +
            "AND m.timestamp < :beforeTimestamp " +
-           "ORDER BY m.timestamp DESC")
+           "ORDER BY m.timestamp DESC, m.id DESC")
     List<ChatMessageEntity> findByConversationIdAndTimestampBefore(
             @Param("conversationId") String conversationId,
             @Param("beforeTimestamp") java.time.Instant beforeTimestamp,
             Pageable pageable
     );
 
+    /**
+     * 최신 메시지 페이지 (경량 projection, keyset 첫 페이지)
+     */
+    @Query("SELECT new com.kade.AIAssistant.feature.conversation.repository.ChatMessageView(" +
+           "m.id, m.type, m.content, m.timestamp) " +
+           "FROM ChatMessageEntity m " +
+           "WHERE m.conversationId = :conversationId " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessageView> findPageByConversationId(
+            @Param("conversationId") String conversationId,
+            Pageable pageable
+    );
+
+    /**
+     * (timestamp, id) 커서 이전 메시지 페이지 (경량 projection, keyset 다음 페이지).
+     * {@code m.timestamp <= :timestamp}는 인덱스 범위 조건, 괄호 안은 같은 timestamp의 id 비교.
+     * 인덱스: CHAT_MESSAGE(conversation_id, "timestamp" DESC, id DESC)
+     */
+    @Query("SELECT new com.kade.AIAssistant.feature.conversation.repository.ChatMessageView(" +
+           "m.id, m.type, m.content, m.timestamp) " +
+           "FROM ChatMessageEntity m " +
+           "WHERE m.conversationId = :conversationId " +
+           "AND m.timestamp <= :timestamp " +
+           "AND (m.timestamp < :timestamp OR m.id < :id) " +
+           "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessageView> findPageByConversationIdBefore(
+            @Param("conversationId") String conversationId,
+            @Param("timestamp") java.time.Instant timestamp,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
     /**
      * conversationId와 content 일부로 USER 타입 메시지를 찾습니다.
      * 파일 첨부 메시지의 경우 저장 시 "사용자 요청:" 이후 부분만 저장되므로, 이를 기준으로 찾습니다.
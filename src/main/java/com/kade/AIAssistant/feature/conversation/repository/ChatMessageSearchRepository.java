@@ -0,0 +1,89 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import com.kade.AIAssistant.common.enums.MessageType;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * CHAT_MESSAGE 전문 검색 (content_tsv GIN 인덱스).
+ * <p>유저 소유 대화(USER_CONVERSATION)의 메시지만 대상으로 하며, {@code (rank DESC, id DESC)} keyset으로 페이지를 자른다.
+ * 스니펫(ts_headline)은 본문을 다시 파싱하므로 잘라낸 페이지 행에 대해서만 계산한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageSearchRepository {
+
+    /**
+     * 하이라이트는 마크다운 굵게(**)로 감싼다 (본문이 마크다운이므로 HTML 태그를 넣지 않음)
+     */
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=\"**\", StopSel=\"**\", MaxWords=30, MinWords=10, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    /**
+     * %s: 커서 조건. rank는 문서 길이로 정규화(normalization=1)해 긴 답변이 항상 상위에 오지 않게 한다.
+     */
+    private static final String SEARCH_SQL = """
+            WITH q AS (SELECT to_tsquery('simple', ?) AS query),
+            hits AS (
+                SELECT m.id, m.conversation_id, uc.subject, m.type, m."timestamp", m.content,
+                       ts_rank(m.content_tsv, q.query, 1) AS rank
+                FROM CHAT_MESSAGE m
+                JOIN USER_CONVERSATION uc ON uc.conversation_id = m.conversation_id AND uc.user_id = ?
+                CROSS JOIN q
+                WHERE m.content_tsv @@ q.query),
+            page AS (
+                SELECT * FROM hits
+                WHERE %s
+                ORDER BY rank DESC, id DESC
+                LIMIT ?)
+            SELECT page.id, page.conversation_id, page.subject, page.type, page."timestamp", page.rank,
+                   ts_headline('simple', page.content, q.query, ?) AS snippet
+            FROM page CROSS JOIN q
+            ORDER BY page.rank DESC, page.id DESC""";
+
+    private static final String FIRST_PAGE_SQL = SEARCH_SQL.formatted("TRUE");
+    private static final String NEXT_PAGE_SQL = SEARCH_SQL.formatted("(rank < ? OR (rank = ? AND id < ?))");
+
+    private static final RowMapper<SearchHit> ROW_MAPPER = (rs, rowNum) -> new SearchHit(
+            rs.getObject("id", UUID.class),
+            rs.getString("conversation_id"),
+            rs.getString("subject"),
+            MessageType.valueOf(rs.getString("type")),
+            rs.getTimestamp("timestamp").toInstant(),
+            rs.getFloat("rank"),
+            rs.getString("snippet"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 검색 결과 한 건
+     *
+     * @param rank    ts_rank 점수 (커서에 그대로 사용)
+     * @param snippet 검색어가 ** 로 강조된 본문 발췌
+     */
+    public record SearchHit(UUID id, String conversationId, String subject, MessageType type, Instant timestamp,
+                            float rank, String snippet) {
+    }
+
+    /**
+     * 첫 페이지
+     *
+     * @param tsQuery to_tsquery 형식 검색식 (예: {@code 검색:* & index:*})
+     */
+    public List<SearchHit> search(String userId, String tsQuery, int limit) {
+        return jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER, tsQuery, userId, limit, HEADLINE_OPTIONS);
+    }
+
+    /**
+     * (rank, id) 커서 다음 페이지
+     */
+    public List<SearchHit> searchAfter(String userId, String tsQuery, float rank, UUID id, int limit) {
+        return jdbcTemplate.query(NEXT_PAGE_SQL, ROW_MAPPER, tsQuery, userId, rank, rank, id, limit,
+                HEADLINE_OPTIONS);
+    }
+}
@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import com.kade.AIAssistant.common.enums.MessageType;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 대화 메시지 목록 조회용 경량 projection.
+ * 엔티티로 로드하지 않으므로 영속성 컨텍스트 스냅샷/더티 체킹 비용이 없고, 필요한 컬럼만 읽는다.
+ */
+public record ChatMessageView(
+        UUID id,
+        MessageType type,
+        String content,
+        Instant timestamp
+) {
+}
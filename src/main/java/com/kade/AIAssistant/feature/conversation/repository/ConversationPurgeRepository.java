@@ -0,0 +1,209 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * CONVERSATION_PURGE(대화 삭제 작업) 및 purge 대상 테이블의 배치 삭제 SQL.
+ * <p>모든 삭제는 {@code id IN (SELECT ... LIMIT ?)} 형태의 set-based SQL로 한 번에 batchSize 행만 지우며,
+ * 문장마다 커밋되어 잠금 범위와 시간이 배치 크기로 제한된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationPurgeRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final String ENQUEUE_SQL = """
+            INSERT INTO CONVERSATION_PURGE
+                (conversation_id, user_id, is_project, status, attempts, deleted_rows,
+                 requested_at, next_attempt_at, updated_at)
+            VALUES (?, ?, ?, 'PENDING', 0, 0, ?, LOCALTIMESTAMP + make_interval(secs => ?), LOCALTIMESTAMP)
+            ON CONFLICT (conversation_id) DO UPDATE SET
+                is_project = CONVERSATION_PURGE.is_project OR EXCLUDED.is_project,
+                status = 'PENDING',
+                attempts = 0,
+                last_error = NULL,
+                requested_at = EXCLUDED.requested_at,
+                next_attempt_at = EXCLUDED.next_attempt_at,
+                updated_at = LOCALTIMESTAMP""";
+
+    /**
+     * 실행 가능한 작업(대기 중이면서 재시도 시각이 지난 것, 또는 하트비트가 끊긴 RUNNING)을 RUNNING으로 선점.
+     * SKIP LOCKED로 여러 노드가 같은 작업을 잡지 않는다.
+     */
+    private static final String CLAIM_SQL = """
+            UPDATE CONVERSATION_PURGE SET status = 'RUNNING', attempts = attempts + 1, updated_at = LOCALTIMESTAMP
+            WHERE conversation_id IN (
+                SELECT conversation_id FROM CONVERSATION_PURGE
+                WHERE (status = 'PENDING' AND next_attempt_at <= LOCALTIMESTAMP)
+                   OR (status = 'RUNNING' AND updated_at < LOCALTIMESTAMP - make_interval(secs => ?))
+                ORDER BY requested_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING conversation_id, user_id, is_project, requested_at, attempts""";
+
+    /**
+     * 같은 id로 다시 등록된(소유 매핑이 있는) 대화인지. 삭제 요청 후 purge 시작 전에 클라이언트가 같은 id로
+     * 다시 대화하면 ensure가 매핑을 되살리므로, 그 대화의 데이터는 지우지 않는다 (매핑 PK로 조회)
+     */
+    private static final String OWNED_SQL = """
+            SELECT EXISTS (SELECT 1 FROM USER_CONVERSATION WHERE user_id = ? AND conversation_id = ?)
+                OR EXISTS (SELECT 1 FROM USER_PROJECT WHERE user_id = ? AND conversation_id = ?)""";
+
+    /**
+     * 삭제 문장마다 소유 매핑 부재 조건을 붙여, 배치 삭제 도중 다시 등록된 대화도 다음 배치부터 지우지 않는다
+     */
+    private static final String DELETE_ATTACHMENTS_SQL = """
+            DELETE FROM CHAT_ATTACHMENT WHERE id IN (
+                SELECT a.id FROM CHAT_ATTACHMENT a
+                JOIN CHAT_MESSAGE m ON m.id = a.message_id
+                WHERE m.conversation_id = ?
+                  AND NOT EXISTS (SELECT 1 FROM USER_CONVERSATION WHERE user_id = ? AND conversation_id = ?)
+                  AND NOT EXISTS (SELECT 1 FROM USER_PROJECT WHERE user_id = ? AND conversation_id = ?)
+                LIMIT ?)""";
+
+    private static final String DELETE_MESSAGES_SQL = """
+            DELETE FROM CHAT_MESSAGE WHERE id IN (
+                SELECT id FROM CHAT_MESSAGE
+                WHERE conversation_id = ?
+                  AND NOT EXISTS (SELECT 1 FROM USER_CONVERSATION WHERE user_id = ? AND conversation_id = ?)
+                  AND NOT EXISTS (SELECT 1 FROM USER_PROJECT WHERE user_id = ? AND conversation_id = ?)
+                LIMIT ?)""";
+
+    private static final String DELETE_DOCUMENTS_SQL = """
+            DELETE FROM PROJECT_DOCUMENT WHERE id IN (
+                SELECT id FROM PROJECT_DOCUMENT
+                WHERE conversation_id = ? AND user_id = ?
+                  AND NOT EXISTS (SELECT 1 FROM USER_PROJECT WHERE user_id = ? AND conversation_id = ?)
+                LIMIT ?)""";
+
+    private static final String DELETE_VECTORS_SQL = """
+            DELETE FROM vector_store WHERE id IN (
+                SELECT id FROM vector_store
+                WHERE conversation_id = ? AND user_id = ?
+                  AND NOT EXISTS (SELECT 1 FROM USER_PROJECT WHERE user_id = ? AND conversation_id = ?)
+                LIMIT ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 삭제 대상 테이블
+     */
+    public enum Target {
+        ATTACHMENT, MESSAGE, DOCUMENT, VECTOR
+    }
+
+    /**
+     * 선점된 purge 작업
+     *
+     * @param requestedAt 삭제 요청 시각 (선점 순서). 메시지/첨부는 시각과 무관하게 해당 대화의 모든 행을 삭제한다
+     */
+    public record PurgeTask(String conversationId, String userId, boolean project, Instant requestedAt,
+                            int attempts) {
+    }
+
+    /**
+     * 삭제 작업 등록 (이미 있으면 다시 PENDING으로)
+     *
+     * @param startDelaySeconds 이 시간(초) 뒤부터 선점 가능 (진행 중인 스트림이 응답을 저장할 시간)
+     */
+    public void enqueue(String conversationId, String userId, boolean project, Instant requestedAt,
+                        long startDelaySeconds) {
+        jdbcTemplate.update(ENQUEUE_SQL, conversationId, userId, project, Timestamp.from(requestedAt),
+                startDelaySeconds);
+    }
+
+    public List<PurgeTask> claim(int limit, long staleSeconds) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new PurgeTask(
+                        rs.getString("conversation_id"),
+                        rs.getString("user_id"),
+                        rs.getBoolean("is_project"),
+                        rs.getTimestamp("requested_at").toInstant(),
+                        rs.getInt("attempts")),
+                staleSeconds, limit);
+    }
+
+    /**
+     * 삭제 요청 후 같은 id로 소유 매핑이 다시 생겼는지
+     */
+    public boolean isOwned(String conversationId, String userId) {
+        Boolean owned = jdbcTemplate.queryForObject(OWNED_SQL, Boolean.class,
+                userId, conversationId, userId, conversationId);
+        return Boolean.TRUE.equals(owned);
+    }
+
+    /**
+     * 대상 테이블에서 최대 batchSize 행 삭제 (소유 매핑이 다시 생긴 대화는 0행)
+     *
+     * @return 삭제된 행 수 (0이면 해당 테이블 완료)
+     */
+    public int deleteBatch(Target target, PurgeTask task, int batchSize) {
+        String id = task.conversationId();
+        String userId = task.userId();
+        return switch (target) {
+            case ATTACHMENT -> jdbcTemplate.update(DELETE_ATTACHMENTS_SQL, id, userId, id, userId, id, batchSize);
+            case MESSAGE -> jdbcTemplate.update(DELETE_MESSAGES_SQL, id, userId, id, userId, id, batchSize);
+            case DOCUMENT -> jdbcTemplate.update(DELETE_DOCUMENTS_SQL, id, userId, userId, id, batchSize);
+            case VECTOR -> jdbcTemplate.update(DELETE_VECTORS_SQL, id, userId, userId, id, batchSize);
+        };
+    }
+
+    /**
+     * 진행 상황 기록 (RUNNING 하트비트 겸용)
+     */
+    public void recordProgress(String conversationId, int deletedRows) {
+        jdbcTemplate.update("""
+                UPDATE CONVERSATION_PURGE SET deleted_rows = deleted_rows + ?, updated_at = LOCALTIMESTAMP
+                WHERE conversation_id = ? AND status = 'RUNNING'""", deletedRows, conversationId);
+    }
+
+    public void markDone(String conversationId) {
+        jdbcTemplate.update("""
+                UPDATE CONVERSATION_PURGE SET status = 'DONE', last_error = NULL, updated_at = LOCALTIMESTAMP
+                WHERE conversation_id = ? AND status = 'RUNNING'""", conversationId);
+    }
+
+    /**
+     * 실패 기록. retryDelaySeconds가 null이면 FAILED(재시도 중단), 아니면 해당 시간 뒤 재시도
+     */
+    public void markFailed(String conversationId, String error, Long retryDelaySeconds) {
+        if (retryDelaySeconds == null) {
+            jdbcTemplate.update("""
+                    UPDATE CONVERSATION_PURGE SET status = 'FAILED', last_error = ?, updated_at = LOCALTIMESTAMP
+                    WHERE conversation_id = ?""", error, conversationId);
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE CONVERSATION_PURGE SET status = 'PENDING', last_error = ?,
+                    next_attempt_at = LOCALTIMESTAMP + make_interval(secs => ?), updated_at = LOCALTIMESTAMP
+                WHERE conversation_id = ?""", error, retryDelaySeconds, conversationId);
+    }
+
+    /**
+     * 상태별 작업 수 (메트릭용)
+     */
+    public long countByStatus(String status) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM CONVERSATION_PURGE WHERE status = ?", Long.class, status);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 보관 기간이 지난 완료 작업 정리
+     */
+    public int deleteDoneOlderThan(long retentionSeconds) {
+        return jdbcTemplate.update("""
+                DELETE FROM CONVERSATION_PURGE
+                WHERE status = 'DONE' AND updated_at < LOCALTIMESTAMP - make_interval(secs => ?)""",
+                retentionSeconds);
+    }
+}
@@ -0,0 +1,55 @@
+package com.kade.AIAssistant.feature.conversation.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * USER_CONVERSATION 단일 문장 UPSERT (JPA 조회 + dirty-check 없이 한 번의 round trip).
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserConversationJdbcRepository {
+
+    /**
+     * 없으면 INSERT, 있으면 updated_at만 갱신. 마지막 갱신 후 coalesce 시간이 지나지 않았으면
+     * WHERE 조건으로 UPDATE를 건너뛰어(새 튜플/WAL 없음) 아무 행도 반환하지 않는다.
+     * {@code xmax = 0}이면 이번 문장에서 INSERT된 행.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO USER_CONVERSATION (user_id, conversation_id, subject, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, conversation_id) DO UPDATE SET updated_at = EXCLUDED.updated_at
+            WHERE USER_CONVERSATION.updated_at < EXCLUDED.updated_at - make_interval(secs => ?)
+            RETURNING subject, updated_at, (xmax = 0) AS inserted""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * UPSERT 결과
+     *
+     * @param inserted 새로 등록됐으면 true, updated_at만 갱신됐으면 false
+     */
+    public record Upserted(String subject, Instant updatedAt, boolean inserted) {
+    }
+
+    /**
+     * @param coalesceSeconds 마지막 갱신 후 이 시간 안이면 갱신 생략 (0이면 항상 갱신)
+     * @return 갱신 생략 시 empty
+     */
+    public Optional<Upserted> upsert(String userId, String conversationId, String subject, Instant now,
+                                     long coalesceSeconds) {
+        Timestamp timestamp = Timestamp.from(now);
+        List<Upserted> rows = jdbcTemplate.query(UPSERT_SQL,
+                (rs, rowNum) -> new Upserted(
+                        rs.getString("subject"),
+                        rs.getTimestamp("updated_at").toInstant(),
+                        rs.getBoolean("inserted")),
+                userId, conversationId, subject, timestamp, timestamp, coalesceSeconds);
+        return rows.stream().findFirst();
+    }
+}
@@ -2,10 +2,13 @@ package com.kade.AIAssistant.feature.conversation.repository;
 
 import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
 import com.kade.AIAssistant.feature.conversation.entity.UserConversationId;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 유저–대화 소유 매핑 조회/저장.
@@ -18,5 +21,29 @@ public interface UserConversationRepository extends JpaRepository<UserConversati
 
     List<UserConversationEntity> findById_UserIdOrderByUpdatedAtDesc(String userId, Pageable pageable);
 
+    /**
+     * 최신순 첫 페이지 (keyset). 같은 updated_at은 conversation_id 역순
+     */
+    @Query("SELECT e FROM UserConversationEntity e " +
+           "WHERE e.id.userId = :userId " +
+           "ORDER BY e.updatedAt DESC, e.id.conversationId DESC")
+    List<UserConversationEntity> findPageByUserId(@Param("userId") String userId, Pageable pageable);
+
+    /**
+     * (updated_at, conversation_id) 커서 다음 페이지 (keyset).
+     * 인덱스: USER_CONVERSATION(user_id, updated_at DESC, conversation_id DESC)
+     */
+    @Query("SELECT e FROM UserConversationEntity e " +
+           "WHERE e.id.userId = :userId " +
+           "AND e.updatedAt <= :updatedAt " +
+           "AND (e.updatedAt < :updatedAt OR e.id.conversationId < :conversationId) " +
+           "ORDER BY e.updatedAt DESC, e.id.conversationId DESC")
+    List<UserConversationEntity> findPageByUserIdBefore(
+            @Param("userId") String userId,
+            @Param("updatedAt") Instant updatedAt,
+            @Param("conversationId") String conversationId,
+            Pageable pageable
+    );
+
     int deleteById_UserIdAndId_ConversationId(String userId, String conversationId);
 }
@@ -0,0 +1,270 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.kade.AIAssistant.feature.conversation.entity.ChatMessageEntity;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import com.kade.AIAssistant.infra.redis.context.CustomChatMemoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * CHAT_MESSAGE write-behind 큐.
+ * <p>요청/스트리밍 완료 경로에서 단건 JPA save 대신 큐에 넣고, 단일 dispatcher가 여러 대화의 메시지를 모아
+ * JDBC 배치 INSERT(reWriteBatchedInserts)로 저장한다.
+ * <ul>
+ *   <li>id는 ChatMessageEntity 생성 시 클라이언트에서 생성되므로 호출 측은 저장 전에도 id를 바로 사용 가능</li>
+ *   <li>단일 dispatcher가 FIFO로 처리하므로 같은 대화의 메시지 순서(USER → ASSISTANT)가 유지됨</li>
+ *   <li>durability=strict: {@link #write}가 반환한 future를 호출 측이 기다려 커밋 후 다음 단계(markCompleted 등) 진행</li>
+ *   <li>큐 크기는 capacity로 제한. 가득 차면 offer-timeout-ms만큼 기다린 뒤 호출 스레드에서 직접 저장
+ *   (DB 장애 시 힙이 계속 늘지 않고 호출 측이 느려지거나 실패를 받음)</li>
+ *   <li>배치/단건 재시도까지 실패한 행은 future를 실패시키고 로그/메트릭으로 남긴다</li>
+ *   <li>비활성화(enabled=false) 시 기존처럼 호출 스레드에서 JPA save</li>
+ * </ul>
+ * <p>메트릭: {@code chat.message.write_behind.rows}(처리량), {@code chat.message.write_behind.batch_size},
+ * {@code chat.message.write_behind.commit}(배치 커밋 시간), {@code chat.message.write_behind.latency}(enqueue → 커밋),
+ * {@code chat.message.write_behind.queue}(대기 건수), {@code chat.message.write_behind.caller_runs}(큐가 가득 차 직접 저장),
+ * {@code chat.message.write_behind.dropped{type}}(저장하지 못한 행)
+ */
+@Slf4j
+@Component
+public class ChatMessageWriteBehindQueue {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final CustomChatMemoryRepository customChatMemoryRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.conversation.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.conversation.write-behind.durability:strict}")
+    private String durability;
+
+    @Value("${app.conversation.write-behind.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${app.conversation.write-behind.linger-ms:20}")
+    private long lingerMs;
+
+    @Value("${app.conversation.write-behind.flush-timeout-ms:5000}")
+    private long flushTimeoutMs;
+
+    @Value("${app.conversation.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.conversation.write-behind.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<PendingMessage> queue;
+    private final Map<UUID, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    private Timer commitTimer;
+    private Timer latencyTimer;
+    private DistributionSummary batchSizeSummary;
+
+    public ChatMessageWriteBehindQueue(ChatMessageRepository chatMessageRepository,
+                                       CustomChatMemoryRepository customChatMemoryRepository,
+                                       MeterRegistry meterRegistry) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.customChatMemoryRepository = customChatMemoryRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record PendingMessage(ChatMessageEntity entity, CompletableFuture<Void> future, long enqueuedAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(capacity);
+        commitTimer = meterRegistry.timer("chat.message.write_behind.commit");
+        latencyTimer = meterRegistry.timer("chat.message.write_behind.latency");
+        batchSizeSummary = meterRegistry.summary("chat.message.write_behind.batch_size");
+        meterRegistry.gauge("chat.message.write_behind.queue", queue, BlockingQueue::size);
+
+        running = true;
+        dispatcher = Thread.ofVirtual().name("chat-message-write-behind").start(this::dispatchLoop);
+        log.info("[ChatMessageWriteBehindQueue] 시작 - durability: {}, maxBatchSize: {}, lingerMs: {}",
+                durability, maxBatchSize, lingerMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (dispatcher == null) {
+            return;
+        }
+        // 남은 메시지를 모두 저장한 뒤 종료
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(Duration.ofMillis(flushTimeoutMs));
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("[ChatMessageWriteBehindQueue] 종료 시 미저장 메시지: {}", remaining.size());
+            IllegalStateException cause = new IllegalStateException("종료 전 flush 시간 초과");
+            remaining.forEach(message -> drop(message, cause));
+        }
+    }
+
+    /**
+     * 메시지 저장 요청. 비활성화 시 즉시 저장 후 완료된 future를 반환한다.
+     *
+     * @return 커밋 완료 시 완료되는 future
+     */
+    public CompletableFuture<Void> write(ChatMessageEntity entity) {
+        if (!enabled) {
+            chatMessageRepository.save(entity);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            // 종료 중: dispatcher가 더 이상 처리하지 않으므로 직접 저장
+            customChatMemoryRepository.insertIgnore(List.of(entity));
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.put(entity.getId(), future);
+        future.whenComplete((v, e) -> pending.remove(entity.getId()));
+        if (!offer(new PendingMessage(entity, future, System.nanoTime()))) {
+            // 큐가 가득 참 (DB 지연/장애): 호출 스레드에서 직접 저장하여 backpressure 적용, 실패는 호출 측에 그대로 전달
+            pending.remove(entity.getId());
+            meterRegistry.counter("chat.message.write_behind.caller_runs").increment();
+            customChatMemoryRepository.insertIgnore(List.of(entity));
+            future.complete(null);
+        }
+        return future;
+    }
+
+    private boolean offer(PendingMessage message) {
+        try {
+            return queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * durability=strict이면 커밋될 때까지 기다린다 (markCompleted 등 외부에 완료를 알리기 전 호출).
+     */
+    public void awaitIfDurable(CompletableFuture<Void> future) {
+        if (isStrict()) {
+            await(future);
+        }
+    }
+
+    /**
+     * 해당 메시지가 아직 큐에 있으면 커밋될 때까지 기다린다 (FK로 참조하기 전 호출, durability와 무관).
+     */
+    public void awaitPersisted(UUID messageId) {
+        CompletableFuture<Void> future = messageId != null ? pending.get(messageId) : null;
+        if (future != null) {
+            await(future);
+        }
+    }
+
+    private boolean isStrict() {
+        return "strict".equalsIgnoreCase(durability);
+    }
+
+    private void await(CompletableFuture<Void> future) {
+        try {
+            future.get(flushTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("메시지 저장 대기 중 인터럽트", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("메시지 저장 대기 시간 초과", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("메시지 저장 실패", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running || !queue.isEmpty()) {
+            List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+            try {
+                PendingMessage first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // linger 동안 다른 대화의 메시지도 모아 한 배치로 저장
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 종료 요청: 이미 꺼낸 메시지와 남은 메시지는 그대로 저장
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        List<ChatMessageEntity> entities = batch.stream().map(PendingMessage::entity).toList();
+        try {
+            commitTimer.record(() -> customChatMemoryRepository.insertIgnore(entities));
+            complete(batch);
+        } catch (Exception e) {
+            // 배치 실패 시 한 건씩 저장하여 실패한 메시지만 실패 처리
+            log.warn("[ChatMessageWriteBehindQueue] 배치 저장 실패, 단건 재시도 - size: {}, cause: {}",
+                    batch.size(), e.getMessage());
+            for (PendingMessage message : batch) {
+                try {
+                    customChatMemoryRepository.insertIgnore(List.of(message.entity()));
+                    complete(List.of(message));
+                } catch (Exception ex) {
+                    drop(message, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * 저장하지 못한 행을 기록하고 future를 실패시킨다 (기다리는 호출 측에 예외 전달)
+     */
+    private void drop(PendingMessage message, Exception cause) {
+        ChatMessageEntity entity = message.entity();
+        log.error("[ChatMessageWriteBehindQueue] 메시지 저장 실패 - conversationId: {}, id: {}, type: {}",
+                entity.getConversationId(), entity.getId(), entity.getType(), cause);
+        meterRegistry.counter("chat.message.write_behind.dropped", "type", entity.getType().name()).increment();
+        message.future().completeExceptionally(cause);
+    }
+
+    private void complete(List<PendingMessage> batch) {
+        long now = System.nanoTime();
+        batchSizeSummary.record(batch.size());
+        meterRegistry.counter("chat.message.write_behind.rows").increment(batch.size());
+        for (PendingMessage message : batch) {
+            latencyTimer.record(now - message.enqueuedAt(), TimeUnit.NANOSECONDS);
+            message.future().complete(null);
+        }
+    }
+}
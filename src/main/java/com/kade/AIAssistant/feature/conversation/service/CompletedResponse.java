@@ -0,0 +1,41 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.kade.AIAssistant.feature.conversation.dto.response.StreamingSessionInfo;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * 완료된 스트리밍 응답의 재전송(replay)용 스냅샷.
+ * Idempotency 상태 hash의 {@code res} 필드에 압축 저장되며, 같은 키로 재요청 시 DB 조회 없이 SSE로 재전송된다.
+ *
+ * @param created 최초 응답의 created (epoch seconds, 청크 id/created 재현용)
+ */
+public record CompletedResponse(
+        String conversationId,
+        UUID userMessageId,
+        UUID assistantMessageId,
+        String model,
+        String content,
+        String finishReason,
+        Integer promptTokens,
+        Integer completionTokens,
+        Integer totalTokens,
+        Long created
+) {
+
+    public static CompletedResponse of(String conversationId, UUID userMessageId, UUID assistantMessageId,
+                                       StreamingSessionInfo sessionInfo) {
+        return new CompletedResponse(
+                conversationId,
+                userMessageId,
+                assistantMessageId,
+                sessionInfo.getModel(),
+                sessionInfo.getAccumulatedContent(),
+                sessionInfo.getFinishReason(),
+                sessionInfo.getPromptTokens(),
+                sessionInfo.getCompletionTokens(),
+                sessionInfo.getTotalTokens(),
+                sessionInfo.getStartTime().toEpochSecond(ZoneOffset.UTC)
+        );
+    }
+}
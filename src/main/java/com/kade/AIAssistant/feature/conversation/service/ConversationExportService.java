@@ -0,0 +1,199 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.common.exceptions.customs.ForbiddenException;
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
+import com.kade.AIAssistant.feature.conversation.dto.response.AttachmentDto;
+import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageExportRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageExportRepository.ExportedMessage;
+import com.kade.AIAssistant.feature.conversation.repository.UserConversationRepository;
+import com.kade.AIAssistant.feature.project.entity.UserProjectEntity;
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 대화 전체 내보내기 (NDJSON / Markdown).
+ * <p>메시지를 (timestamp, id) keyset으로 page-size씩 읽어 바로 응답 스트림에 쓰므로, 대화 크기와 무관하게
+ * 메모리에는 한 페이지와 버퍼만 유지한다. 페이지마다 짧은 읽기 전용 트랜잭션을 쓰므로 느린 클라이언트가
+ * 다운로드하는 동안 DB 커넥션을 잡고 있지 않는다. getConversation과 달리 RedisChatMemory를 워밍업하지 않는다.
+ * <p>응답 전체 시간 제한은 app.conversation.export.timeout-ms (WebAsyncConfig)
+ */
+@Slf4j
+@Service
+public class ConversationExportService {
+
+    private final ChatMessageExportRepository chatMessageExportRepository;
+    private final UserConversationRepository userConversationRepository;
+    private final UserProjectRepository userProjectRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.conversation.export.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.conversation.export.flush-every:200}")
+    private int flushEvery;
+
+    public ConversationExportService(ChatMessageExportRepository chatMessageExportRepository,
+                                     UserConversationRepository userConversationRepository,
+                                     UserProjectRepository userProjectRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.chatMessageExportRepository = chatMessageExportRepository;
+        this.userConversationRepository = userConversationRepository;
+        this.userProjectRepository = userProjectRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 내보내기 형식
+     */
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), "ndjson"),
+        MARKDOWN(MediaType.parseMediaType("text/markdown;charset=UTF-8"), "md");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @throws InvalidRequestException 지원하지 않는 형식일 때
+         */
+        public static Format from(String value) {
+            String normalized = value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+            return switch (normalized) {
+                case "", "ndjson", "jsonl" -> NDJSON;
+                case "markdown", "md" -> MARKDOWN;
+                default -> throw new InvalidRequestException("지원하지 않는 내보내기 형식입니다: " + value);
+            };
+        }
+    }
+
+    /**
+     * 소유권 확인 후 응답 본문 스트림 생성. 실제 조회는 응답을 쓰는 시점에 수행된다.
+     *
+     * @throws ForbiddenException 해당 대화에 대한 접근 권한이 없을 때
+     */
+    public StreamingResponseBody export(String userId, String conversationId, Format format) {
+        String subject = userConversationRepository.findById_UserIdAndId_ConversationId(userId, conversationId)
+                .map(UserConversationEntity::getSubject)
+                .or(() -> userProjectRepository.findById_UserIdAndId_ConversationId(userId, conversationId)
+                        .map(UserProjectEntity::getSubject))
+                .orElseThrow(() -> new ForbiddenException("해당 대화에 대한 접근 권한이 없습니다."));
+
+        return outputStream -> {
+            long startedAt = System.nanoTime();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == Format.MARKDOWN) {
+                writeMarkdownHeader(writer, conversationId, subject);
+            }
+            long[] written = {0};
+            try {
+                List<ExportedMessage> page;
+                ExportedMessage last = null;
+                do {
+                    ExportedMessage after = last;
+                    // 페이지 조회만 트랜잭션 안에서 수행: 응답 쓰기(클라이언트 속도) 동안은 커넥션을 잡지 않음
+                    page = readOnlyTransaction.execute(status ->
+                            chatMessageExportRepository.readPage(conversationId, after, pageSize));
+                    for (ExportedMessage message : page) {
+                        if (format == Format.MARKDOWN) {
+                            writeMarkdown(writer, message);
+                        } else {
+                            writeNdjson(writer, conversationId, message);
+                        }
+                        if (++written[0] % flushEvery == 0) {
+                            writer.flush();
+                        }
+                    }
+                    last = page.isEmpty() ? null : page.get(page.size() - 1);
+                } while (page.size() >= pageSize);
+            } catch (IOException e) {
+                // 클라이언트 연결 종료 등: 조회를 중단
+                log.warn("대화 내보내기 중단 - userId: {}, conversationId: {}, 전송 메시지 수: {}, cause: {}",
+                        userId, conversationId, written[0], e.getMessage());
+                throw e;
+            }
+            writer.flush();
+            log.info("대화 내보내기 완료 - userId: {}, conversationId: {}, format: {}, 메시지 수: {}, {}ms",
+                    userId, conversationId, format, written[0], (System.nanoTime() - startedAt) / 1_000_000);
+        };
+    }
+
+    public static String filename(String conversationId, Format format) {
+        return "conversation-" + conversationId + "." + format.extension();
+    }
+
+    private void writeNdjson(Writer writer, String conversationId, ExportedMessage message) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("conversationId", conversationId);
+        line.put("id", message.id());
+        line.put("type", message.type().getValue());
+        line.put("timestamp", message.timestamp());
+        line.put("content", message.content());
+        line.put("attachments", message.attachments());
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private static void writeMarkdownHeader(Writer writer, String conversationId, String subject)
+            throws IOException {
+        writer.write("# " + subject + "\n\n");
+        writer.write("- conversationId: " + conversationId + "\n");
+        writer.write("- exportedAt: " + Instant.now() + "\n\n");
+    }
+
+    private static void writeMarkdown(Writer writer, ExportedMessage message) throws IOException {
+        writer.write("---\n\n### " + label(message.type()) + " · " + message.timestamp() + "\n\n");
+        writer.write(message.content());
+        writer.write("\n\n");
+        for (AttachmentDto attachment : message.attachments()) {
+            writer.write("> 첨부: " + attachment.filename()
+                    + " (" + (attachment.mimeType() != null ? attachment.mimeType() : "unknown")
+                    + ", " + attachment.size() + " bytes)\n");
+        }
+        if (!message.attachments().isEmpty()) {
+            writer.write('\n');
+        }
+    }
+
+    private static String label(MessageType type) {
+        return switch (type) {
+            case USER -> "사용자";
+            case ASSISTANT -> "어시스턴트";
+            default -> type.getValue();
+        };
+    }
+}
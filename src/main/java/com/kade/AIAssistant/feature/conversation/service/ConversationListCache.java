@@ -0,0 +1,331 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.kade.AIAssistant.feature.conversation.dto.request.ConversationListCursor;
+import com.kade.AIAssistant.feature.conversation.dto.response.UserConversationItemDto;
+import com.kade.AIAssistant.feature.conversation.dto.response.UserConversationPageDto;
+import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
+import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestScope;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 유저별 최근 대화 목록 캐시 (Redis sorted set + subject hash).
+ * <ul>
+ *   <li>{@code user_conversations:{userId}}: ZSET, member = conversationId, score = updated_at(epoch 마이크로초)</li>
+ *   <li>{@code user_conversations:{userId}:subject}: HASH, conversationId → subject, {@code _complete} 필드에 전체 적재 여부</li>
+ *   <li>{@code user_conversations:{userId}:ver}: 변경 카운터 (DB 적재 중 들어온 변경을 덮어쓰지 않기 위한 버전)</li>
+ * </ul>
+ * <p>목록 첫 페이지 조회 시 DB에서 최근 max-size개를 적재하고, 이후에는 ensure/changeSubject/delete 커밋 후
+ * 캐시를 직접 갱신하므로 첫 페이지는 Postgres를 거치지 않는다. 적재되지 않은 유저는 갱신하지 않는다.
+ * <p>max-size를 넘으면 오래된 항목부터 잘라내고 {@code _complete=0}으로 표시한다. 이 경우 남은 항목이
+ * limit 이하이면 캐시로 페이지를 만들 수 없으므로 DB로 조회한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationListCache {
+
+    /**
+     * KEYS: zset, hash / ARGV: limit + 1
+     * <br>반환: 적재되지 않았으면 빈 배열, 아니면 {complete, id, score, subject, id, score, subject, ...}
+     */
+    private static final DefaultRedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            local complete = redis.call('HGET', KEYS[2], '_complete')
+            if not complete then
+              return {}
+            end
+            local entries = redis.call('ZREVRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1, 'WITHSCORES')
+            local res = {complete}
+            for i = 1, #entries, 2 do
+              res[#res + 1] = entries[i]
+              res[#res + 1] = entries[i + 1]
+              res[#res + 1] = redis.call('HGET', KEYS[2], entries[i]) or ''
+            end
+            return res
+            """, List.class);
+
+    /**
+     * KEYS: zset, hash, ver / ARGV: conversationId, score, subject, maxSize, ttlSeconds
+     * <br>버전은 항상 올리고, 적재된 유저만 항목을 갱신한다. 반환: 갱신 여부(1/0)
+     */
+    private static final DefaultRedisScript<Long> UPSERT_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[3])
+            redis.call('EXPIRE', KEYS[3], ARGV[5])
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+              return 0
+            end
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            local overflow = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[4])
+            if overflow > 0 then
+              local removed = redis.call('ZRANGE', KEYS[1], 0, overflow - 1)
+              redis.call('ZREMRANGEBYRANK', KEYS[1], 0, overflow - 1)
+              redis.call('HDEL', KEYS[2], unpack(removed))
+              redis.call('HSET', KEYS[2], '_complete', '0')
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            redis.call('EXPIRE', KEYS[2], ARGV[5])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: zset, hash, ver / ARGV: conversationId, ttlSeconds
+     */
+    private static final DefaultRedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[3])
+            redis.call('EXPIRE', KEYS[3], ARGV[2])
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: zset, hash, ver / ARGV: 적재 시작 시 버전('' = 없음), ttlSeconds, complete, (id, score, subject)...
+     * <br>적재 중 버전이 바뀌었으면(변경 발생) 쓰지 않는다. 반환: 적재 여부(1/0)
+     */
+    private static final DefaultRedisScript<Long> WARM_SCRIPT = new DefaultRedisScript<>("""
+            local ver = redis.call('GET', KEYS[3]) or ''
+            if ver ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            for i = 4, #ARGV, 3 do
+              redis.call('ZADD', KEYS[1], ARGV[i + 1], ARGV[i])
+              redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            redis.call('HSET', KEYS[2], '_complete', ARGV[3])
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.conversation.list-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.conversation.list-cache.max-size:200}")
+    private int maxSize;
+
+    @Value("${app.conversation.list-cache.ttl-hours:24}")
+    private long ttlHours;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시에 적재하는 최대 대화 수 (DB 적재 시 조회 개수)
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 캐시로 첫 페이지 구성. 적재되지 않았거나 잘린 캐시로 limit개를 채울 수 없으면 empty
+     */
+    public Optional<UserConversationPageDto> firstPage(String userId, int limit) {
+        if (!enabled || limit >= maxSize) {
+            return Optional.empty();
+        }
+        List<?> result;
+        try {
+            result = stringRedisTemplate.execute(READ_SCRIPT,
+                    List.of(zsetKey(userId), hashKey(userId)), String.valueOf(limit + 1));
+            RedisRequestScope.recordRoundTrip();
+        } catch (Exception e) {
+            log.warn("[ConversationListCache] 조회 실패 - userId: {}, cause: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+        if (result == null || result.isEmpty()) {
+            count("miss");
+            return Optional.empty();
+        }
+        boolean complete = "1".equals(result.get(0));
+        int size = (result.size() - 1) / 3;
+        boolean hasMore = size > limit;
+        if (!hasMore && !complete) {
+            count("partial");
+            return Optional.empty();
+        }
+
+        int pageSize = Math.min(size, limit);
+        List<UserConversationItemDto> items = new ArrayList<>(pageSize);
+        String nextCursor = null;
+        for (int i = 0; i < pageSize; i++) {
+            int base = 1 + i * 3;
+            String conversationId = (String) result.get(base);
+            items.add(new UserConversationItemDto(conversationId, (String) result.get(base + 2)));
+            if (hasMore && i == pageSize - 1) {
+                long micros = (long) Double.parseDouble((String) result.get(base + 1));
+                nextCursor = ConversationListCursor.ofMicros(micros, conversationId).encode();
+            }
+        }
+        count("hit");
+        return Optional.of(new UserConversationPageDto(items, nextCursor, hasMore));
+    }
+
+    /**
+     * 적재 전 현재 버전 조회. {@link #warm}에 그대로 넘긴다.
+     */
+    public String version(String userId) {
+        if (!enabled) {
+            return "";
+        }
+        try {
+            String ver = stringRedisTemplate.opsForValue().get(versionKey(userId));
+            RedisRequestScope.recordRoundTrip();
+            return ver != null ? ver : "";
+        } catch (Exception e) {
+            log.warn("[ConversationListCache] 버전 조회 실패 - userId: {}, cause: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * DB에서 읽은 최근 대화(최신순, 최대 max-size개)로 캐시 적재
+     *
+     * @param version  {@link #version} 결과 (null이면 적재하지 않음)
+     * @param complete 유저의 전체 대화를 모두 읽었는지 여부
+     */
+    public void warm(String userId, String version, List<UserConversationEntity> rows, boolean complete) {
+        if (!enabled || version == null) {
+            return;
+        }
+        List<String> args = new ArrayList<>(3 + rows.size() * 3);
+        args.add(version);
+        args.add(ttlSeconds());
+        args.add(complete ? "1" : "0");
+        for (UserConversationEntity row : rows) {
+            args.add(row.getId().getConversationId());
+            args.add(score(row.getUpdatedAt()));
+            args.add(row.getSubject());
+        }
+        try {
+            Long warmed = stringRedisTemplate.execute(WARM_SCRIPT, keys(userId), args.toArray());
+            RedisRequestScope.recordRoundTrip();
+            log.debug("[ConversationListCache] 적재 - userId: {}, 항목 수: {}, complete: {}, 적용: {}",
+                    userId, rows.size(), complete, Long.valueOf(1L).equals(warmed));
+        } catch (Exception e) {
+            log.warn("[ConversationListCache] 적재 실패 - userId: {}, cause: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 대화 제목 변경 반영. 트랜잭션 중이면 커밋 후 엔티티의 최종 updated_at/subject로 반영한다.
+     */
+    public void upsertAfterCommit(UserConversationEntity entity) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> upsert(entity.getId().getUserId(), entity.getId().getConversationId(),
+                entity.getSubject(), entity.getUpdatedAt()));
+    }
+
+    /**
+     * 대화 등록/갱신 반영 (트랜잭션 중이면 커밋 후)
+     */
+    public void upsertAfterCommit(String userId, String conversationId, String subject, Instant updatedAt) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> upsert(userId, conversationId, subject, updatedAt));
+    }
+
+    /**
+     * 대화 삭제 반영 (트랜잭션 중이면 커밋 후)
+     */
+    public void removeAfterCommit(String userId, String conversationId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(REMOVE_SCRIPT, keys(userId), conversationId, ttlSeconds());
+                RedisRequestScope.recordRoundTrip();
+            } catch (Exception e) {
+                log.warn("[ConversationListCache] 삭제 반영 실패 - userId: {}, conversationId: {}, cause: {}",
+                        userId, conversationId, e.getMessage());
+                evict(userId);
+            }
+        });
+    }
+
+    private void upsert(String userId, String conversationId, String subject, Instant updatedAt) {
+        try {
+            stringRedisTemplate.execute(UPSERT_SCRIPT, keys(userId),
+                    conversationId, score(updatedAt), subject, String.valueOf(maxSize), ttlSeconds());
+            RedisRequestScope.recordRoundTrip();
+        } catch (Exception e) {
+            log.warn("[ConversationListCache] 갱신 실패 - userId: {}, conversationId: {}, cause: {}",
+                    userId, conversationId, e.getMessage());
+            evict(userId);
+        }
+    }
+
+    /**
+     * 갱신 실패 시 캐시 제거 (다음 조회에서 DB로 다시 적재)
+     */
+    private void evict(String userId) {
+        try {
+            stringRedisTemplate.delete(List.of(zsetKey(userId), hashKey(userId)));
+        } catch (Exception e) {
+            log.warn("[ConversationListCache] 캐시 제거 실패 - userId: {}, cause: {}", userId, e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("conversation.list.cache", "result", result).increment();
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(Duration.ofHours(ttlHours).toSeconds());
+    }
+
+    private static String score(Instant updatedAt) {
+        return String.valueOf(ConversationListCursor.toMicros(updatedAt));
+    }
+
+    private static List<String> keys(String userId) {
+        return List.of(zsetKey(userId), hashKey(userId), versionKey(userId));
+    }
+
+    private static String zsetKey(String userId) {
+        return RedisKeyPrefix.USER_CONVERSATIONS + ":" + userId;
+    }
+
+    private static String hashKey(String userId) {
+        return zsetKey(userId) + ":subject";
+    }
+
+    private static String versionKey(String userId) {
+        return zsetKey(userId) + ":ver";
+    }
+}
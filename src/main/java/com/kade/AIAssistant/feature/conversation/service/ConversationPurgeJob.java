@@ -0,0 +1,152 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository.PurgeTask;
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository.Target;
+import com.kade.AIAssistant.feature.project.service.VectorStorePartitionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 삭제된 대화/프로젝트의 데이터를 백그라운드에서 배치 삭제하는 작업.
+ * <p>{@link ConversationService#deleteConversation}은 소유 매핑만 제거하고 CONVERSATION_PURGE에 등록하며,
+ * 이 작업이 주기적으로 작업을 선점해 첨부 → 메시지 → (프로젝트) 문서 → 벡터 순으로 batchSize씩 삭제한다.
+ * <ul>
+ *   <li>배치마다 진행 행 수를 기록 (RUNNING 하트비트 겸용, 하트비트가 끊긴 작업은 다른 노드가 이어서 처리)</li>
+ *   <li>실패 시 지수 백오프로 재시도, max-attempts 초과 시 FAILED</li>
+ *   <li>삭제는 멱등이므로 중간에 중단돼도 처음부터 다시 실행하면 된다</li>
+ *   <li>purge 시작 전에 같은 id로 소유 매핑이 다시 생기면(삭제 후 같은 id로 재요청) 삭제하지 않고 DONE 처리.
+ *   삭제 도중 다시 생겨도 삭제 SQL의 매핑 부재 조건으로 다음 배치부터 멈춘다</li>
+ * </ul>
+ * <p>파티션 모드에서 전용 벡터 파티션이 있는 프로젝트는 벡터를 행 단위로 지우지 않고 파티션을 분리 후 삭제한다.
+ * <p>메트릭: {@code conversation.purge.rows{table}}, {@code conversation.purge.tasks{result=done|skipped|retry|failed}},
+ * {@code conversation.purge.partitions},
+ * {@code conversation.purge.duration}, {@code conversation.purge.pending}, {@code conversation.purge.failed}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationPurgeJob {
+
+    private static final List<Target> CONVERSATION_TARGETS = List.of(Target.ATTACHMENT, Target.MESSAGE);
+    private static final List<Target> PROJECT_TARGETS =
+            List.of(Target.ATTACHMENT, Target.MESSAGE, Target.DOCUMENT, Target.VECTOR);
+
+    private final ConversationPurgeRepository purgeRepository;
+    private final VectorStorePartitionService vectorStorePartitionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.conversation.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.conversation.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.conversation.purge.tasks-per-run:5}")
+    private int tasksPerRun;
+
+    @Value("${app.conversation.purge.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.conversation.purge.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${app.conversation.purge.stale-seconds:300}")
+    private long staleSeconds;
+
+    @Value("${app.conversation.purge.retention-days:7}")
+    private long retentionDays;
+
+    private final AtomicLong pendingGauge = new AtomicLong();
+    private final AtomicLong failedGauge = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("conversation.purge.pending", pendingGauge);
+        meterRegistry.gauge("conversation.purge.failed", failedGauge);
+    }
+
+    @Scheduled(fixedDelayString = "${app.conversation.purge.interval-ms:5000}",
+            initialDelayString = "${app.conversation.purge.interval-ms:5000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<PurgeTask> tasks = purgeRepository.claim(tasksPerRun, staleSeconds);
+            for (PurgeTask task : tasks) {
+                purge(task);
+            }
+            purgeRepository.deleteDoneOlderThan(Duration.ofDays(retentionDays).toSeconds());
+            pendingGauge.set(purgeRepository.countByStatus(ConversationPurgeRepository.PENDING));
+            failedGauge.set(purgeRepository.countByStatus(ConversationPurgeRepository.FAILED));
+        } catch (Exception e) {
+            log.error("[ConversationPurgeJob] purge 실행 실패 - cause: {}", e.getMessage(), e);
+        }
+    }
+
+    private void purge(PurgeTask task) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long total = 0;
+        try {
+            if (purgeRepository.isOwned(task.conversationId(), task.userId())) {
+                // 삭제 요청 후 같은 id로 다시 대화해 매핑이 되살아남: 살아 있는 대화이므로 지우지 않고 종료
+                purgeRepository.markDone(task.conversationId());
+                count("skipped");
+                log.info("[ConversationPurgeJob] 다시 등록된 대화, purge 생략 - conversationId: {}",
+                        task.conversationId());
+                return;
+            }
+            for (Target target : task.project() ? PROJECT_TARGETS : CONVERSATION_TARGETS) {
+                total += purgeTarget(task, target);
+            }
+            purgeRepository.markDone(task.conversationId());
+            count("done");
+            log.info("[ConversationPurgeJob] purge 완료 - conversationId: {}, project: {}, 삭제 행 수: {}",
+                    task.conversationId(), task.project(), total);
+        } catch (Exception e) {
+            boolean exhausted = task.attempts() >= maxAttempts;
+            Long retryDelay = exhausted ? null : retryBaseSeconds << Math.min(task.attempts() - 1, 10);
+            purgeRepository.markFailed(task.conversationId(), e.getMessage(), retryDelay);
+            count(exhausted ? "failed" : "retry");
+            log.error("[ConversationPurgeJob] purge 실패 - conversationId: {}, attempt: {}, retryDelaySeconds: {}",
+                    task.conversationId(), task.attempts(), retryDelay, e);
+        } finally {
+            sample.stop(meterRegistry.timer("conversation.purge.duration"));
+        }
+    }
+
+    private long purgeTarget(PurgeTask task, Target target) {
+        if (target == Target.VECTOR && vectorStorePartitionService.dropIfDedicated(task.conversationId())) {
+            // 전용 파티션 프로젝트: DETACH + DROP으로 이미 전부 삭제됨
+            meterRegistry.counter("conversation.purge.partitions").increment();
+            return 0;
+        }
+        long deleted = 0;
+        int n;
+        do {
+            n = purgeRepository.deleteBatch(target, task, batchSize);
+            if (n > 0) {
+                deleted += n;
+                purgeRepository.recordProgress(task.conversationId(), n);
+                meterRegistry.counter("conversation.purge.rows",
+                        "table", target.name().toLowerCase(Locale.ROOT)).increment(n);
+            }
+        } while (n >= batchSize);
+        return deleted;
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("conversation.purge.tasks", "result", result).increment();
+    }
+}
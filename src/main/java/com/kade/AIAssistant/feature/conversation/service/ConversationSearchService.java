@@ -0,0 +1,102 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
+import com.kade.AIAssistant.feature.conversation.dto.request.SearchCursor;
+import com.kade.AIAssistant.feature.conversation.dto.response.ConversationSearchPageDto;
+import com.kade.AIAssistant.feature.conversation.dto.response.ConversationSearchResultDto;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageSearchRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageSearchRepository.SearchHit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+/**
+ * 유저 대화 기록 전문 검색.
+ * <p>검색어를 글자/숫자 단위 토큰으로 나눠 각각 접두어 매칭({@code 토큰:*})하고 AND로 묶는다.
+ * tsquery 연산자(&amp;, |, !, 괄호 등)는 토큰 분리 시 제거되므로 사용자 입력으로 쿼리 문법 오류가 나지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ConversationSearchService {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final ChatMessageSearchRepository chatMessageSearchRepository;
+
+    @Value("${app.conversation.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${app.conversation.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${app.conversation.search.max-terms:8}")
+    private int maxTerms;
+
+    /**
+     * 유저 소유 대화의 메시지를 관련도 순으로 검색
+     *
+     * @param query  검색어 (최대 200자)
+     * @param limit  없으면 기본 20개, 있으면 해당 개수(최대 100개)만 조회
+     * @param cursor 이전 응답의 nextCursor (없으면 첫 페이지)
+     * @throws InvalidRequestException 검색어가 비었거나 너무 길 때, cursor 형식이 올바르지 않을 때
+     */
+    public ConversationSearchPageDto search(String userId, String query, Integer limit, String cursor) {
+        String tsQuery = toPrefixQuery(query);
+        int effectiveLimit = (limit == null || limit <= 0) ? defaultLimit : Math.min(limit, maxLimit);
+
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회
+        List<SearchHit> rows;
+        if (StringUtils.hasText(cursor)) {
+            SearchCursor decoded = SearchCursor.decode(cursor);
+            rows = chatMessageSearchRepository.searchAfter(
+                    userId, tsQuery, decoded.rank(), decoded.id(), effectiveLimit + 1);
+        } else {
+            rows = chatMessageSearchRepository.search(userId, tsQuery, effectiveLimit + 1);
+        }
+        boolean hasMore = rows.size() > effectiveLimit;
+        List<SearchHit> page = hasMore ? rows.subList(0, effectiveLimit) : rows;
+        SearchHit last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore && last != null ? new SearchCursor(last.rank(), last.id()).encode() : null;
+
+        List<ConversationSearchResultDto> results = page.stream()
+                .map(h -> new ConversationSearchResultDto(
+                        h.conversationId(), h.subject(), h.id(), h.type().getValue(), h.timestamp(), h.snippet()))
+                .toList();
+        log.info("대화 검색 - userId: {}, query: {}, 결과 수: {}, hasMore: {}", userId, tsQuery, results.size(), hasMore);
+        return new ConversationSearchPageDto(results, nextCursor, hasMore);
+    }
+
+    /**
+     * 검색어 → {@code 토큰1:* & 토큰2:*} (최대 max-terms개, 중복 제거)
+     */
+    private String toPrefixQuery(String query) {
+        if (!StringUtils.hasText(query)) {
+            throw new InvalidRequestException("검색어를 입력해주세요.");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidRequestException("검색어는 " + MAX_QUERY_LENGTH + "자 이하로 입력해주세요.");
+        }
+        String tsQuery = Arrays.stream(TOKEN_SEPARATOR.split(query))
+                .filter(t -> !t.isEmpty())
+                .map(t -> t.toLowerCase(Locale.ROOT))
+                .distinct()
+                .limit(maxTerms)
+                .map(t -> t + ":*")
+                .collect(Collectors.joining(" & "));
+        if (tsQuery.isEmpty()) {
+            throw new InvalidRequestException("검색어에 글자나 숫자가 포함되어야 합니다.");
+        }
+        return tsQuery;
+    }
+}
@@ -3,43 +3,55 @@ package com.kade.AIAssistant.feature.conversation.service;
 import com.kade.AIAssistant.common.enums.PromptType;
 import com.kade.AIAssistant.common.exceptions.customs.ForbiddenException;
 import com.kade.AIAssistant.common.exceptions.customs.IdempotencyConflictException;
+import com.kade.AIAssistant.common.exceptions.customs.InvalidRequestException;
 import com.kade.AIAssistant.common.prompt.PromptService;
+import com.kade.AIAssistant.common.prompt.PromptTemplateProvider;
 import com.kade.AIAssistant.feature.conversation.dto.request.AssistantRequest;
+import com.kade.AIAssistant.feature.conversation.dto.request.ConversationListCursor;
+import com.kade.AIAssistant.feature.conversation.dto.request.MessageCursor;
 import com.kade.AIAssistant.feature.conversation.dto.response.AttachmentDto;
 import com.kade.AIAssistant.feature.conversation.dto.response.ConversationMessageDto;
+import com.kade.AIAssistant.feature.conversation.dto.response.ConversationMessagePageDto;
 import com.kade.AIAssistant.feature.conversation.dto.response.StreamingSessionInfo;
 import com.kade.AIAssistant.feature.conversation.dto.response.UserConversationItemDto;
+import com.kade.AIAssistant.feature.conversation.dto.response.UserConversationPageDto;
 import com.kade.AIAssistant.feature.conversation.entity.ChatAttachmentEntity;
 import com.kade.AIAssistant.feature.conversation.entity.ChatMessageEntity;
 import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
 import com.kade.AIAssistant.feature.conversation.repository.ChatAttachmentRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatAttachmentView;
 import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageView;
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository;
 import com.kade.AIAssistant.feature.conversation.repository.UserConversationRepository;
 import com.kade.AIAssistant.feature.conversation.service.idempotency.IdempotencyResolutionResult;
 import com.kade.AIAssistant.feature.conversation.service.idempotency.StreamingIdempotencyCoordinator;
-import com.kade.AIAssistant.feature.project.repository.ProjectDocumentRepository;
 import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
-import com.kade.AIAssistant.feature.project.service.ProjectRagService;
+import com.kade.AIAssistant.infra.datasource.ReadYourWritesTracker;
+import com.kade.AIAssistant.infra.redis.context.ChatMessageMetadata;
 import com.kade.AIAssistant.infra.redis.context.RedisChatMemory;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestBatcher;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Flux;
@@ -74,21 +86,29 @@ public class ConversationService {
     @Value("${app.conversation.max-limit:100}")
     private int maxLimit;
 
+    @Value("${app.conversation.purge.start-delay-seconds:1200}")
+    private long purgeStartDelaySeconds;
+
     private final StreamingService streamingService;
     private final ModelExecuteService modelExecuteService;
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageWriteBehindQueue chatMessageWriteBehindQueue;
     private final ChatAttachmentRepository chatAttachmentRepository;
     private final UserConversationRepository userConversationRepository;
     private final RedisChatMemory redisChatMemory;
     private final UserProjectRepository userProjectRepository;
-    private final ProjectRagService projectRagService;
-    private final ProjectDocumentRepository projectDocumentRepository;
+    private final ConversationPurgeRepository conversationPurgeRepository;
     /**
      * 대화 초기화(ensure + 제목 결정 + SSE 이벤트)는 ConversationInitializer에 위임
      */
     private final ConversationInitializer conversationInitializer;
     private final StreamingIdempotencyCoordinator idempotencyCoordinator;
     private final PromptService promptService;
+    private final RedisRequestBatcher redisRequestBatcher;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ConversationListCache conversationListCache;
+    private final UserConversationEnsureService userConversationEnsureService;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * 실제 스트리밍에 사용되는 모델명을 Langfuse config와 동일 소스에서 조회한다. ModelExecuteService와 일치시키기 위해 PromptService를 통해 조회하며, 없으면
@@ -102,24 +122,56 @@ public class ConversationService {
     /**
      * [SSE 스트리밍] AI 채팅 응답 생성 (Idempotency-Key 지원). X-Idempotency-Key가 있으면 동일 키로 재요청 시 사용자 메시지 중복 저장을 방지하고, 이미 완료된 요청이면
      * already_completed 이벤트로 응답한다.
+     * <p>Idempotency 판정(Redis)은 트랜잭션 밖에서 먼저 수행하여, 이미 완료된 요청의 재전송은 DB 커넥션을 잡지 않는다.
+     * 새 요청/재시도만 쓰기 트랜잭션 안에서 진행한다.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String streamToSse(String userId, AssistantRequest request, SseEmitter emitter, String idempotencyKey) {
-        // 1. Idempotency 처리 - StreamingIdempotencyCoordinator에 위임
-        IdempotencyResolutionResult resolution = idempotencyCoordinator.resolve(
-                userId, idempotencyKey, request, emitter);
+        // 요청 시작 시 필요한 Redis 읽기(시스템 프롬프트, 사용자 선호, 채팅 메모리)를 한 번에 조회
+        return redisRequestBatcher.call("stream_start", startPrefetchKeys(userId, request), () -> {
+            // 1. Idempotency 처리 - StreamingIdempotencyCoordinator에 위임
+            IdempotencyResolutionResult resolution = idempotencyCoordinator.resolve(
+                    userId, idempotencyKey, request, emitter);
+
+            // 이미 완료된 요청인 경우 트랜잭션 시작 전에 조기 반환
+            if (resolution.isAlreadyCompleted()) {
+                return resolution.getConversationId();
+            }
+            return new TransactionTemplate(transactionManager).execute(
+                    status -> doStreamToSse(userId, request, emitter, idempotencyKey, resolution));
+        });
+    }
 
-        // 이미 완료된 요청인 경우 조기 반환
-        if (resolution.isAlreadyCompleted()) {
-            return resolution.getConversationId();
+    /**
+     * 요청 시작 시 파이프라인으로 미리 읽을 Redis key 목록
+     */
+    private List<String> startPrefetchKeys(String userId, AssistantRequest request) {
+        // idempotency 상태는 hash로 저장되므로 GET prefetch 대상이 아님 (IdempotencyService가 한 번에 조회)
+        List<String> keys = new ArrayList<>();
+        keys.add(PromptTemplateProvider.cacheKey(request.promptType()));
+        keys.add(PromptService.preferenceCacheKey(userId));
+        if (StringUtils.hasText(request.conversationId())) {
+            // L1에 있으면 Redis를 읽지 않으므로 prefetch도 하지 않음
+            if (!redisChatMemory.isLocallyCached(request.conversationId())) {
+                keys.add(RedisChatMemory.cacheKey(request.conversationId()));
+            }
+        } else {
+            // 신규 대화는 제목 생성 프롬프트를 사용
+            keys.add(PromptTemplateProvider.cacheKey(PromptType.SUBJECT));
         }
+        return keys;
+    }
 
+    private String doStreamToSse(String userId, AssistantRequest request, SseEmitter emitter, String idempotencyKey,
+                                 IdempotencyResolutionResult resolution) {
         String conversationId = resolution.getConversationId();
         boolean skipSaveUserMessage = resolution.isSkipSaveUserMessage();
 
         // 2. Conversation 초기화 및 사용자 메시지 저장
+        UUID userMessageId = null;
         if (!skipSaveUserMessage) {
-            initializeConversationAndSaveUserMessage(userId, conversationId, request, emitter, idempotencyKey);
+            userMessageId = initializeConversationAndSaveUserMessage(
+                    userId, conversationId, request, emitter, idempotencyKey);
         } else {
             // 재시도인 경우: 매핑만 확보 (SSE 이벤트 없음)
             conversationInitializer.ensureOnly(userId, conversationId, "(제목 없음)", request.promptType());
@@ -136,19 +188,32 @@ public class ConversationService {
         log.info("SSE 스트리밍 시작 - conversationId: {}, 질문: {}, idempotencyKey: {}",
                 conversationId, request.question(), idempotencyKey);
 
-        // 4. 스트리밍 실행
-        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse);
-        stream = idempotencyCoordinator.attachErrorHandler(stream, userId, idempotencyKey);
+        // 기존 대화는 prefetch된 채팅 메모리로 L1을 채워 advisor 조회가 Redis를 다시 거치지 않도록 함
+        if (StringUtils.hasText(request.conversationId())) {
+            redisChatMemory.get(conversationId);
+        }
+
+        // 4. 스트리밍 실행 (저장된 USER 메시지 id를 ChatMemory에 전달하여 id 기준 중복 제거)
+        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse, userMessageId);
+        stream = idempotencyCoordinator.attachErrorHandler(stream, userId, idempotencyKey, resolution.getAttempt());
 
         StreamingSessionInfo sessionInfo = new StreamingSessionInfo();
         sessionInfo.setModel(resolveModelName(requestToUse.promptType()));
 
         // 5. 완료 콜백 설정
         final String finalConversationId = conversationId;
-        Runnable saveAssistantCallback = () -> {
-            saveAssistantMessage(finalConversationId, sessionInfo);
-            idempotencyCoordinator.markCompleted(userId, idempotencyKey);
-        };
+        final UUID finalUserMessageId = userMessageId;
+        // 완료 구간의 Redis 쓰기는 COMPLETED 전이(최종 응답 포함) Lua 스크립트 1회뿐이다.
+        // ASSISTANT 메시지는 DB(write-behind)에만 쓰므로 함께 파이프라인할 Redis 쓰기가 없고, 왕복 횟수만 기록한다
+        Runnable saveAssistantCallback = () -> redisRequestBatcher.call("stream_completion", List.of(), () -> {
+            UUID assistantMessageId = saveAssistantMessage(userId, finalConversationId, sessionInfo);
+            // 같은 키로 재요청 시 DB 조회 없이 재전송할 수 있도록 최종 응답을 상태와 함께 저장
+            CompletedResponse response = assistantMessageId != null
+                    ? CompletedResponse.of(finalConversationId, finalUserMessageId, assistantMessageId, sessionInfo)
+                    : null;
+            idempotencyCoordinator.markCompleted(userId, idempotencyKey, resolution.getAttempt(), response);
+            return null;
+        });
 
         streamingService.streamToSse(stream, emitter, sessionInfo, saveAssistantCallback);
 
@@ -157,8 +222,10 @@ public class ConversationService {
 
     /**
      * Conversation 초기화(ensure + SSE) 및 사용자 메시지 저장, Idempotency claim. 초기화는 {@link ConversationInitializer}에 위임한다.
+     *
+     * @return 저장된 USER 메시지의 messageId (저장하지 않았으면 null)
      */
-    private void initializeConversationAndSaveUserMessage(
+    private UUID initializeConversationAndSaveUserMessage(
             String userId,
             String conversationId,
             AssistantRequest request,
@@ -168,18 +235,10 @@ public class ConversationService {
         conversationInitializer.initialize(userId, conversationId, request, emitter);
 
         // 사용자 메시지 저장
-        saveUserMessage(conversationId, request.question());
+        UUID userMessageId = saveUserMessage(conversationId, request.question());
 
-        // Idempotency claim
+        // Idempotency claim (방금 저장한 messageId를 그대로 사용)
         if (StringUtils.hasText(idempotencyKey)) {
-            UUID userMessageId = chatMessageRepository
-                    .findFirstByConversationIdAndTypeOrderByTimestampDesc(
-                            conversationId,
-                            com.kade.AIAssistant.common.enums.MessageType.USER
-                    )
-                    .map(ChatMessageEntity::getId)
-                    .orElse(null);
-
             boolean claimed = idempotencyCoordinator.claim(userId, idempotencyKey, conversationId, userMessageId);
             if (!claimed) {
                 throw new IdempotencyConflictException(
@@ -188,6 +247,7 @@ public class ConversationService {
                 );
             }
         }
+        return userMessageId;
     }
 
     /**
@@ -217,7 +277,7 @@ public class ConversationService {
         // USER 메시지를 우리 테이블에 저장 (AI 호출 전)
         UUID userMessageId = saveUserMessage(conversationId, request.question());
 
-        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse);
+        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse, userMessageId);
 
         StreamingSessionInfo sessionInfo = new StreamingSessionInfo();
         sessionInfo.setModel(resolveModelName(requestToUse.promptType()));
@@ -225,7 +285,7 @@ public class ConversationService {
         // 스트리밍 완료 후 ASSISTANT 메시지 저장 콜백 추가
         Runnable combinedCallback = () -> {
             // ASSISTANT 메시지 저장
-            saveAssistantMessage(conversationId, sessionInfo);
+            saveAssistantMessage(userId, conversationId, sessionInfo);
             // 기존 콜백 실행 (첨부파일 메타데이터 저장 등)
             if (onCompleteCallback != null) {
                 onCompleteCallback.run();
@@ -264,7 +324,7 @@ public class ConversationService {
         // USER 메시지를 우리 테이블에 저장 (AI 호출 전)
         UUID userMessageId = saveUserMessage(conversationId, request.question());
 
-        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse);
+        Flux<ChatResponse> stream = modelExecuteService.stream(userId, requestToUse, userMessageId);
 
         StreamingSessionInfo sessionInfo = new StreamingSessionInfo();
         sessionInfo.setModel(resolveModelName(requestToUse.promptType()));
@@ -272,7 +332,7 @@ public class ConversationService {
         // 스트리밍 완료 후 ASSISTANT 메시지 저장 + 콜백 실행
         Runnable combinedCallback = () -> {
             // ASSISTANT 메시지 저장
-            saveAssistantMessage(conversationId, sessionInfo);
+            saveAssistantMessage(userId, conversationId, sessionInfo);
             // 기존 콜백 실행 (userMessageId 전달)
             if (onCompleteCallback != null) {
                 onCompleteCallback.accept(userMessageId);
@@ -295,6 +355,59 @@ public class ConversationService {
                 .toList();
     }
 
+    /**
+     * 유저의 대화 목록 커서 페이지 ((updated_at, conversation_id) keyset, 최신순).
+     * 첫 페이지는 Redis 대화 목록 캐시에서 구성하고, 캐시가 없으면 DB에서 최근 max-size개를 읽어 적재한다.
+     *
+     * @param limit  없으면 기본 20개, 있으면 해당 개수(최대 100개)만 조회
+     * @param cursor 이전 응답의 nextCursor (없으면 첫 페이지)
+     * @throws InvalidRequestException cursor 형식이 올바르지 않을 때
+     */
+    public UserConversationPageDto getConversationList(String userId, Integer limit, String cursor) {
+        int effectiveLimit = (limit == null || limit <= 0) ? defaultLimit : Math.min(limit, maxLimit);
+
+        List<UserConversationEntity> rows;
+        if (StringUtils.hasText(cursor)) {
+            ConversationListCursor decoded = ConversationListCursor.decode(cursor);
+            rows = userConversationRepository.findPageByUserIdBefore(
+                    userId, decoded.updatedAt(), decoded.conversationId(), PageRequest.of(0, effectiveLimit + 1));
+        } else {
+            Optional<UserConversationPageDto> cached = conversationListCache.firstPage(userId, effectiveLimit);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            rows = loadFirstPageAndWarm(userId, effectiveLimit);
+        }
+
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회
+        boolean hasMore = rows.size() > effectiveLimit;
+        List<UserConversationEntity> page = hasMore ? rows.subList(0, effectiveLimit) : rows;
+        UserConversationEntity last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore && last != null
+                ? new ConversationListCursor(last.getUpdatedAt(), last.getId().getConversationId()).encode()
+                : null;
+        List<UserConversationItemDto> items = page.stream()
+                .map(e -> new UserConversationItemDto(e.getId().getConversationId(), e.getSubject()))
+                .toList();
+        return new UserConversationPageDto(items, nextCursor, hasMore);
+    }
+
+    /**
+     * 첫 페이지 캐시 미스: 최근 max-size개를 읽어 캐시에 적재하고 limit + 1개를 반환
+     */
+    private List<UserConversationEntity> loadFirstPageAndWarm(String userId, int limit) {
+        if (!conversationListCache.isEnabled()) {
+            return userConversationRepository.findPageByUserId(userId, PageRequest.of(0, limit + 1));
+        }
+        int cacheSize = conversationListCache.maxSize();
+        String version = conversationListCache.version(userId);
+        List<UserConversationEntity> rows = userConversationRepository.findPageByUserId(
+                userId, PageRequest.of(0, Math.max(limit + 1, cacheSize)));
+        conversationListCache.warm(userId, version,
+                rows.subList(0, Math.min(rows.size(), cacheSize)), rows.size() < cacheSize);
+        return rows.size() > limit + 1 ? rows.subList(0, limit + 1) : rows;
+    }
+
 
     /**
      * 특정 대화방의 대화 목록 조회 (페이징 지원). 해당 conversationId가 userId 소유인지 검증 후 조회.
@@ -330,21 +443,12 @@ public class ConversationService {
             recent = chatMessageRepository.findRecentByConversationId(conversationId, pageRequest);
         }
 
-        // 첨부파일 조회 (message_id별 그룹화)
-        List<ChatAttachmentEntity> allAttachments = chatAttachmentRepository
-                .findByConversationIdOrderByCreatedAtDesc(conversationId);
+        // 현재 페이지 메시지의 첨부파일만 조회 (message_id별 그룹화)
+        Map<UUID, List<AttachmentDto>> attachmentsByMessageId = loadAttachmentsByMessageId(
+                recent.stream().map(ChatMessageEntity::getId).toList());
 
-        log.info("대화 조회 - userId: {}, conversationId: {}, 메시지 수: {}, 첨부파일 수: {}",
-                userId, conversationId, recent.size(), allAttachments.size());
-
-        Map<UUID, List<AttachmentDto>> attachmentsByMessageId = allAttachments.stream()
-                .collect(Collectors.groupingBy(
-                        ChatAttachmentEntity::getMessageId,
-                        Collectors.mapping(
-                                a -> new AttachmentDto(a.getFilename(), a.getMimeType(), a.getSize(), a.getCreatedAt()),
-                                Collectors.toList()
-                        )
-                ));
+        log.info("대화 조회 - userId: {}, conversationId: {}, 메시지 수: {}, 첨부파일이 있는 메시지 수: {}",
+                userId, conversationId, recent.size(), attachmentsByMessageId.size());
 
         List<ConversationMessageDto> result = new ArrayList<>(recent.size());
         List<Message> messagesForCache = new ArrayList<>(recent.size());
@@ -378,6 +482,88 @@ public class ConversationService {
         return result;
     }
 
+    /**
+     * 특정 대화방의 메시지를 (timestamp, id) keyset 커서로 페이지 조회. 해당 conversationId가 userId 소유인지 검증 후 조회.
+     * <p>같은 timestamp의 메시지도 id로 구분하므로 페이지 경계에서 누락/중복이 없고, 경량 projection으로 조회한다.
+     *
+     * @param userId         사용자 ID
+     * @param conversationId 대화 ID
+     * @param limit          없으면 기본 20개, 있으면 해당 개수(최대 100개)만 조회
+     * @param cursor         이전 응답의 nextCursor (없으면 최신 페이지)
+     * @return 오래된 순 메시지와 다음 커서
+     * @throws ForbiddenException      해당 대화에 대한 접근 권한이 없을 때
+     * @throws InvalidRequestException cursor 형식이 올바르지 않을 때
+     */
+    public ConversationMessagePageDto getConversationPage(
+            String userId, String conversationId, Integer limit, String cursor) {
+        boolean hasConversation = userConversationRepository.existsById_UserIdAndId_ConversationId(userId,
+                conversationId);
+        boolean hasProject = userProjectRepository.existsById_UserIdAndId_ConversationId(userId, conversationId);
+        if (!hasConversation && !hasProject) {
+            throw new ForbiddenException("해당 대화에 대한 접근 권한이 없습니다.");
+        }
+        int effectiveLimit = (limit == null || limit <= 0) ? defaultLimit : Math.min(limit, maxLimit);
+
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회
+        PageRequest pageRequest = PageRequest.of(0, effectiveLimit + 1);
+        List<ChatMessageView> rows;
+        if (StringUtils.hasText(cursor)) {
+            MessageCursor decoded = MessageCursor.decode(cursor);
+            rows = chatMessageRepository.findPageByConversationIdBefore(
+                    conversationId, decoded.timestamp(), decoded.id(), pageRequest);
+        } else {
+            rows = chatMessageRepository.findPageByConversationId(conversationId, pageRequest);
+        }
+        boolean hasMore = rows.size() > effectiveLimit;
+        List<ChatMessageView> page = hasMore ? rows.subList(0, effectiveLimit) : rows;
+
+        Map<UUID, List<AttachmentDto>> attachmentsByMessageId = loadAttachmentsByMessageId(
+                page.stream().map(ChatMessageView::id).toList());
+
+        List<ConversationMessageDto> messages = new ArrayList<>(page.size());
+        List<Message> messagesForCache = new ArrayList<>(page.size());
+        for (int i = page.size() - 1; i >= 0; i--) {
+            ChatMessageView v = page.get(i);
+            List<AttachmentDto> attachments = attachmentsByMessageId.get(v.id());
+            messages.add(new ConversationMessageDto(
+                    v.type().getValue(), v.content(), v.timestamp(), attachments));
+            messagesForCache.add(ChatMessageMetadata.toMessage(
+                    org.springframework.ai.chat.messages.MessageType.fromValue(v.type().getValue()),
+                    v.content(), v.id(), null));
+        }
+        if (!StringUtils.hasText(cursor)) {
+            // 최신 페이지 조회 결과로 캐시 워밍업
+            redisChatMemory.warmCache(conversationId, messagesForCache);
+        }
+
+        ChatMessageView oldest = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore && oldest != null
+                ? new MessageCursor(oldest.timestamp(), oldest.id()).encode()
+                : null;
+        log.info("대화 페이지 조회 - userId: {}, conversationId: {}, 메시지 수: {}, hasMore: {}",
+                userId, conversationId, page.size(), hasMore);
+        return new ConversationMessagePageDto(messages, nextCursor, hasMore);
+    }
+
+    /**
+     * 페이지에 포함된 메시지의 첨부파일만 message_id별로 그룹화하여 조회.
+     * 대화 전체 첨부파일을 읽지 않으므로 읽는 행 수가 페이지 크기에 비례한다.
+     */
+    private Map<UUID, List<AttachmentDto>> loadAttachmentsByMessageId(List<UUID> messageIds) {
+        List<UUID> ids = messageIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return chatAttachmentRepository.findViewsByMessageIdIn(ids).stream()
+                .collect(Collectors.groupingBy(
+                        ChatAttachmentView::messageId,
+                        Collectors.mapping(
+                                a -> new AttachmentDto(a.filename(), a.mimeType(), a.size(), a.createdAt()),
+                                Collectors.toList()
+                        )
+                ));
+    }
+
     /**
      * 특정 대화방의 대화 목록 조회 (기본 메서드, 페이징 없음). 해당 conversationId가 userId 소유인지 검증 후 조회.
      *
@@ -392,19 +578,10 @@ public class ConversationService {
     }
 
     private static Message toChatMemoryMessage(ChatMessageEntity e) {
-        com.kade.AIAssistant.common.enums.MessageType type = e.getType();
-        String text = e.getContent();
-
-        // Spring AI MessageType으로 변환
+        // Spring AI MessageType으로 변환, CHAT_MESSAGE.id는 metadata로 전달 (캐시 중복 판단용)
         org.springframework.ai.chat.messages.MessageType springAiType =
-                org.springframework.ai.chat.messages.MessageType.fromValue(type.getValue());
-
-        return switch (springAiType) {
-            case SYSTEM -> new SystemMessage(text);
-            case USER -> new UserMessage(text);
-            case ASSISTANT -> new AssistantMessage(text);
-            default -> new AssistantMessage(text);
-        };
+                org.springframework.ai.chat.messages.MessageType.fromValue(e.getType().getValue());
+        return ChatMessageMetadata.toMessage(springAiType, e.getContent(), e.getId(), null);
     }
 
     /**
@@ -427,21 +604,25 @@ public class ConversationService {
                 contentToStore,
                 Instant.now()
         );
-        ChatMessageEntity saved = chatMessageRepository.save(entity);
-        log.debug("USER 메시지 저장 완료 - conversationId: {}, id: {}",
-                conversationId, saved.getId());
-        return saved.getId();
+        // id는 엔티티 생성 시 결정되므로 write-behind 저장 전에도 바로 반환 가능
+        // durability=strict이면 커밋까지 기다려 저장 실패를 요청에 그대로 전달 (다른 대화와 같은 배치로 저장)
+        chatMessageWriteBehindQueue.awaitIfDurable(chatMessageWriteBehindQueue.write(entity));
+        log.debug("USER 메시지 저장 요청 완료 - conversationId: {}, id: {}",
+                conversationId, entity.getId());
+        return entity.getId();
     }
 
     /**
      * ASSISTANT 메시지를 우리 테이블에 저장
+     *
+     * @return 저장된 ASSISTANT 메시지 ID (content가 비어 저장하지 않았으면 null)
      */
     @Transactional(readOnly = false)
-    private void saveAssistantMessage(String conversationId, StreamingSessionInfo sessionInfo) {
+    private UUID saveAssistantMessage(String userId, String conversationId, StreamingSessionInfo sessionInfo) {
         String content = sessionInfo.getAccumulatedContent();
         if (!StringUtils.hasText(content)) {
             log.debug("ASSISTANT 메시지 content가 비어있어 저장하지 않음 - conversationId: {}", conversationId);
-            return;
+            return null;
         }
 
         ChatMessageEntity entity = new ChatMessageEntity(
@@ -450,9 +631,13 @@ public class ConversationService {
                 content,
                 Instant.now()
         );
-        chatMessageRepository.save(entity);
+        // durability=strict이면 커밋 후 반환 (이후 markCompleted/완료 콜백 실행)
+        chatMessageWriteBehindQueue.awaitIfDurable(chatMessageWriteBehindQueue.write(entity));
+        // 스트리밍 완료 콜백은 요청 스레드 밖에서 실행되므로 replica 라우팅용 쓰기 기록을 직접 남김
+        readYourWritesTracker.markWrite(userId);
         log.info("ASSISTANT 메시지 저장 완료 - conversationId: {}, id: {}, content 길이: {}",
                 conversationId, entity.getId(), content.length());
+        return entity.getId();
     }
 
     /**
@@ -494,6 +679,9 @@ public class ConversationService {
         log.info("파일 첨부 메타데이터 저장 시작 - conversationId: {}, messageId: {}, filename: {}",
                 conversationId, userMessageId, filename);
 
+        // write-behind 큐에 남아 있으면 저장될 때까지 대기 (FK 참조)
+        chatMessageWriteBehindQueue.awaitPersisted(userMessageId);
+
         // ChatMessageEntity 조회
         ChatMessageEntity messageEntity = chatMessageRepository.findById(userMessageId)
                 .orElseThrow(() -> new RuntimeException("메시지를 찾을 수 없습니다: " + userMessageId));
@@ -505,25 +693,32 @@ public class ConversationService {
                 conversationId, userMessageId, filename, saved.getId());
     }
 
+    /**
+     * 대화(프로젝트) 삭제. 소유 매핑만 즉시 제거(soft-delete)하여 목록/조회에서 숨기고,
+     * 메시지/첨부/문서/벡터는 CONVERSATION_PURGE에 등록해 {@link ConversationPurgeJob}이 배치 삭제한다.
+     * <p>purge는 요청 시각과 무관하게 대화의 모든 행을 지우고, 진행 중인 스트림이 응답을 저장할 수 있도록
+     * start-delay-seconds(기본 SSE 타임아웃) 뒤에 시작한다. 캐시 제거는 커밋 후에 수행한다.
+     */
     @Transactional(readOnly = false)
     public boolean deleteConversation(String userId, String conversationId) {
-        boolean hasConversation = userConversationRepository.findById_UserIdAndId_ConversationId(userId, conversationId)
-                .isPresent();
+        boolean hasConversation = userConversationRepository.existsById_UserIdAndId_ConversationId(userId,
+                conversationId);
         boolean hasProject = userProjectRepository.existsById_UserIdAndId_ConversationId(userId, conversationId);
 
         if (!hasConversation && !hasProject) {
             return false;
         }
 
-        chatAttachmentRepository.deleteByConversationId(conversationId);
-        redisChatMemory.clear(conversationId);
         userConversationRepository.deleteById_UserIdAndId_ConversationId(userId, conversationId);
-
         if (hasProject) {
-            projectRagService.deleteByProject(userId, conversationId);
-            projectDocumentRepository.deleteByConversationIdAndUserId(conversationId, userId);
             userProjectRepository.deleteById_UserIdAndId_ConversationId(userId, conversationId);
         }
+        conversationPurgeRepository.enqueue(conversationId, userId, hasProject, Instant.now(),
+                purgeStartDelaySeconds);
+        redisChatMemory.evictCacheAfterCommit(conversationId);
+        conversationListCache.removeAfterCommit(userId, conversationId);
+        userConversationEnsureService.forget(userId, conversationId);
+        log.info("대화 삭제 요청 - userId: {}, conversationId: {}, project: {}", userId, conversationId, hasProject);
         return true;
     }
 
@@ -546,7 +741,7 @@ public class ConversationService {
 
         if (convEntity != null) {
             convEntity.changeSubject(trimmedSubject);
-            userConversationRepository.save(convEntity);
+            conversationListCache.upsertAfterCommit(userConversationRepository.save(convEntity));
         }
         projectEntity.ifPresent(e -> {
             e.changeSubject(trimmedSubject);
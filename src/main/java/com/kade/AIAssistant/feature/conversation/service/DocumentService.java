@@ -15,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -52,6 +53,40 @@ public class DocumentService {
         }
     }
 
+    /**
+     * 디스크에 저장된 파일에서 텍스트 추출 (문서 수집 작업용, 파일 전체를 메모리에 올리지 않음)
+     *
+     * @param filename 원본 파일명 (확장자로 HWP 여부 판단)
+     */
+    public String extractText(Path path, String filename) {
+        String lower = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        try {
+            if (lower.endsWith(".hwp")) {
+                HWPFile hwp = HWPReader.fromFile(path.toString());
+                TextExtractOption option = new TextExtractOption();
+                option.setWithControlChar(false);
+                String text = TextExtractor.extract(hwp, option);
+                log.info("문서 텍스트 추출 완료(HWP): name={}, length={}", filename, text.length());
+                return text;
+            }
+
+            FileSystemResource resource = new FileSystemResource(path) {
+                @Override
+                public String getFilename() {
+                    return filename;
+                }
+            };
+            String merged = new TikaDocumentReader(resource).read().stream()
+                    .map(Document::getText)
+                    .collect(Collectors.joining("\n\n"));
+            log.info("문서 텍스트 추출 완료(Tika): name={}, size={}, length={}",
+                    filename, Files.size(path), merged.length());
+            return merged;
+        } catch (Exception e) {
+            throw new RuntimeException("파일 읽기 실패: " + e.getMessage(), e);
+        }
+    }
+
     // hwp 확장자 별도 라이브러리로 처리
     private String extractFromHwp(MultipartFile file) {
         Path temp = null;
@@ -3,72 +3,190 @@ package com.kade.AIAssistant.feature.conversation.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kade.AIAssistant.common.exceptions.customs.IdempotencyConflictException;
 import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestScope;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 /**
  * Idempotency-Key 기반 중복 요청 방지.
  * Redis에 상태(IN_PROGRESS / COMPLETED / FAILED)를 저장하고, 재시도 시 사용자 메시지 중복 저장을 방지한다.
- * Redis 값은 GenericJackson2JsonRedisSerializer로 저장되며, 역직렬화 시 LinkedHashMap으로 올 수 있어
- * 타입 안전 변환을 수행한다.
+ * <p>
+ * 상태는 Redis hash({@code idempotency:v2:{userId}:{key}})에 짧은 필드로 저장하고,
+ * 모든 상태 전이는 Lua 스크립트로 원자적으로 수행한다 (전이당 Redis 왕복 1회).
+ * <pre>
+ *   (없음)       --claim-->    IN_PROGRESS (attempt=1)
+ *   IN_PROGRESS --complete--> COMPLETED   (attempt 일치 시)
+ *   IN_PROGRESS --fail-->     FAILED      (attempt 일치 시)
+ *   FAILED      --retry-->    IN_PROGRESS (attempt+1)
+ * </pre>
+ * attempt가 일치하지 않는 complete/fail(이전 시도의 늦은 완료/실패)은 무시되어, 진행 중인 재시도를 덮어쓰지 않는다.
+ * <p>
+ * 조회는 hash HMGET과 이전 형식(value 직렬화, {@code idempotency:{userId}:{key}}) GET을 Lua 스크립트 하나로 수행한다
+ * (새 키도 왕복 1회). 이전 형식 상태가 있으면 같은 상태로 hash에 옮기고 이전 key를 지우므로,
+ * 이전 형식 FAILED도 이후 재시도 전이(FAILED → IN_PROGRESS)를 그대로 따른다.
+ * <p>
+ * COMPLETED 전이 시 최종 응답({@link CompletedResponse})을 JSON → Deflate → Base64로 같은 hash의
+ * {@code res} 필드에 함께 저장한다 (같은 TTL). 완료된 키로 재요청하면 DB 조회 없이 이 값을 SSE로 재전송한다.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IdempotencyService {
 
+    private static final String FIELD_STATUS = "st";
+    private static final String FIELD_CONVERSATION_ID = "cid";
+    private static final String FIELD_USER_MESSAGE_ID = "mid";
+    private static final String FIELD_ATTEMPT = "att";
+    private static final String FIELD_RESPONSE = "res";
+
+    private static final String RESULT_OK = "OK";
+    private static final String RESULT_REJECTED = "REJECTED";
+    private static final String RESULT_LEGACY = "LEGACY";
+
+    /**
+     * KEYS: hash key, 이전 형식 key
+     * <br>반환: hash가 있으면 {OK, st, cid, mid, att}, 이전 형식만 있으면 {LEGACY, 직렬화된 값}, 둘 다 없으면 빈 배열
+     */
+    private static final DefaultRedisScript<List> GET_SCRIPT = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'st', 'cid', 'mid', 'att')
+            if cur[1] then
+              return {'OK', cur[1], cur[2], cur[3], cur[4]}
+            end
+            local legacy = redis.call('GET', KEYS[2])
+            if legacy then
+              return {'LEGACY', legacy}
+            end
+            return {}
+            """, List.class);
+
+    /**
+     * 이전 형식 상태를 hash로 옮긴다 (hash가 이미 있으면 유지). 이전 key는 삭제.
+     * <br>KEYS: hash key, 이전 형식 key / ARGV: st, cid, mid, att, ttlSeconds
+     * <br>반환: {OK, st, cid, mid, att} (옮긴 뒤 hash 상태)
+     */
+    private static final DefaultRedisScript<List> ADOPT_LEGACY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              redis.call('HSET', KEYS[1], 'st', ARGV[1], 'cid', ARGV[2], 'mid', ARGV[3], 'att', ARGV[4])
+              redis.call('EXPIRE', KEYS[1], ARGV[5])
+            end
+            redis.call('DEL', KEYS[2])
+            local cur = redis.call('HMGET', KEYS[1], 'st', 'cid', 'mid', 'att')
+            return {'OK', cur[1], cur[2], cur[3], cur[4]}
+            """, List.class);
+
+    /**
+     * ARGV: conversationId, userMessageId, ttlSeconds
+     * <br>반환: {결과, st, cid, mid, att}
+     */
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'st', 'cid', 'mid', 'att')
+            if cur[1] then
+              return {'REJECTED', cur[1], cur[2], cur[3], cur[4]}
+            end
+            redis.call('HSET', KEYS[1], 'st', 'IN_PROGRESS', 'cid', ARGV[1], 'mid', ARGV[2], 'att', '1')
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return {'OK', 'IN_PROGRESS', ARGV[1], ARGV[2], '1'}
+            """, List.class);
+
+    /**
+     * ARGV: from, to, attempt(빈 문자열이면 확인 안 함), ttlSeconds, response(빈 문자열이면 저장 안 함)
+     * <br>to가 IN_PROGRESS(재시도)면 attempt를 1 증가시킨다.
+     * <br>반환: 상태가 없으면 빈 배열, 아니면 {결과, st, cid, mid, att}
+     */
+    private static final DefaultRedisScript<List> TRANSITION_SCRIPT = new DefaultRedisScript<>("""
+            local cur = redis.call('HMGET', KEYS[1], 'st', 'cid', 'mid', 'att')
+            if not cur[1] then
+              return {}
+            end
+            if cur[1] ~= ARGV[1] or (ARGV[3] ~= '' and cur[4] ~= ARGV[3]) then
+              return {'REJECTED', cur[1], cur[2], cur[3], cur[4]}
+            end
+            local att = cur[4]
+            if ARGV[2] == 'IN_PROGRESS' then
+              att = tostring(tonumber(att or '0') + 1)
+            end
+            redis.call('HSET', KEYS[1], 'st', ARGV[2], 'att', att)
+            if ARGV[5] ~= '' then
+              redis.call('HSET', KEYS[1], 'res', ARGV[5])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return {'OK', ARGV[2], cur[2], cur[3], att}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
 
     @Value("${app.idempotency.ttl-hours:24}")
     private int ttlHours;
 
-    private static final Duration RETRY_LOCK_TTL = Duration.ofMinutes(5);
-
-    private static String stateKey(String userId, String idempotencyKey) {
-        return RedisKeyPrefix.IDEMPOTENCY + ":" + userId + ":" + idempotencyKey;
-    }
+    /**
+     * 재전송용 응답 최대 크기(압축 후 바이트). 초과하면 저장하지 않고 already_completed만 전송
+     */
+    @Value("${app.idempotency.replay-max-bytes:262144}")
+    private int replayMaxBytes;
 
-    private static String retryLockKey(String userId, String idempotencyKey) {
-        return RedisKeyPrefix.IDEMPOTENCY + ":retry_lock:" + userId + ":" + idempotencyKey;
+    public static String stateKey(String userId, String idempotencyKey) {
+        return RedisKeyPrefix.IDEMPOTENCY + ":v2:" + userId + ":" + idempotencyKey;
     }
 
     /**
-     * Redis에서 읽은 값을 IdempotencyState로 안전 변환.
-     * GenericJackson2JsonRedisSerializer가 타입 정보 없이 LinkedHashMap으로 역직렬화하는 경우를 처리한다.
+     * 이전 형식(문자열 value) key. 배포 전 저장된 상태 조회용 (TTL 만료 후 제거 가능)
      */
-    private IdempotencyState toIdempotencyState(Object value) {
-        if (value == null) {
-            return null;
-        }
-        if (value instanceof IdempotencyState state) {
-            return state;
-        }
-        if (value instanceof Map<?, ?> map) {
-            try {
-                return objectMapper.convertValue(map, IdempotencyState.class);
-            } catch (Exception e) {
-                log.warn("Redis idempotency 상태를 IdempotencyState로 변환 실패: {}", e.getMessage());
-                return null;
-            }
-        }
-        return null;
+    private static String legacyStateKey(String userId, String idempotencyKey) {
+        return RedisKeyPrefix.IDEMPOTENCY + ":" + userId + ":" + idempotencyKey;
     }
 
     /**
-     * Idempotency-Key에 해당하는 상태 조회
+     * Idempotency-Key에 해당하는 상태 조회 (hash와 이전 형식을 왕복 1회로 함께 조회)
      */
     public Optional<IdempotencyState> get(String userId, String idempotencyKey) {
         String key = stateKey(userId, idempotencyKey);
-        Object value = redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(toIdempotencyState(value));
+        String legacyKey = legacyStateKey(userId, idempotencyKey);
+        // 이전 형식 값은 바이너리 코덱으로 저장되어 있으므로 결과를 byte[]로 받아 필드별로 복원
+        List<byte[]> result = executeRaw(GET_SCRIPT, List.of(key, legacyKey));
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!RESULT_LEGACY.equals(text(result.get(0)))) {
+            return Optional.of(toState(result));
+        }
+
+        IdempotencyState legacy = toLegacyState(redisTemplate.getValueSerializer().deserialize(result.get(1)));
+        if (legacy == null || legacy.getStatus() == null) {
+            return Optional.empty();
+        }
+        // 이후 전이(claim/재시도/완료)는 hash 스크립트만 보므로 hash로 옮긴다 (이전 형식 키당 한 번)
+        List<byte[]> adopted = executeRaw(ADOPT_LEGACY_SCRIPT, List.of(key, legacyKey),
+                legacy.getStatus(),
+                legacy.getConversationId() != null ? legacy.getConversationId() : "",
+                legacy.getUserMessageId() != null ? legacy.getUserMessageId().toString() : "",
+                String.valueOf(legacy.attemptOrDefault()),
+                ttlSeconds());
+        log.info("Idempotency 이전 형식 상태를 hash로 이전 - key: {}, status: {}", idempotencyKey, legacy.getStatus());
+        return Optional.of(toState(adopted));
     }
 
     /**
@@ -76,14 +194,9 @@ public class IdempotencyService {
      * 이미 키가 존재하면 false 반환 (중복 요청).
      */
     public boolean claim(String userId, String idempotencyKey, String conversationId, UUID userMessageId) {
-        String key = stateKey(userId, idempotencyKey);
-        IdempotencyState state = IdempotencyState.builder()
-                .status(IdempotencyState.IN_PROGRESS)
-                .conversationId(conversationId)
-                .userMessageId(userMessageId)
-                .build();
-        Boolean set = redisTemplate.opsForValue().setIfAbsent(key, state, Duration.ofHours(ttlHours));
-        if (Boolean.TRUE.equals(set)) {
+        List<?> result = execute(CLAIM_SCRIPT, stateKey(userId, idempotencyKey),
+                conversationId, userMessageId != null ? userMessageId.toString() : "", ttlSeconds());
+        if (RESULT_OK.equals(result.get(0))) {
             log.debug("Idempotency claim - key: {}, conversationId: {}", idempotencyKey, conversationId);
             return true;
         }
@@ -91,43 +204,57 @@ public class IdempotencyService {
     }
 
     /**
-     * 스트리밍 완료 시 COMPLETED로 갱신
+     * 스트리밍 완료 시 COMPLETED로 갱신 (IN_PROGRESS이고 attempt가 일치할 때만).
+     * response가 있으면 재전송용으로 같은 hash에 원자적으로 함께 저장한다.
      */
-    public void markCompleted(String userId, String idempotencyKey) {
-        String key = stateKey(userId, idempotencyKey);
-        IdempotencyState existing = toIdempotencyState(redisTemplate.opsForValue().get(key));
-        if (existing != null) {
-            existing.setStatus(IdempotencyState.COMPLETED);
-            redisTemplate.opsForValue().set(key, existing, Duration.ofHours(ttlHours));
-            log.debug("Idempotency completed - key: {}", idempotencyKey);
-        }
+    public void markCompleted(String userId, String idempotencyKey, int attempt, CompletedResponse response) {
+        transition(userId, idempotencyKey, IdempotencyState.IN_PROGRESS, IdempotencyState.COMPLETED, attempt,
+                encodeResponse(idempotencyKey, response));
     }
 
     /**
-     * 스트리밍 실패 시 FAILED로 갱신
+     * COMPLETED 상태와 함께 저장된 최종 응답 조회 (없거나 읽을 수 없으면 empty)
      */
-    public void markFailed(String userId, String idempotencyKey) {
-        String key = stateKey(userId, idempotencyKey);
-        IdempotencyState existing = toIdempotencyState(redisTemplate.opsForValue().get(key));
-        if (existing != null) {
-            existing.setStatus(IdempotencyState.FAILED);
-            redisTemplate.opsForValue().set(key, existing, Duration.ofHours(ttlHours));
-            log.debug("Idempotency failed - key: {}", idempotencyKey);
+    public Optional<CompletedResponse> getCompletedResponse(String userId, String idempotencyKey) {
+        Object value = stringRedisTemplate.opsForHash().get(stateKey(userId, idempotencyKey), FIELD_RESPONSE);
+        RedisRequestScope.recordRoundTrip();
+        if (value == null) {
+            return Optional.empty();
+        }
+        try (InputStream in = new InflaterInputStream(
+                new ByteArrayInputStream(Base64.getDecoder().decode(value.toString())))) {
+            return Optional.of(objectMapper.readValue(in, CompletedResponse.class));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Idempotency 응답 복원 실패 - key: {}, cause: {}", idempotencyKey, e.getMessage());
+            return Optional.empty();
         }
     }
 
     /**
-     * FAILED 상태일 때만 재시도 권한 획득. retry_lock으로 동시 재시도 방지.
-     * 권한을 얻으면 상태를 IN_PROGRESS로 바꾸고 저장된 conversationId를 반환.
+     * 스트리밍 실패 시 FAILED로 갱신 (IN_PROGRESS이고 attempt가 일치할 때만)
+     */
+    public void markFailed(String userId, String idempotencyKey, int attempt) {
+        transition(userId, idempotencyKey, IdempotencyState.IN_PROGRESS, IdempotencyState.FAILED, attempt, "");
+    }
+
+    /**
+     * FAILED 상태일 때만 재시도 권한 획득 (FAILED → IN_PROGRESS 전이가 원자적이므로 동시 재시도 중 하나만 성공).
+     * 권한을 얻으면 증가된 attempt와 저장된 conversationId를 담은 상태를 반환.
      * 이미 IN_PROGRESS이면 IdempotencyConflictException.
      * COMPLETED이면 IdempotencyConflictException은 아니고, 호출 측에서 "already completed" 처리.
      */
     public IdempotencyState tryStartRetry(String userId, String idempotencyKey) {
-        Optional<IdempotencyState> opt = get(userId, idempotencyKey);
-        if (opt.isEmpty()) {
+        List<?> result = execute(TRANSITION_SCRIPT, stateKey(userId, idempotencyKey),
+                IdempotencyState.FAILED, IdempotencyState.IN_PROGRESS, "", ttlSeconds(), "");
+        if (result.isEmpty()) {
             return null;
         }
-        IdempotencyState state = opt.get();
+        IdempotencyState state = toState(result.get(1), result.get(2), result.get(3), result.get(4));
+        if (RESULT_OK.equals(result.get(0))) {
+            log.debug("Idempotency retry started - key: {}, conversationId: {}, attempt: {}",
+                    idempotencyKey, state.getConversationId(), state.getAttempt());
+            return state;
+        }
         if (IdempotencyState.IN_PROGRESS.equals(state.getStatus())) {
             throw new IdempotencyConflictException(
                     "동일한 Idempotency-Key로 요청이 이미 처리 중입니다.",
@@ -137,28 +264,110 @@ public class IdempotencyService {
         if (IdempotencyState.COMPLETED.equals(state.getStatus())) {
             return state;
         }
-        if (!IdempotencyState.FAILED.equals(state.getStatus())) {
-            return null;
+        return null;
+    }
+
+    private void transition(String userId, String idempotencyKey, String from, String to, int attempt,
+                            String response) {
+        List<?> result = execute(TRANSITION_SCRIPT, stateKey(userId, idempotencyKey),
+                from, to, String.valueOf(attempt), ttlSeconds(), response);
+        if (!result.isEmpty() && RESULT_REJECTED.equals(result.get(0))) {
+            log.info("Idempotency 상태 전이 무시 - key: {}, {} -> {}, attempt: {}, 현재: {}(attempt {})",
+                    idempotencyKey, from, to, attempt, result.get(1), result.get(4));
+            return;
         }
-        String lockKey = retryLockKey(userId, idempotencyKey);
-        Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, "1", RETRY_LOCK_TTL);
-        if (!Boolean.TRUE.equals(locked)) {
-            throw new IdempotencyConflictException(
-                    "동일한 Idempotency-Key로 재시도가 이미 진행 중입니다.",
-                    IdempotencyConflictException.CODE_REQUEST_IN_PROGRESS
-            );
+        log.debug("Idempotency {} - key: {}, attempt: {}", to, idempotencyKey, attempt);
+    }
+
+    private List<?> execute(DefaultRedisScript<List> script, String key, String... args) {
+        List<?> result = stringRedisTemplate.execute(script, List.of(key), (Object[]) args);
+        RedisRequestScope.recordRoundTrip();
+        return result != null ? result : List.of();
+    }
+
+    /**
+     * 결과 요소를 역직렬화하지 않고 byte[]로 받는 스크립트 실행 (null 요소 포함 가능)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<byte[]> executeRaw(DefaultRedisScript<List> script, List<String> keys, String... args) {
+        // List 결과의 각 요소에 resultSerializer가 적용되므로 byteArray면 원본 그대로 받는다
+        RedisSerializer<List> rawElements = (RedisSerializer) RedisSerializer.byteArray();
+        List<byte[]> result = stringRedisTemplate.execute(script, RedisSerializer.string(), rawElements,
+                keys, (Object[]) args);
+        RedisRequestScope.recordRoundTrip();
+        return result != null ? result : List.of();
+    }
+
+    private static String text(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * {결과, st, cid, mid, att} 형식의 byte[] 결과를 상태로 변환
+     */
+    private static IdempotencyState toState(List<byte[]> result) {
+        return toState(text(result.get(1)), text(result.get(2)), text(result.get(3)), text(result.get(4)));
+    }
+
+    /**
+     * 응답을 JSON → Deflate → Base64 문자열로 변환. 실패하거나 최대 크기를 넘으면 빈 문자열 (저장 안 함)
+     */
+    private String encodeResponse(String idempotencyKey, CompletedResponse response) {
+        if (response == null) {
+            return "";
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            objectMapper.writeValue(out, response);
+        } catch (IOException e) {
+            log.warn("Idempotency 응답 직렬화 실패 - key: {}, cause: {}", idempotencyKey, e.getMessage());
+            return "";
+        } finally {
+            deflater.end();
         }
-        String stateKey = stateKey(userId, idempotencyKey);
-        state.setStatus(IdempotencyState.IN_PROGRESS);
-        redisTemplate.opsForValue().set(stateKey, state, Duration.ofHours(ttlHours));
-        log.debug("Idempotency retry started - key: {}, conversationId: {}", idempotencyKey, state.getConversationId());
-        return state;
+        if (bytes.size() > replayMaxBytes) {
+            log.info("Idempotency 응답이 최대 크기를 넘어 재전송용으로 저장하지 않음 - key: {}, size: {}",
+                    idempotencyKey, bytes.size());
+            return "";
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(Duration.ofHours(ttlHours).toSeconds());
+    }
+
+    private static IdempotencyState toState(Object status, Object conversationId, Object userMessageId,
+                                            Object attempt) {
+        String mid = userMessageId != null ? userMessageId.toString() : null;
+        return IdempotencyState.builder()
+                .status(status.toString())
+                .conversationId(conversationId != null ? conversationId.toString() : null)
+                .userMessageId(StringUtils.hasText(mid) ? UUID.fromString(mid) : null)
+                .attempt(attempt != null ? Integer.parseInt(attempt.toString()) : 1)
+                .build();
     }
 
     /**
-     * 재시도 완료/실패 후 retry_lock 해제
+     * 이전 형식 값을 IdempotencyState로 안전 변환.
+     * JSON 형식이 LinkedHashMap으로 역직렬화되는 경우를 처리한다.
      */
-    public void releaseRetryLock(String userId, String idempotencyKey) {
-        redisTemplate.delete(retryLockKey(userId, idempotencyKey));
+    private IdempotencyState toLegacyState(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof IdempotencyState state) {
+            return state;
+        }
+        if (value instanceof Map<?, ?> map) {
+            try {
+                return objectMapper.convertValue(map, IdempotencyState.class);
+            } catch (Exception e) {
+                log.warn("Redis idempotency 상태를 IdempotencyState로 변환 실패: {}", e.getMessage());
+                return null;
+            }
+        }
+        return null;
     }
 }
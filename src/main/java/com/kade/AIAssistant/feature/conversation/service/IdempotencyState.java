@@ -9,8 +9,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
- * Idempotency-Key별 Redis 저장 값.
- * Redis value 직렬화용 (GenericJackson2JsonRedisSerializer).
+ * Idempotency-Key별 상태.
+ * Redis hash 필드(st, cid, mid, att)로 저장되며, 이전 형식(value 직렬화)도 조회 시 이 타입으로 변환된다.
  */
 @Getter
 @Setter
@@ -39,4 +39,16 @@ public class IdempotencyState implements Serializable {
      * 저장된 USER 메시지 ID (선택)
      */
     private UUID userMessageId;
+
+    /**
+     * 시도 번호 (claim 시 1, 재시도마다 1 증가). 완료/실패 전이는 같은 시도 번호일 때만 적용된다.
+     */
+    private Integer attempt;
+
+    /**
+     * 시도 번호 (이전 형식 값은 1)
+     */
+    public int attemptOrDefault() {
+        return attempt != null ? attempt : 1;
+    }
 }
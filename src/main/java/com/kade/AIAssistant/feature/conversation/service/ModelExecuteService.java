@@ -7,10 +7,13 @@ import com.kade.AIAssistant.common.prompt.PromptService;
 import com.kade.AIAssistant.feature.conversation.dto.request.AssistantRequest;
 import com.kade.AIAssistant.infra.langfuse.prompt.LangfusePromptTemplate;
 import com.kade.AIAssistant.infra.ollama.factory.OllamaChatModelFactory;
+import com.kade.AIAssistant.infra.redis.context.ChatMessageMetadata;
 import io.opentelemetry.api.trace.Span;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
@@ -57,6 +60,15 @@ public class ModelExecuteService {
      * AI 모델 스트리밍 생성 - ChatClient 고수준 API 사용
      */
     public Flux<ChatResponse> stream(String userId, AssistantRequest request) {
+        return stream(userId, request, null);
+    }
+
+    /**
+     * AI 모델 스트리밍 생성. userMessageId가 있으면 user 메시지 metadata로 전달하여 ChatMemory가 id 기준으로 중복을 판단하게 한다.
+     *
+     * @param userMessageId 이미 저장된 USER 메시지의 CHAT_MESSAGE.id (없으면 null)
+     */
+    public Flux<ChatResponse> stream(String userId, AssistantRequest request, UUID userMessageId) {
         Span.current().setAttribute("langfuse.trace.metadata.promptType", request.promptType().name());
 
         if (!StringUtils.hasText(request.conversationId())) {
@@ -66,7 +78,7 @@ public class ModelExecuteService {
         boolean ragEnabled = request.promptType().equals(PromptType.PROJECT);
 
         LangfusePromptTemplate template = promptService.getLangfusePrompt(request.promptType());
-        Prompt prompt = buildPrompt(userId, request, template);
+        Prompt prompt = buildPrompt(userId, request, template, userMessageId);
         OllamaChatOptions options = template.getOllamaChatOptions();
 
         log.info("PROJECT 타입 모델 정보: model={}, ragEnabled={}, options={}", 
@@ -110,11 +122,15 @@ public class ModelExecuteService {
     /**
      * 고정 system + (선택) 사용자 선호 system + user 메시지 순으로 Prompt 생성
      */
-    private Prompt buildPrompt(String userId, AssistantRequest request, LangfusePromptTemplate template) {
+    private Prompt buildPrompt(String userId, AssistantRequest request, LangfusePromptTemplate template,
+                               UUID userMessageId) {
         List<Message> messages = new ArrayList<>();
         messages.add(promptService.getSystemPrompt(template, request));
         promptService.getUserPreferencePrompt(userId).ifPresent(messages::add);
-        messages.add(UserMessage.builder().text(request.question()).build());
+        Map<String, Object> metadata = userMessageId != null
+                ? Map.of(ChatMessageMetadata.MESSAGE_ID, userMessageId.toString())
+                : Map.of();
+        messages.add(UserMessage.builder().text(request.question()).metadata(metadata).build());
         return new Prompt(messages);
     }
 
@@ -1,32 +1,104 @@
 package com.kade.AIAssistant.feature.conversation.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
-import com.kade.AIAssistant.feature.conversation.repository.UserConversationRepository;
-import lombok.RequiredArgsConstructor;
+import com.kade.AIAssistant.feature.conversation.repository.UserConversationJdbcRepository;
+import com.kade.AIAssistant.feature.conversation.repository.UserConversationJdbcRepository.Upserted;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 유저-대화 매핑 등록/갱신을 트랜잭션으로 수행.
+ * <p>등록/갱신은 {@code INSERT ... ON CONFLICT DO UPDATE} 한 문장으로 처리하고, 같은 대화의 갱신은
+ * coalesce-seconds 안에서 한 번만 쓴다 (프로세스 내에서는 문장 자체를 생략, 노드 간에는 SQL WHERE 조건으로 생략).
+ * <p>메트릭: {@code conversation.ensure{result=inserted|touched|coalesced}}
  */
 @Service
-@RequiredArgsConstructor
 public class UserConversationEnsureService {
 
-    private final UserConversationRepository userConversationRepository;
+    private final UserConversationJdbcRepository userConversationJdbcRepository;
+    private final ConversationListCache conversationListCache;
+    private final MeterRegistry meterRegistry;
+    private final long coalesceSeconds;
 
     /**
-     * (userId, conversationId, subject) 매핑이 없으면 등록. 이미 있으면 touch() 후 save로 updated_at만 갱신.
+     * 최근 커밋된 ensure (userId:conversationId). 항목이 있으면 coalesce 시간 안이므로 DB에 쓰지 않는다.
+     */
+    private final Cache<String, Boolean> recentlyEnsured;
+
+    public UserConversationEnsureService(
+            UserConversationJdbcRepository userConversationJdbcRepository,
+            ConversationListCache conversationListCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.conversation.ensure.coalesce-seconds:5}") long coalesceSeconds,
+            @Value("${app.conversation.ensure.coalesce-max-size:100000}") long coalesceMaxSize) {
+        this.userConversationJdbcRepository = userConversationJdbcRepository;
+        this.conversationListCache = conversationListCache;
+        this.meterRegistry = meterRegistry;
+        this.coalesceSeconds = Math.max(0, coalesceSeconds);
+        this.recentlyEnsured = Caffeine.newBuilder()
+                .maximumSize(coalesceMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(this.coalesceSeconds))
+                .build();
+    }
+
+    /**
+     * (userId, conversationId, subject) 매핑이 없으면 등록. 이미 있으면 updated_at만 갱신 (subject는 유지).
+     * 커밋 후 유저 대화 목록 캐시에도 반영한다.
      */
     @Transactional
     public void ensure(String userId, String conversationId, String subject) {
-        userConversationRepository.findById_UserIdAndId_ConversationId(userId, conversationId)
-                .ifPresentOrElse(
-                        e -> {
-                            e.touch();
-                            userConversationRepository.save(e);
-                        },
-                        () -> userConversationRepository.save(new UserConversationEntity(userId, conversationId, subject))
-                );
+        String key = key(userId, conversationId);
+        if (coalesceSeconds > 0 && recentlyEnsured.getIfPresent(key) != null) {
+            count("coalesced");
+            return;
+        }
+
+        Optional<Upserted> upserted = userConversationJdbcRepository.upsert(
+                userId, conversationId, UserConversationEntity.initialSubject(subject), Instant.now(),
+                coalesceSeconds);
+        count(upserted.map(u -> u.inserted() ? "inserted" : "touched").orElse("coalesced"));
+        upserted.ifPresent(u -> conversationListCache.upsertAfterCommit(
+                userId, conversationId, u.subject(), u.updatedAt()));
+        if (coalesceSeconds > 0) {
+            // 롤백되면 등록되지 않았으므로 커밋 후에만 기록
+            afterCommit(() -> recentlyEnsured.put(key, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * 대화 삭제 시 coalesce 기록 제거 (같은 id로 다시 ensure하면 바로 등록되도록)
+     */
+    public void forget(String userId, String conversationId) {
+        recentlyEnsured.invalidate(key(userId, conversationId));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("conversation.ensure", "result", result).increment();
+    }
+
+    private static String key(String userId, String conversationId) {
+        return userId + ":" + conversationId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
     }
 }
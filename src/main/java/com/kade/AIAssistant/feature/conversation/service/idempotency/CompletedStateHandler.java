@@ -1,22 +1,39 @@
 package com.kade.AIAssistant.feature.conversation.service.idempotency;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kade.AIAssistant.feature.conversation.dto.request.AssistantRequest;
+import com.kade.AIAssistant.feature.conversation.dto.response.ChatCompletionChunk;
+import com.kade.AIAssistant.feature.conversation.service.CompletedResponse;
+import com.kade.AIAssistant.feature.conversation.service.IdempotencyService;
 import com.kade.AIAssistant.feature.conversation.service.IdempotencyState;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * COMPLETED 상태 처리 핸들러.
- * 이미 완료된 요청에 대해 already_completed 이벤트를 전송하고 스트림을 종료합니다.
+ * 이미 완료된 요청에 대해 already_completed 이벤트를 전송하고,
+ * 상태와 함께 저장된 최종 응답이 있으면 DB 조회 없이 chunk 이벤트로 재전송한 뒤 스트림을 종료합니다.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class CompletedStateHandler implements IdempotencyStateHandler {
 
+    /**
+     * 재전송 시 chunk 하나에 담는 최대 문자 수
+     */
+    private static final int REPLAY_CHUNK_SIZE = 512;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
     @Override
     public boolean canHandle(Optional<IdempotencyState> state) {
         return state.isPresent() && IdempotencyState.COMPLETED.equals(state.get().getStatus());
@@ -32,19 +49,73 @@ public class CompletedStateHandler implements IdempotencyStateHandler {
     ) {
         IdempotencyState completedState = state.orElseThrow();
         String conversationId = completedState.getConversationId();
+        Optional<CompletedResponse> response = idempotencyService.getCompletedResponse(userId, idempotencyKey);
 
         try {
             emitter.send(SseEmitter.event()
                     .name("already_completed")
-                    .data(Map.of("conversationId", conversationId)));
+                    .data(alreadyCompletedPayload(completedState, response.orElse(null))));
+            if (response.isPresent()) {
+                replay(response.get(), emitter);
+            }
         } catch (IOException e) {
             log.warn("already_completed 이벤트 전송 실패 - idempotencyKey: {}", idempotencyKey, e);
         }
         emitter.complete();
 
-        log.info("이미 완료된 요청 - userId: {}, idempotencyKey: {}, conversationId: {}",
-                userId, idempotencyKey, conversationId);
+        log.info("이미 완료된 요청 - userId: {}, idempotencyKey: {}, conversationId: {}, replayed: {}",
+                userId, idempotencyKey, conversationId, response.isPresent());
 
         return new IdempotencyResolutionResult(conversationId, true, true);
     }
+
+    private static Map<String, Object> alreadyCompletedPayload(IdempotencyState state, CompletedResponse response) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("conversationId", state.getConversationId());
+        payload.put("replayed", response != null);
+        if (response != null) {
+            UUID userMessageId = response.userMessageId() != null
+                    ? response.userMessageId()
+                    : state.getUserMessageId();
+            if (userMessageId != null) {
+                payload.put("userMessageId", userMessageId.toString());
+            }
+            payload.put("assistantMessageId", response.assistantMessageId().toString());
+        }
+        return payload;
+    }
+
+    /**
+     * 저장된 응답을 일반 스트리밍과 같은 형식(chunk... → 완료 chunk → stream_complete)으로 재전송
+     */
+    private void replay(CompletedResponse response, SseEmitter emitter) throws IOException {
+        String id = response.assistantMessageId().toString();
+        String content = response.content() != null ? response.content() : "";
+        int start = 0;
+        while (start < content.length()) {
+            int end = Math.min(content.length(), start + REPLAY_CHUNK_SIZE);
+            // surrogate pair가 chunk 경계에서 나뉘지 않도록 조정
+            if (end < content.length() && Character.isHighSurrogate(content.charAt(end - 1))) {
+                end--;
+            }
+            ChatCompletionChunk chunk = ChatCompletionChunk.chunk(
+                    id, response.created(), response.model(), content.substring(start, end), null, null);
+            emitter.send(SseEmitter.event()
+                    .data(objectMapper.writeValueAsString(chunk))
+                    .name("chunk"));
+            start = end;
+        }
+
+        // StreamingService와 같이 finishReason이 없으면 "stop"
+        String finishReason = response.finishReason() != null ? response.finishReason() : "stop";
+        ChatCompletionChunk completion = ChatCompletionChunk.completion(
+                id, response.created(), response.model(), finishReason,
+                new ChatCompletionChunk.Usage(
+                        response.promptTokens(), response.completionTokens(), response.totalTokens()));
+        emitter.send(SseEmitter.event()
+                .data(objectMapper.writeValueAsString(completion))
+                .name("chunk"));
+        emitter.send(SseEmitter.event()
+                .name("stream_complete"));
+    }
 }
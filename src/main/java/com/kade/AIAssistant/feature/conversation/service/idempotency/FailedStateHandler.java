@@ -44,7 +44,7 @@ public class FailedStateHandler implements IdempotencyStateHandler {
             String conversationId = retryState.getConversationId();
             log.info("재시도 성공 - conversationId: {}, userMessageId: {}",
                     conversationId, retryState.getUserMessageId());
-            return new IdempotencyResolutionResult(conversationId, true, false);
+            return new IdempotencyResolutionResult(conversationId, true, false, retryState.attemptOrDefault());
         } else {
             // 재시도 실패 - 새로운 conversationId 생성, 사용자 메시지 저장 진행
             String conversationId = resolveConversationId(request);
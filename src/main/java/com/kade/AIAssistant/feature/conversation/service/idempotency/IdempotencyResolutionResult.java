@@ -5,7 +5,7 @@ import lombok.Getter;
 
 /**
  * Idempotency 처리 결과를 담는 DTO.
- * conversationId와 사용자 메시지 저장 스킵 여부를 포함.
+ * conversationId, 사용자 메시지 저장 스킵 여부, idempotency 시도 번호를 포함.
  */
 @Getter
 @AllArgsConstructor
@@ -25,4 +25,13 @@ public class IdempotencyResolutionResult {
      * SSE 스트림 완료 여부 (COMPLETED 상태인 경우 true)
      */
     private final boolean alreadyCompleted;
+
+    /**
+     * 이번 요청이 소유한 idempotency 시도 번호 (완료/실패 전이 시 사용)
+     */
+    private final int attempt;
+
+    public IdempotencyResolutionResult(String conversationId, boolean skipSaveUserMessage, boolean alreadyCompleted) {
+        this(conversationId, skipSaveUserMessage, alreadyCompleted, 1);
+    }
 }
@@ -1,6 +1,7 @@
 package com.kade.AIAssistant.feature.conversation.service.idempotency;
 
 import com.kade.AIAssistant.feature.conversation.dto.request.AssistantRequest;
+import com.kade.AIAssistant.feature.conversation.service.CompletedResponse;
 import com.kade.AIAssistant.feature.conversation.service.IdempotencyService;
 import com.kade.AIAssistant.feature.conversation.service.IdempotencyState;
 import java.util.List;
@@ -86,17 +87,19 @@ public class StreamingIdempotencyCoordinator {
 
     /**
      * 스트림에 에러 핸들링 설정 추가.
-     * 에러 발생 시 Idempotency 상태를 FAILED로 변경하고 retry lock을 해제합니다.
+     * 에러 발생 시 Idempotency 상태를 FAILED로 변경합니다.
      *
      * @param stream         원본 스트림
      * @param userId         사용자 ID
      * @param idempotencyKey Idempotency-Key
+     * @param attempt        이번 요청의 시도 번호
      * @return 에러 핸들링이 추가된 스트림
      */
     public Flux<ChatResponse> attachErrorHandler(
             Flux<ChatResponse> stream,
             String userId,
-            String idempotencyKey
+            String idempotencyKey,
+            int attempt
     ) {
         if (!StringUtils.hasText(idempotencyKey)) {
             return stream;
@@ -104,24 +107,24 @@ public class StreamingIdempotencyCoordinator {
 
         return stream.doOnError(e -> {
             log.error("스트리밍 에러 발생 - userId: {}, idempotencyKey: {}", userId, idempotencyKey, e);
-            idempotencyService.markFailed(userId, idempotencyKey);
-            idempotencyService.releaseRetryLock(userId, idempotencyKey);
+            idempotencyService.markFailed(userId, idempotencyKey, attempt);
         });
     }
 
     /**
-     * 스트리밍 완료 시 Idempotency 상태를 COMPLETED로 변경하고 retry lock을 해제합니다.
+     * 스트리밍 완료 시 Idempotency 상태를 COMPLETED로 변경합니다.
      *
      * @param userId         사용자 ID
      * @param idempotencyKey Idempotency-Key
+     * @param attempt        이번 요청의 시도 번호
+     * @param response       재요청 시 재전송할 최종 응답 (null이면 상태만 갱신)
      */
-    public void markCompleted(String userId, String idempotencyKey) {
+    public void markCompleted(String userId, String idempotencyKey, int attempt, CompletedResponse response) {
         if (!StringUtils.hasText(idempotencyKey)) {
             return;
         }
 
-        idempotencyService.markCompleted(userId, idempotencyKey);
-        idempotencyService.releaseRetryLock(userId, idempotencyKey);
+        idempotencyService.markCompleted(userId, idempotencyKey, attempt, response);
         log.debug("Idempotency 완료 처리 - userId: {}, idempotencyKey: {}", userId, idempotencyKey);
     }
 
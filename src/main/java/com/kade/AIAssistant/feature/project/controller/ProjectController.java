@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +15,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/ai/proj")
@@ -34,6 +37,18 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getProjectList(userIdHeader));
     }
 
+    /**
+     * 프로젝트 목록 커서 페이지 조회 ((updated_at, conversation_id) keyset). 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회한다.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getProjectPage(
+            @RequestHeader(value = "USER-ID") String userIdHeader,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return ResponseEntity.ok(projectService.getProjectPage(userIdHeader, limit, cursor));
+    }
+
     @PostMapping("/create")
     public ResponseEntity<?> createProject(
             @RequestBody @Valid CreateProjectRequest request,
@@ -43,6 +58,9 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.createProject(userIdHeader, request));
     }
 
+    /**
+     * 문서 업로드. 수집(추출 → 청킹 → 임베딩)은 백그라운드에서 진행되므로 202와 함께 등록된 문서(status=QUEUED)를 반환한다.
+     */
     @PostMapping("/{conversationId}/doc")
     public ResponseEntity<?> addDocument(
             @PathVariable(value = "conversationId") String conversationId,
@@ -50,8 +68,7 @@ public class ProjectController {
             @RequestHeader(value = "USER-ID") String userIdHeader,
             HttpServletRequest httpRequest
     ) {
-        projectService.addDocument(userIdHeader, conversationId, file);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(projectService.addDocument(userIdHeader, conversationId, file));
     }
 
     @GetMapping("/{conversationId}/doc")
@@ -63,6 +80,30 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getDocumentList(conversationId, userIdHeader));
     }
 
+    /**
+     * 문서 한 건의 수집 상태 조회
+     */
+    @GetMapping("/{conversationId}/doc/{documentId}")
+    public ResponseEntity<?> getDocument(
+            @PathVariable(value = "conversationId") String conversationId,
+            @PathVariable(value = "documentId") String documentId,
+            @RequestHeader(value = "USER-ID") String userIdHeader
+    ) {
+        return ResponseEntity.ok(projectService.getDocument(userIdHeader, conversationId, documentId));
+    }
+
+    /**
+     * 문서 수집 진행 상황 SSE 구독. 상태가 바뀔 때마다 progress 이벤트를 보내고 완료/실패 시 스트림을 종료한다.
+     */
+    @GetMapping(value = "/{conversationId}/doc/{documentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeDocumentProgress(
+            @PathVariable(value = "conversationId") String conversationId,
+            @PathVariable(value = "documentId") String documentId,
+            @RequestHeader(value = "USER-ID") String userIdHeader
+    ) {
+        return projectService.subscribeDocumentProgress(userIdHeader, conversationId, documentId);
+    }
+
     @DeleteMapping("/{conversationId}/doc/{documentId}")
     public ResponseEntity<?> deleteDocument(
             @PathVariable(value = "conversationId") String conversationId,
@@ -3,12 +3,19 @@ package com.kade.AIAssistant.feature.project.dto.response;
 import com.kade.AIAssistant.feature.project.entity.ProjectDocumentEntity;
 import java.time.Instant;
 
+/**
+ * 프로젝트 문서 응답. status/chunksTotal/chunksDone으로 수집 진행 상황을 함께 전달한다.
+ */
 public record ProjectDocumentResponse(
         Long documentId,
         String filename,
         String mimeType,
         Long size,
-        Instant createdAt
+        Instant createdAt,
+        String status,
+        Integer chunksTotal,
+        int chunksDone,
+        String errorMessage
 ) {
 
     public static ProjectDocumentResponse from(ProjectDocumentEntity entity) {
@@ -17,7 +24,11 @@ public record ProjectDocumentResponse(
                 entity.getFilename(),
                 entity.getMimeType(),
                 entity.getSize(),
-                entity.getCreatedAt()
+                entity.getCreatedAt(),
+                entity.getStatus().name(),
+                entity.getChunksTotal(),
+                entity.getChunksDone(),
+                entity.getErrorMessage()
         );
     }
 }
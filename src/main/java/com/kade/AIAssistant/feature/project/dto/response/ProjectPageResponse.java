@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.project.dto.response;
+
+import java.util.List;
+
+/**
+ * 프로젝트 목록 커서 페이지 응답.
+ *
+ * @param projects   최신순(updated_at DESC) 프로젝트 목록
+ * @param nextCursor 다음 페이지 커서 (없으면 null)
+ * @param hasMore    다음 페이지 존재 여부
+ */
+public record ProjectPageResponse(
+        List<CreateProjectResponse> projects,
+        String nextCursor,
+        boolean hasMore
+) {
+}
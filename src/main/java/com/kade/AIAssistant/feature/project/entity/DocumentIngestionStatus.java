@@ -0,0 +1,17 @@
+package com.kade.AIAssistant.feature.project.entity;
+
+/**
+ * 프로젝트 문서 수집(ingestion) 상태.
+ * QUEUED → EXTRACTING(텍스트 추출 + 청킹) → EMBEDDING(임베딩 + 벡터 저장) → COMPLETED / FAILED
+ */
+public enum DocumentIngestionStatus {
+    QUEUED,
+    EXTRACTING,
+    EMBEDDING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
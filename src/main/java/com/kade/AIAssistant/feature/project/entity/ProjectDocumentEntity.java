@@ -2,6 +2,8 @@ package com.kade.AIAssistant.feature.project.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -12,7 +14,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 /**
- * 프로젝트에 업로드된 문서 메타데이터 (목록 조회용). 파일 벡터 저장 시 한 건 등록된다.
+ * 프로젝트에 업로드된 문서 메타데이터 (목록 조회용) 겸 수집(ingestion) 작업 상태.
+ * 업로드 시 QUEUED로 한 건 등록되고, 진행 상태는 DocumentIngestionService가 갱신한다.
  */
 @Entity
 @Table(name = "PROJECT_DOCUMENT")
@@ -42,12 +45,43 @@ public class ProjectDocumentEntity {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
-    public ProjectDocumentEntity(String conversationId, String userId, String filename, String mimeType, Long size) {
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private DocumentIngestionStatus status;
+
+    /** 전체 청크 수 (청킹 전에는 null) */
+    @Column(name = "chunks_total")
+    private Integer chunksTotal;
+
+    /** 벡터 저장까지 끝난 청크 수 */
+    @Column(name = "chunks_done", nullable = false)
+    private int chunksDone;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    /** 처리 대기 중인 업로드 파일 경로 (완료/실패 후 삭제) */
+    @Column(name = "staged_path", length = 1024)
+    private String stagedPath;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * 수집 대기(QUEUED) 문서 등록
+     *
+     * @param stagedPath 임시 저장된 업로드 파일 경로
+     */
+    public ProjectDocumentEntity(String conversationId, String userId, String filename, String mimeType, Long size,
+                                 String stagedPath) {
         this.conversationId = conversationId;
         this.userId = userId;
         this.filename = filename != null ? filename : "unknown";
         this.mimeType = mimeType;
         this.size = size;
         this.createdAt = Instant.now();
+        this.status = DocumentIngestionStatus.QUEUED;
+        this.stagedPath = stagedPath;
+        this.updatedAt = this.createdAt;
     }
 }
@@ -0,0 +1,75 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * EMBEDDING_CACHE((model, content_hash) → embedding) 조회/저장 SQL. content_hash는 SHA-256 hex 문자열로 주고받는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmbeddingCacheRepository {
+
+    private static final String FIND_SQL = """
+            SELECT encode(content_hash, 'hex') AS content_hash, embedding::text AS embedding
+            FROM EMBEDDING_CACHE
+            WHERE model = ? AND content_hash IN (SELECT decode(h, 'hex') FROM unnest(?::text[]) AS h)""";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO EMBEDDING_CACHE (model, content_hash, embedding)
+            VALUES (?, decode(?, 'hex'), ?::vector)
+            ON CONFLICT (model, content_hash) DO NOTHING""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return content_hash(hex) → 임베딩 (없는 hash는 포함되지 않음)
+     */
+    public Map<String, float[]> findAll(String model, Collection<String> contentHashes) {
+        Map<String, float[]> found = new HashMap<>();
+        if (contentHashes.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(FIND_SQL,
+                ps -> {
+                    ps.setString(1, model);
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", contentHashes.toArray()));
+                },
+                rs -> {
+                    found.put(rs.getString("content_hash"), PgVectorText.parse(rs.getString("embedding")));
+                });
+        return found;
+    }
+
+    /**
+     * 임베딩 저장 (이미 있으면 무시)
+     */
+    public void saveAll(String model, Map<String, float[]> embeddings) {
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        List<Entry<String, float[]>> entries = List.copyOf(embeddings.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, model);
+                ps.setString(2, entries.get(i).getKey());
+                ps.setString(3, PgVectorText.format(entries.get(i).getValue()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+/**
+ * pgvector 텍스트 표현([v1,v2,...]) 변환. {@code ?::vector}로 바인딩하고 {@code embedding::text}로 읽는다.
+ */
+final class PgVectorText {
+
+    private PgVectorText() {
+        // 유틸 클래스 인스턴스화 금지
+    }
+
+    static String format(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 12).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(embedding[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    static float[] parse(String text) {
+        String body = text.substring(1, text.length() - 1);
+        if (body.isEmpty()) {
+            return new float[0];
+        }
+        String[] parts = body.split(",");
+        float[] embedding = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            embedding[i] = Float.parseFloat(parts[i]);
+        }
+        return embedding;
+    }
+}
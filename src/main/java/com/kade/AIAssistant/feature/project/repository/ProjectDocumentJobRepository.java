@@ -0,0 +1,102 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import com.kade.AIAssistant.feature.project.entity.DocumentIngestionStatus;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * PROJECT_DOCUMENT 수집(ingestion) 작업 상태 전이 SQL.
+ * <p>모든 갱신은 미완료 상태인 행만 대상으로 하며 updated_at을 하트비트로 갱신한다.
+ * 갱신된 행이 없으면 문서가 삭제(또는 이미 종료)된 것이므로 호출 측은 작업을 중단한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectDocumentJobRepository {
+
+    private static final String ACTIVE = "status IN ('QUEUED', 'EXTRACTING', 'EMBEDDING')";
+
+    /**
+     * 하트비트가 끊긴 미완료 작업을 선점 (재시작 후 이어서 처리). SKIP LOCKED로 여러 노드가 같은 작업을 잡지 않는다.
+     */
+    private static final String CLAIM_STALE_SQL = """
+            UPDATE PROJECT_DOCUMENT SET updated_at = LOCALTIMESTAMP
+            WHERE id IN (
+                SELECT id FROM PROJECT_DOCUMENT
+                WHERE %s AND updated_at < LOCALTIMESTAMP - make_interval(secs => ?)
+                ORDER BY updated_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, conversation_id, user_id, filename, staged_path, chunks_done""".formatted(ACTIVE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 처리할 수집 작업
+     *
+     * @param chunksDone 이미 저장된 청크 수 (재개 시 이 위치부터 저장)
+     */
+    public record IngestionJob(long documentId, String conversationId, String userId, String filename,
+                               String stagedPath, int chunksDone) {
+    }
+
+    public List<IngestionJob> claimStale(int limit, long staleSeconds) {
+        return jdbcTemplate.query(CLAIM_STALE_SQL,
+                (rs, rowNum) -> new IngestionJob(
+                        rs.getLong("id"),
+                        rs.getString("conversation_id"),
+                        rs.getString("user_id"),
+                        rs.getString("filename"),
+                        rs.getString("staged_path"),
+                        rs.getInt("chunks_done")),
+                staleSeconds, limit);
+    }
+
+    /**
+     * 하트비트를 staleSeconds만큼 과거로 돌려 다음 재개 스윕에서 바로 선점되게 한다 (extract 큐 포화로 제출하지 못한 작업)
+     */
+    public void releaseForResume(long documentId, long staleSeconds) {
+        jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET updated_at = LOCALTIMESTAMP - make_interval(secs => ?)
+                WHERE id = ? AND %s""".formatted(ACTIVE), staleSeconds + 1, documentId);
+    }
+
+    /**
+     * @return 문서가 아직 처리 중이면 true
+     */
+    public boolean markStage(long documentId, DocumentIngestionStatus status) {
+        return jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET status = ?, updated_at = LOCALTIMESTAMP
+                WHERE id = ? AND %s""".formatted(ACTIVE), status.name(), documentId) > 0;
+    }
+
+    public boolean markChunked(long documentId, int chunksTotal) {
+        return jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET chunks_total = ?, updated_at = LOCALTIMESTAMP
+                WHERE id = ? AND %s""".formatted(ACTIVE), chunksTotal, documentId) > 0;
+    }
+
+    /**
+     * 저장 완료 청크 수 기록 (하트비트 겸용)
+     */
+    public boolean recordProgress(long documentId, int chunksDone) {
+        return jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET chunks_done = ?, updated_at = LOCALTIMESTAMP
+                WHERE id = ? AND %s""".formatted(ACTIVE), chunksDone, documentId) > 0;
+    }
+
+    public void markCompleted(long documentId) {
+        jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET status = 'COMPLETED', staged_path = NULL, error_message = NULL,
+                    updated_at = LOCALTIMESTAMP
+                WHERE id = ? AND %s""".formatted(ACTIVE), documentId);
+    }
+
+    public void markFailed(long documentId, String error) {
+        jdbcTemplate.update("""
+                UPDATE PROJECT_DOCUMENT SET status = 'FAILED', staged_path = NULL, error_message = ?,
+                    updated_at = LOCALTIMESTAMP
+                WHERE id = ? AND %s""".formatted(ACTIVE), error, documentId);
+    }
+}
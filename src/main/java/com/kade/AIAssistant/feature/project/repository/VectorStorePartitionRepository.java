@@ -0,0 +1,261 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 파티션 모드 vector_store(db/vector_store_partitioned.sql)의 프로젝트 전용 파티션 DDL.
+ * <p>전용 파티션 이름은 {@code vector_store_p_<프로젝트 UUID(하이픈 제거)>}로 결정되므로 별도 등록 테이블 없이
+ * {@code to_regclass}로 존재 여부를 확인한다. DDL은 식별자를 바인딩할 수 없으므로 UUID 형식만 허용한다.
+ * <p>승격은 잠금 없는 준비(복사/인덱스/CHECK 검증)와 짧은 잠금 구간({@link #attach})으로 나뉜다.
+ * 트랜잭션은 호출 측(VectorStorePartitionService)이 연다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VectorStorePartitionRepository {
+
+    private static final Pattern PROJECT_ID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    /**
+     * 승격 잠금 구간(ATTACH)과 전용 파티션 삭제는 부모 잠금이 필요하므로 노드 전체에서 한 번에 하나만 실행
+     */
+    private static final long PARTITION_DDL_LOCK_KEY = 0x7665635F70617274L; // "vec_part"
+
+    /**
+     * 승격 준비 세션 잠금 (classid, hashtext(파티션 이름)) 의 classid
+     */
+    private static final int PARTITION_BUILD_LOCK_CLASS = 0x76656362; // "vecb"
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return 전용 파티션 테이블 이름, 프로젝트 id가 UUID 형식이 아니면 null (전용 파티션 대상 아님)
+     */
+    public static String partitionName(String conversationId) {
+        if (conversationId == null || !PROJECT_ID.matcher(conversationId).matches()) {
+            return null;
+        }
+        return "vector_store_p_" + conversationId.replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    public boolean exists(String partitionName) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * 프로젝트 청크 수 (vector_store_conversation_user_idx index-only scan)
+     */
+    public long countChunks(String conversationId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vector_store WHERE conversation_id = ?", Long.class, conversationId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 승격 준비 테이블 이름 (복사/인덱스 생성 중에는 전용 파티션 이름을 쓰지 않아 {@link #exists}가 false로 유지된다)
+     */
+    public static String buildName(String partitionName) {
+        return partitionName.replace("vector_store_p_", "vector_store_b_");
+    }
+
+    /**
+     * 승격 준비(복사/인덱스/CHECK 검증)를 같은 프로젝트에 대해 한 노드만 수행하도록 세션 advisory lock을 잡고 body 실행.
+     * 커넥션 하나를 준비 기간 동안 점유하며, 노드가 죽으면 커넥션 종료와 함께 잠금이 풀린다.
+     *
+     * @return body 결과, 다른 노드가 준비 중이면 null (body 실행 안 함)
+     */
+    public <T> T withBuildLock(String partitionName, Supplier<T> body) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) con -> {
+            if (!advisory(con, "SELECT pg_try_advisory_lock(?, hashtext(?))", partitionName)) {
+                return null;
+            }
+            try {
+                return body.get();
+            } finally {
+                advisory(con, "SELECT pg_advisory_unlock(?, hashtext(?))", partitionName);
+            }
+        });
+    }
+
+    private static boolean advisory(Connection con, String sql, String partitionName) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, PARTITION_BUILD_LOCK_CLASS);
+            ps.setString(2, partitionName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * 트랜잭션 동안 잠금 대기 시간 제한 (대기 중 뒤따르는 검색/쓰기가 막히지 않도록)
+     */
+    public void setLockTimeout(long lockTimeoutMs) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMs + "ms'");
+    }
+
+    /**
+     * 트랜잭션 동안 파티션 DDL 직렬화 + 잠금 대기 시간 제한
+     */
+    public void lockForDdl(long lockTimeoutMs) {
+        setLockTimeout(lockTimeoutMs);
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+        }, PARTITION_DDL_LOCK_KEY);
+    }
+
+    /**
+     * 공유(DEFAULT) 파티션의 최하위 테이블 (HASH 하위 파티션, 나뉘어 있지 않으면 공유 파티션 자신)
+     */
+    public List<String> sharedLeaves() {
+        return jdbcTemplate.queryForList(
+                "SELECT relid::regclass::text FROM pg_partition_tree('vector_store_shared') WHERE isleaf", String.class);
+    }
+
+    /**
+     * 프로젝트 청크가 들어 있는 공유 파티션 최하위 테이블 (HASH 분배이므로 하나), 청크가 없으면 null
+     */
+    public String sharedLeafOf(String conversationId) {
+        List<String> leaves = jdbcTemplate.queryForList(
+                "SELECT tableoid::regclass::text FROM vector_store_shared WHERE conversation_id = ? LIMIT 1",
+                String.class, conversationId);
+        return leaves.isEmpty() ? null : leaves.get(0);
+    }
+
+    /**
+     * 준비 테이블 생성 (이전 시도가 남긴 테이블은 삭제). 파티션 키 CHECK가 있으므로 ATTACH 시 이 테이블은 검증 스캔하지 않는다.
+     * PK는 복사 전에 만들어 배치 복사 중 같은 행이 두 번 읽혀도 한 번만 저장한다
+     */
+    public void createBuildTable(String partitionName, String conversationId) {
+        String buildName = buildName(partitionName);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + buildName);
+        jdbcTemplate.execute("CREATE TABLE " + buildName
+                + " (LIKE vector_store INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING CONSTRAINTS,"
+                + " CONSTRAINT " + partitionName + "_key CHECK (conversation_id = '" + conversationId + "'))");
+        jdbcTemplate.execute("ALTER TABLE " + buildName
+                + " ADD CONSTRAINT " + partitionName + "_pkey PRIMARY KEY (id, conversation_id)");
+    }
+
+    public long pageCount(String table) {
+        Long pages = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(?::regclass) / current_setting('block_size')::int", Long.class, table);
+        return pages != null ? pages : 0;
+    }
+
+    /**
+     * 공유 파티션 테이블의 [fromPage, toPage) 블록에서 프로젝트 청크를 준비 테이블로 복사 (TID 범위 스캔, 문장마다 커밋)
+     *
+     * @return 복사한 행 수
+     */
+    public int copyPages(String partitionName, String sourceLeaf, String conversationId, long fromPage, long toPage) {
+        return jdbcTemplate.update("INSERT INTO " + buildName(partitionName)
+                + " (id, content, metadata, embedding, conversation_id, user_id)"
+                + " SELECT id, content, metadata, embedding, conversation_id, user_id FROM " + sourceLeaf
+                + " WHERE ctid >= ?::tid AND ctid < ?::tid AND conversation_id = ?"
+                + " ON CONFLICT (id, conversation_id) DO NOTHING",
+                "(" + fromPage + ",0)", "(" + toPage + ",0)", conversationId);
+    }
+
+    /**
+     * 부모 인덱스(db/vector_store_partitioned.sql)와 같은 정의로 준비 테이블 인덱스 생성.
+     * ATTACH는 일치하는 인덱스를 그대로 붙이므로 잠금 구간에서 HNSW를 만들지 않는다
+     */
+    public void createIndexes(String partitionName) {
+        String buildName = buildName(partitionName);
+        jdbcTemplate.execute("CREATE INDEX " + partitionName + "_embedding_idx ON " + buildName
+                + " USING HNSW (embedding vector_cosine_ops)");
+        jdbcTemplate.execute("CREATE INDEX " + partitionName + "_conv_user_idx ON " + buildName
+                + " (conversation_id, user_id)");
+        jdbcTemplate.execute("CREATE INDEX " + partitionName + "_tsv_idx ON " + buildName
+                + " USING GIN (content_tsv)");
+    }
+
+    /**
+     * 공유 파티션 테이블에 이 프로젝트 값을 제외하는 CHECK를 NOT VALID로 추가 (검증 스캔 없음, 짧은 ACCESS EXCLUSIVE).
+     * 이전 시도가 남긴 같은 이름의 제약은 같은 문장에서 교체한다
+     */
+    public void addExclusionCheck(String leaf, String partitionName, String conversationId) {
+        String check = exclusionCheckName(partitionName);
+        jdbcTemplate.execute("ALTER TABLE " + leaf + " DROP CONSTRAINT IF EXISTS " + check
+                + ", ADD CONSTRAINT " + check + " CHECK (conversation_id <> '" + conversationId + "') NOT VALID");
+    }
+
+    /**
+     * NOT VALID CHECK 검증 (SHARE UPDATE EXCLUSIVE: 검증 스캔 중에도 읽기/쓰기 허용)
+     */
+    public void validateExclusionCheck(String leaf, String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE " + leaf + " VALIDATE CONSTRAINT " + exclusionCheckName(partitionName));
+    }
+
+    public void dropExclusionCheck(String leaf, String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE " + leaf + " DROP CONSTRAINT IF EXISTS " + exclusionCheckName(partitionName));
+    }
+
+    public void dropBuildTable(String partitionName) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + buildName(partitionName));
+    }
+
+    /**
+     * 준비된 테이블을 전용 파티션으로 붙인다. 호출 측 트랜잭션({@link #lockForDdl}) 안에서 실행하며, 커밋까지 잠금이 유지된다.
+     * <ol>
+     *   <li>공유 파티션 EXCLUSIVE 잠금: 쓰기만 막고 읽기는 허용</li>
+     *   <li>복사 이후 변경분 반영: 청크 id는 (documentId, 순번)으로 정해져 같은 id는 같은 내용이므로 id 기준으로
+     *   빠진 행을 넣고 사라진 행을 지운다 (인덱스 조회만, 전체 재복사 없음)</li>
+     *   <li>공유 파티션에서 프로젝트 청크 삭제 (프로젝트가 속한 HASH 하위 파티션 하나)</li>
+     *   <li>그 하위 파티션에 제외 CHECK 추가 + 검증: ACCESS EXCLUSIVE로 이 하위 파티션(공유의 1/HASH 수)의 읽기도
+     *   검증 스캔 동안 막힌다. 다른 하위 파티션은 호출 측이 잠금 전에 검증해 둔다</li>
+     *   <li>ATTACH PARTITION: 기본 파티션에 ACCESS EXCLUSIVE가 걸려 커밋까지 공유 파티션 읽기도 막히지만,
+     *   모든 하위 파티션의 CHECK와 준비 테이블의 파티션 키 CHECK로 검증 스캔을 건너뛰고 인덱스도 이미 있으므로
+     *   카탈로그 갱신만 한다</li>
+     *   <li>승격에만 쓰인 제외 CHECK 제거 (이제 기본 파티션 제약이 같은 조건을 보장)</li>
+     * </ol>
+     *
+     * @param copied 잠금 전에 복사한 행 수
+     * @return 전용 파티션의 청크 수
+     */
+    public int attach(String conversationId, String partitionName, String sourceLeaf, List<String> leaves,
+                      long copied) {
+        String buildName = buildName(partitionName);
+        jdbcTemplate.execute("LOCK TABLE vector_store_shared IN EXCLUSIVE MODE");
+        int inserted = jdbcTemplate.update("INSERT INTO " + buildName
+                + " (id, content, metadata, embedding, conversation_id, user_id)"
+                + " SELECT s.id, s.content, s.metadata, s.embedding, s.conversation_id, s.user_id"
+                + " FROM vector_store_shared s WHERE s.conversation_id = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM " + buildName + " b WHERE b.id = s.id)", conversationId);
+        int removed = jdbcTemplate.update("DELETE FROM " + buildName + " b WHERE NOT EXISTS"
+                + " (SELECT 1 FROM vector_store_shared s WHERE s.conversation_id = ? AND s.id = b.id)", conversationId);
+        jdbcTemplate.update("DELETE FROM vector_store_shared WHERE conversation_id = ?", conversationId);
+        addExclusionCheck(sourceLeaf, partitionName, conversationId);
+        validateExclusionCheck(sourceLeaf, partitionName);
+        jdbcTemplate.execute("ALTER TABLE " + buildName + " RENAME TO " + partitionName);
+        jdbcTemplate.execute("ALTER TABLE vector_store ATTACH PARTITION " + partitionName
+                + " FOR VALUES IN ('" + conversationId + "')");
+        for (String leaf : leaves) {
+            dropExclusionCheck(leaf, partitionName);
+        }
+        return Math.toIntExact(copied + inserted - removed);
+    }
+
+    private static String exclusionCheckName(String partitionName) {
+        return partitionName.replace("vector_store_p_", "vector_store_x_");
+    }
+
+    /**
+     * 전용 파티션 분리 후 삭제 (행 단위 DELETE/VACUUM 없이 프로젝트 벡터 전체 제거)
+     */
+    public void detachAndDrop(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE vector_store DETACH PARTITION " + partitionName);
+        jdbcTemplate.execute("DROP TABLE " + partitionName);
+    }
+}
@@ -0,0 +1,121 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * vector_store 검색 SQL (프로젝트 범위). 하이브리드 검색의 벡터/전문 검색 양쪽을 담당한다.
+ * <p>프로젝트 범위는 생성 컬럼 conversation_id, user_id(vector_store_conversation_user_idx)로 제한한다.
+ * <ul>
+ *   <li>벡터: 프로젝트 청크가 적으면 B-tree로 좁힌 뒤 정확한 거리 정렬, 많으면 HNSW를 쓰며
+ *   pgvector 0.8+ iterative index scan(hnsw.iterative_scan)으로 필터에 걸러진 만큼 인덱스를 더 읽어 limit개를 채운다</li>
+ *   <li>전문 검색: content_tsv(GIN) @@ tsquery 후 ts_rank 순</li>
+ * </ul>
+ */
+@Repository
+public class VectorStoreSearchRepository {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private static final Set<String> ITERATIVE_SCAN_MODES = Set.of("off", "strict_order", "relaxed_order");
+
+    /**
+     * relaxed_order는 거리 순서가 조금 어긋날 수 있으므로 MATERIALIZED CTE로 후보를 확정한 뒤 다시 정렬
+     */
+    private static final String VECTOR_SEARCH_SQL = """
+            WITH candidates AS MATERIALIZED (
+                SELECT id, content, metadata::text AS metadata, embedding <=> ?::vector AS distance
+                FROM vector_store
+                WHERE conversation_id = ? AND user_id = ?
+                ORDER BY distance
+                LIMIT ?)
+            SELECT id, content, metadata, distance FROM candidates ORDER BY distance""";
+
+    private static final String LEXICAL_SEARCH_SQL = """
+            SELECT v.id, v.content, v.metadata::text AS metadata, ts_rank(v.content_tsv, q, 1) AS rank
+            FROM vector_store v, to_tsquery('simple', ?) AS q
+            WHERE v.conversation_id = ? AND v.user_id = ?
+              AND v.content_tsv @@ q
+            ORDER BY rank DESC, v.id
+            LIMIT ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String iterativeScan;
+
+    public VectorStoreSearchRepository(JdbcTemplate jdbcTemplate,
+                                       ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.project.rag.iterative-scan:relaxed_order}") String iterativeScan) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        if (StringUtils.hasText(iterativeScan) && !ITERATIVE_SCAN_MODES.contains(iterativeScan)) {
+            throw new IllegalArgumentException("app.project.rag.iterative-scan 값이 올바르지 않습니다: " + iterativeScan);
+        }
+        this.iterativeScan = iterativeScan;
+    }
+
+    /**
+     * 프로젝트 범위 벡터 유사도 검색 (cosine)
+     *
+     * @return 거리 오름차순 청크 (score = 1 - distance, PgVectorStore와 동일)
+     */
+    public List<Document> searchVector(String conversationId, String userId, float[] embedding, int limit) {
+        String vector = PgVectorText.format(embedding);
+        return readOnlyTransaction.execute(status -> {
+            if (StringUtils.hasText(iterativeScan)) {
+                // SET LOCAL: 이 트랜잭션에서만 적용 (커넥션 풀로 돌아간 뒤 다른 쿼리에 영향 없음)
+                jdbcTemplate.execute("SET LOCAL hnsw.iterative_scan = " + iterativeScan);
+            }
+            return jdbcTemplate.query(VECTOR_SEARCH_SQL,
+                    (rs, rowNum) -> Document.builder()
+                            .id(rs.getString("id"))
+                            .text(rs.getString("content"))
+                            .metadata(parseMetadata(rs.getString("metadata")))
+                            .score(1.0 - rs.getDouble("distance"))
+                            .build(),
+                    vector, conversationId, userId, limit);
+        });
+    }
+
+    /**
+     * @param tsQuery to_tsquery('simple') 문법의 검색식
+     * @return ts_rank 내림차순 청크 (score = ts_rank)
+     */
+    public List<Document> searchLexical(String conversationId, String userId, String tsQuery, int limit) {
+        return jdbcTemplate.query(LEXICAL_SEARCH_SQL,
+                (rs, rowNum) -> Document.builder()
+                        .id(rs.getString("id"))
+                        .text(rs.getString("content"))
+                        .metadata(parseMetadata(rs.getString("metadata")))
+                        .score((double) rs.getFloat("rank"))
+                        .build(),
+                tsQuery, conversationId, userId, limit);
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("vector_store 메타데이터 파싱 실패", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * vector_store 쓰기 SQL: 임베딩이 끝난 청크를 JDBC 배치로 저장(PgVectorStore.add와 같은 upsert 의미)하고,
+ * 프로젝트/문서 단위로 삭제한다. 삭제는 conversation_id/user_id 컬럼 인덱스를 사용한다.
+ * <p>임베딩은 호출 측(ChunkEmbeddingService)이 직접 수행하므로 여기서는 INSERT만 한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VectorStoreWriteRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO vector_store (id, content, metadata, embedding)
+            VALUES (?, ?, ?::json, ?::vector)
+            ON CONFLICT (id) DO UPDATE SET
+                content = EXCLUDED.content,
+                metadata = EXCLUDED.metadata,
+                embedding = EXCLUDED.embedding""";
+
+    /**
+     * 파티션 모드(db/vector_store_partitioned.sql): 파티션 키 conversation_id/user_id가 일반 컬럼이므로 직접 기록하고,
+     * PK가 (id, conversation_id)이므로 충돌 대상도 같다
+     */
+    private static final String PARTITIONED_UPSERT_SQL = """
+            INSERT INTO vector_store (id, content, metadata, embedding, conversation_id, user_id)
+            VALUES (?, ?, ?::json, ?::vector, ?, ?)
+            ON CONFLICT (id, conversation_id) DO UPDATE SET
+                content = EXCLUDED.content,
+                metadata = EXCLUDED.metadata,
+                embedding = EXCLUDED.embedding,
+                user_id = EXCLUDED.user_id""";
+
+    private static final String DELETE_BY_PROJECT_SQL = """
+            DELETE FROM vector_store WHERE conversation_id = ? AND user_id = ?""";
+
+    /**
+     * document_id 메타데이터가 없는 이전 버전 청크 전용 (같은 파일명의 다른 문서 청크는 건드리지 않음)
+     */
+    private static final String DELETE_LEGACY_BY_FILENAME_SQL = """
+            DELETE FROM vector_store
+            WHERE conversation_id = ? AND user_id = ? AND metadata->>'filename' = ?
+              AND metadata->>'document_id' IS NULL""";
+
+    private static final String DELETE_BY_DOCUMENT_ID_SQL = """
+            DELETE FROM vector_store
+            WHERE conversation_id = ? AND metadata->>'document_id' = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.project.vector-store.partitioned:false}")
+    private boolean partitioned;
+
+    /**
+     * 청크와 임베딩을 같은 순서로 받아 한 번의 배치로 저장 (같은 id는 덮어씀)
+     */
+    public void upsert(List<Document> chunks, List<float[]> embeddings) {
+        if (chunks.size() != embeddings.size()) {
+            throw new IllegalArgumentException(
+                    "청크 수와 임베딩 수가 다릅니다: chunks=" + chunks.size() + ", embeddings=" + embeddings.size());
+        }
+        jdbcTemplate.batchUpdate(partitioned ? PARTITIONED_UPSERT_SQL : UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Document chunk = chunks.get(i);
+                ps.setObject(1, UUID.fromString(chunk.getId()));
+                ps.setString(2, chunk.getText());
+                ps.setString(3, toJson(chunk));
+                ps.setString(4, PgVectorText.format(embeddings.get(i)));
+                if (partitioned) {
+                    ps.setString(5, (String) chunk.getMetadata().get("conversation_id"));
+                    ps.setString(6, (String) chunk.getMetadata().get("user_id"));
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunks.size();
+            }
+        });
+    }
+
+    /**
+     * 프로젝트의 모든 청크 삭제
+     *
+     * @return 삭제된 행 수
+     */
+    public int deleteByProject(String conversationId, String userId) {
+        return jdbcTemplate.update(DELETE_BY_PROJECT_SQL, conversationId, userId);
+    }
+
+    /**
+     * document_id 없이 저장된 이전 버전 청크 중 파일명이 같은 것 삭제
+     */
+    public int deleteLegacyByFilename(String conversationId, String userId, String filename) {
+        return jdbcTemplate.update(DELETE_LEGACY_BY_FILENAME_SQL, conversationId, userId, filename);
+    }
+
+    /**
+     * PROJECT_DOCUMENT.id(metadata document_id)로 청크 삭제
+     */
+    public int deleteByDocumentId(String conversationId, long documentId) {
+        return jdbcTemplate.update(DELETE_BY_DOCUMENT_ID_SQL, conversationId, String.valueOf(documentId));
+    }
+
+    private String toJson(Document chunk) {
+        try {
+            return objectMapper.writeValueAsString(chunk.getMetadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("청크 메타데이터 직렬화 실패: id=" + chunk.getId(), e);
+        }
+    }
+}
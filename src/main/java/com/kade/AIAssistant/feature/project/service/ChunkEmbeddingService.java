@@ -0,0 +1,231 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import com.kade.AIAssistant.feature.project.repository.VectorStoreWriteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 청크 임베딩 + vector_store 저장 (PgVectorStore.add 대체).
+ * <ul>
+ *   <li>EmbeddingCache((모델, 텍스트 SHA-256) → 임베딩)에 있는 청크는 임베딩하지 않고 바로 저장</li>
+ *   <li>나머지 청크를 토큰 수(max-batch-tokens)와 개수(max-batch-size) 기준으로 배치로 묶는다</li>
+ *   <li>배치는 가상 스레드에서 병렬 처리하되, 임베딩 서버 동시 요청 수는 노드 전체에서 concurrency로 제한</li>
+ *   <li>실패한 배치만 지수 백오프로 재시도 (성공한 배치는 다시 임베딩하지 않음)</li>
+ *   <li>임베딩된 배치는 바로 JDBC 배치 INSERT로 저장 (id 기준 upsert이므로 재시도/재개에 안전)</li>
+ * </ul>
+ * <p>메트릭: {@code project.embedding.batch.duration}, {@code project.embedding.batches{result=success|retry|failed}},
+ * {@code project.embedding.write.duration}
+ */
+@Slf4j
+@Service
+public class ChunkEmbeddingService {
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorStoreWriteRepository vectorStoreWriteRepository;
+    private final EmbeddingCache embeddingCache;
+    private final MeterRegistry meterRegistry;
+    private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+    private final int maxBatchTokens;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("embed-batch-", 0).factory());
+
+    public ChunkEmbeddingService(
+            EmbeddingModel embeddingModel,
+            VectorStoreWriteRepository vectorStoreWriteRepository,
+            EmbeddingCache embeddingCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.project.embedding.max-batch-tokens:8192}") int maxBatchTokens,
+            @Value("${app.project.embedding.max-batch-size:64}") int maxBatchSize,
+            @Value("${app.project.embedding.concurrency:4}") int concurrency,
+            @Value("${app.project.embedding.max-attempts:3}") int maxAttempts,
+            @Value("${app.project.embedding.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.embeddingModel = embeddingModel;
+        this.vectorStoreWriteRepository = vectorStoreWriteRepository;
+        this.embeddingCache = embeddingCache;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchTokens = Math.max(1, maxBatchTokens);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.permits = new Semaphore(Math.max(1, concurrency));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 청크를 임베딩해 저장한다. 모든 배치가 끝날 때까지 기다린다.
+     * 임베딩 캐시에 있는 청크와 같은 요청 안에서 내용이 같은 청크는 임베딩 모델을 호출하지 않는다.
+     *
+     * @throws IllegalStateException 재시도 후에도 실패한 배치가 있는 경우 (나머지 배치는 저장됨)
+     */
+    public void embedAndStore(List<Document> chunks) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        Map<String, List<Document>> byHash = new LinkedHashMap<>();
+        for (Document chunk : chunks) {
+            byHash.computeIfAbsent(EmbeddingCache.contentHash(chunk.getText()), h -> new ArrayList<>()).add(chunk);
+        }
+        Map<String, float[]> cached = embeddingCache.getAll(byHash.keySet());
+        if (!cached.isEmpty()) {
+            store(cached, byHash);
+        }
+        List<String> misses = byHash.keySet().stream().filter(h -> !cached.containsKey(h)).toList();
+        embeddingCache.recordLookup(chunks.size() - misses.size(), misses.size());
+        if (misses.isEmpty()) {
+            return;
+        }
+
+        List<List<String>> batches = partition(misses, byHash);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batches.size());
+        for (List<String> batch : batches) {
+            futures.add(CompletableFuture.runAsync(() -> embedBatch(batch, byHash), executor));
+        }
+
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("임베딩 대기 중 인터럽트", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("임베딩 배치 실패: " + e.getCause().getMessage(), e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 토큰 수/개수 기준 그리디 분할 (content hash 단위). 한 청크가 max-batch-tokens를 넘으면 단독 배치
+     */
+    List<List<String>> partition(List<String> hashes, Map<String, List<Document>> byHash) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int tokens = 0;
+        for (String hash : hashes) {
+            int chunkTokens = tokenCountEstimator.estimate(byHash.get(hash).get(0).getText());
+            if (!current.isEmpty() && (tokens + chunkTokens > maxBatchTokens || current.size() >= maxBatchSize)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                tokens = 0;
+            }
+            current.add(hash);
+            tokens += chunkTokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private void embedBatch(List<String> hashes, Map<String, List<Document>> byHash) {
+        List<String> texts = hashes.stream().map(h -> byHash.get(h).get(0).getText()).toList();
+        List<float[]> embeddings = null;
+        for (int attempt = 1; embeddings == null; attempt++) {
+            try {
+                embeddings = embed(texts);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted()) {
+                    meterRegistry.counter("project.embedding.batches", "result", "failed").increment();
+                    log.error("임베딩 배치 실패(재시도 소진): size={}, attempts={}", hashes.size(), attempt, e);
+                    throw e;
+                }
+                meterRegistry.counter("project.embedding.batches", "result", "retry").increment();
+                long backoff = retryBackoffMs << Math.min(attempt - 1, 10);
+                log.warn("임베딩 배치 재시도: size={}, attempt={}, backoffMs={}, cause={}",
+                        hashes.size(), attempt, backoff, e.getMessage());
+                sleep(backoff);
+            }
+        }
+        meterRegistry.counter("project.embedding.batches", "result", "success").increment();
+
+        Map<String, float[]> embedded = new LinkedHashMap<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            embedded.put(hashes.get(i), embeddings.get(i));
+        }
+        store(embedded, byHash);
+        embeddingCache.putAll(embedded);
+    }
+
+    /**
+     * 임베딩을 content hash가 같은 모든 청크에 적용해 JDBC 배치로 저장
+     */
+    private void store(Map<String, float[]> embeddings, Map<String, List<Document>> byHash) {
+        List<Document> rows = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        embeddings.forEach((hash, embedding) -> {
+            for (Document chunk : byHash.get(hash)) {
+                rows.add(chunk);
+                vectors.add(embedding);
+            }
+        });
+        Timer.Sample sample = Timer.start(meterRegistry);
+        vectorStoreWriteRepository.upsert(rows, vectors);
+        sample.stop(meterRegistry.timer("project.embedding.write.duration"));
+    }
+
+    private List<float[]> embed(List<String> texts) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("임베딩 동시 요청 대기 중 인터럽트", e);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<float[]> embeddings = embeddingModel.embed(texts);
+            if (embeddings.size() != texts.size()) {
+                throw new IllegalStateException(
+                        "임베딩 결과 수 불일치: expected=" + texts.size() + ", actual=" + embeddings.size());
+            }
+            long nanos = sample.stop(meterRegistry.timer("project.embedding.batch.duration"));
+            embeddingCache.recordEmbedded(texts.size(), nanos);
+            return embeddings;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("임베딩 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
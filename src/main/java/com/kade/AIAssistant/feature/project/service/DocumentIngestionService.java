@@ -0,0 +1,453 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import com.kade.AIAssistant.common.exceptions.customs.ForbiddenException;
+import com.kade.AIAssistant.feature.conversation.service.DocumentService;
+import com.kade.AIAssistant.feature.project.dto.response.ProjectDocumentResponse;
+import com.kade.AIAssistant.feature.project.entity.DocumentIngestionStatus;
+import com.kade.AIAssistant.feature.project.entity.ProjectDocumentEntity;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentJobRepository;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentJobRepository.IngestionJob;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentRepository;
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 프로젝트 문서 비동기 수집(ingestion) 파이프라인.
+ * <ul>
+ *   <li>업로드: 파일을 staging-dir에 저장하고 PROJECT_DOCUMENT(QUEUED)를 등록한 뒤 바로 반환</li>
+ *   <li>extract 단계 (extract executor): 텍스트 추출 → 청킹</li>
+ *   <li>embed 단계 (embed executor): batch-size개씩 임베딩 + 벡터 저장(ChunkEmbeddingService가 토큰 기준 배치로 병렬 처리),
+ *   batch-size마다 chunks_done 기록</li>
+ * </ul>
+ * <p>단계마다 스레드 수와 큐 길이가 제한된 executor를 사용한다. embed 큐가 가득 차면 extract 스레드가 직접 처리해
+ * 업로드 속도가 임베딩 속도를 넘지 않도록 한다. extract 큐가 가득 차면 QUEUED로 남겨 두고 재개 스윕에서 처리한다.
+ * <p>재시작 시 이어서 처리: 하트비트(updated_at)가 stale-seconds 이상 끊긴 미완료 작업을 주기적으로 선점해
+ * 다시 추출/청킹하고 chunks_done 이후부터 저장한다. 청크 id가 (documentId, 순번)으로 결정되므로 중복 저장되지 않는다.
+ * <p>메트릭: {@code project.ingestion.stage.duration{stage=extract|chunk|embed}}, {@code project.ingestion.chunks},
+ * {@code project.ingestion.jobs{result}}, {@code project.ingestion.queue{stage}}, {@code project.ingestion.active{stage}}
+ */
+@Slf4j
+@Service
+public class DocumentIngestionService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProjectDocumentRepository projectDocumentRepository;
+    private final ProjectDocumentJobRepository jobRepository;
+    private final UserProjectRepository userProjectRepository;
+    private final ProjectRagService projectRagService;
+    private final DocumentService documentService;
+    private final VectorStorePartitionService vectorStorePartitionService;
+    private final MeterRegistry meterRegistry;
+
+    private final Path stagingDir;
+    private final int batchSize;
+    private final long staleSeconds;
+    private final long progressPollMs;
+    private final long sseTimeoutMs;
+
+    private final ThreadPoolExecutor extractExecutor;
+    private final ThreadPoolExecutor embedExecutor;
+    private final ScheduledThreadPoolExecutor progressScheduler;
+
+    /**
+     * 이 노드에서 큐에 있거나 처리 중인 문서 id (재개 스윕이 같은 작업을 중복 제출하지 않도록)
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 종료 중. 이후 발생한 인터럽트/거부는 실패가 아니라 중단으로 처리한다
+     */
+    private volatile boolean stopping;
+
+    public DocumentIngestionService(
+            ProjectDocumentRepository projectDocumentRepository,
+            ProjectDocumentJobRepository jobRepository,
+            UserProjectRepository userProjectRepository,
+            ProjectRagService projectRagService,
+            DocumentService documentService,
+            VectorStorePartitionService vectorStorePartitionService,
+            MeterRegistry meterRegistry,
+            @Value("${app.project.ingestion.staging-dir:${java.io.tmpdir}/ai-assistant-ingestion}") String stagingDir,
+            @Value("${app.project.ingestion.extract-threads:2}") int extractThreads,
+            @Value("${app.project.ingestion.extract-queue-capacity:100}") int extractQueueCapacity,
+            @Value("${app.project.ingestion.embed-threads:4}") int embedThreads,
+            @Value("${app.project.ingestion.embed-queue-capacity:20}") int embedQueueCapacity,
+            @Value("${app.project.ingestion.batch-size:256}") int batchSize,
+            @Value("${app.project.ingestion.stale-seconds:600}") long staleSeconds,
+            @Value("${app.project.ingestion.progress-poll-ms:1000}") long progressPollMs,
+            @Value("${app.project.ingestion.sse-timeout-ms:1800000}") long sseTimeoutMs) {
+        this.projectDocumentRepository = projectDocumentRepository;
+        this.jobRepository = jobRepository;
+        this.userProjectRepository = userProjectRepository;
+        this.projectRagService = projectRagService;
+        this.documentService = documentService;
+        this.vectorStorePartitionService = vectorStorePartitionService;
+        this.meterRegistry = meterRegistry;
+        this.stagingDir = Path.of(stagingDir);
+        this.batchSize = Math.max(1, batchSize);
+        this.staleSeconds = staleSeconds;
+        this.progressPollMs = progressPollMs;
+        this.sseTimeoutMs = sseTimeoutMs;
+
+        this.extractExecutor = new ThreadPoolExecutor(extractThreads, extractThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(extractQueueCapacity),
+                Thread.ofPlatform().name("ingest-extract-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.embedExecutor = new ThreadPoolExecutor(embedThreads, embedThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(embedQueueCapacity),
+                Thread.ofPlatform().name("ingest-embed-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.progressScheduler = new ScheduledThreadPoolExecutor(1, Thread.ofVirtual().name("ingest-progress-", 0).factory());
+        this.progressScheduler.setRemoveOnCancelPolicy(true);
+
+        registerExecutorMetrics("extract", extractExecutor);
+        registerExecutorMetrics("embed", embedExecutor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 처리 중이던 작업은 하트비트가 끊긴 뒤 재개 스윕(다른 노드 또는 재시작 후)에서 이어서 처리
+        stopping = true;
+        extractExecutor.shutdownNow();
+        embedExecutor.shutdownNow();
+        progressScheduler.shutdownNow();
+    }
+
+    /**
+     * 업로드 파일을 저장하고 수집 작업을 등록한다. 처리는 백그라운드에서 진행되며 즉시 반환한다.
+     *
+     * @return 등록된 문서 (documentId가 작업 id, status=QUEUED)
+     * @throws ForbiddenException 프로젝트 소유자가 아닌 경우
+     */
+    public ProjectDocumentResponse submit(String userId, String projectId, MultipartFile file) {
+        if (!userProjectRepository.existsById_UserIdAndId_ConversationId(userId, projectId)) {
+            throw new ForbiddenException("해당 프로젝트에 대한 접근 권한이 없습니다.");
+        }
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
+        String mimeType = file.getContentType();
+        Long size = file.getSize() >= 0 ? file.getSize() : null;
+
+        Path staged = stagingDir.resolve(UUID.randomUUID() + extension(filename));
+        try {
+            Files.createDirectories(stagingDir);
+            file.transferTo(staged);
+        } catch (IOException e) {
+            throw new RuntimeException("업로드 파일 저장 실패: " + e.getMessage(), e);
+        }
+
+        ProjectDocumentEntity entity;
+        try {
+            entity = projectDocumentRepository.save(
+                    new ProjectDocumentEntity(projectId, userId, filename, mimeType, size, staged.toString()));
+        } catch (RuntimeException e) {
+            deleteQuietly(staged.toString());
+            throw e;
+        }
+        enqueue(new IngestionJob(entity.getId(), projectId, userId, filename, staged.toString(), 0));
+        log.info("문서 수집 등록: projectId={}, documentId={}, filename={}, size={}",
+                projectId, entity.getId(), filename, size);
+        return ProjectDocumentResponse.from(entity);
+    }
+
+    /**
+     * 문서 수집 진행 상황 SSE 구독. 변경이 있을 때마다 progress 이벤트를 보내고, 완료/실패 시 스트림을 종료한다.
+     * 상태는 DB에서 읽으므로 작업을 처리하는 노드와 구독 노드가 달라도 된다.
+     */
+    public SseEmitter subscribe(long documentId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        AtomicReference<ProjectDocumentResponse> last = new AtomicReference<>();
+        AtomicReference<ScheduledFuture<?>> future = new AtomicReference<>();
+
+        Runnable poll = () -> {
+            try {
+                Optional<ProjectDocumentEntity> current = projectDocumentRepository.findById(documentId);
+                if (current.isEmpty()) {
+                    emitter.send(SseEmitter.event().name("deleted").data(documentId));
+                    emitter.complete();
+                    return;
+                }
+                ProjectDocumentResponse response = ProjectDocumentResponse.from(current.get());
+                if (!response.equals(last.getAndSet(response))) {
+                    emitter.send(SseEmitter.event().name("progress").data(response));
+                }
+                if (current.get().getStatus().isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                // 클라이언트 연결 종료 등
+                log.debug("문서 수집 진행 이벤트 전송 중단: documentId={}, cause={}", documentId, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        };
+        Runnable cancel = () -> {
+            ScheduledFuture<?> f = future.get();
+            if (f != null) {
+                f.cancel(false);
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        future.set(progressScheduler.scheduleWithFixedDelay(poll, 0, progressPollMs, TimeUnit.MILLISECONDS));
+        return emitter;
+    }
+
+    /**
+     * 하트비트가 끊긴 미완료 작업 재개 (재시작/다른 노드 장애 후, 또는 extract 큐가 가득 차 대기 중이던 작업)
+     */
+    @Scheduled(fixedDelayString = "${app.project.ingestion.resume-interval-ms:30000}",
+            initialDelayString = "${app.project.ingestion.resume-interval-ms:30000}")
+    public void resumeStale() {
+        int capacity = extractExecutor.getQueue().remainingCapacity();
+        if (capacity == 0 || extractExecutor.isShutdown()) {
+            return;
+        }
+        try {
+            for (IngestionJob job : jobRepository.claimStale(capacity, staleSeconds)) {
+                if (inFlight.contains(job.documentId())) {
+                    continue;
+                }
+                log.info("문서 수집 재개: documentId={}, filename={}, chunksDone={}",
+                        job.documentId(), job.filename(), job.chunksDone());
+                enqueue(job);
+            }
+        } catch (Exception e) {
+            log.error("문서 수집 재개 스윕 실패 - cause: {}", e.getMessage(), e);
+        }
+    }
+
+    private void enqueue(IngestionJob job) {
+        if (!inFlight.add(job.documentId())) {
+            return;
+        }
+        try {
+            extractExecutor.execute(() -> extract(job));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.documentId());
+            if (stopping) {
+                return;
+            }
+            log.warn("문서 수집 extract 큐 포화, 재개 스윕에서 처리: documentId={}", job.documentId());
+            try {
+                // 방금 갱신된 updated_at 그대로면 stale-seconds 동안 선점되지 않으므로 바로 선점 가능하게 돌려 둔다
+                jobRepository.releaseForResume(job.documentId(), staleSeconds);
+            } catch (Exception ex) {
+                log.warn("문서 수집 재개 대기 기록 실패: documentId={}, cause={}", job.documentId(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * extract 단계: 텍스트 추출 → 청킹 → embed 단계로 전달
+     */
+    private void extract(IngestionJob job) {
+        long id = job.documentId();
+        try {
+            if (!jobRepository.markStage(id, DocumentIngestionStatus.EXTRACTING)) {
+                cancel(job, job.chunksDone() > 0);
+                return;
+            }
+            if (job.stagedPath() == null || !Files.exists(Path.of(job.stagedPath()))) {
+                fail(job, "업로드 파일을 찾을 수 없습니다.", null);
+                return;
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String text = documentService.extractText(Path.of(job.stagedPath()), job.filename());
+            sample.stop(stageTimer("extract"));
+            if (!StringUtils.hasText(text)) {
+                log.warn("문서에서 추출된 텍스트가 없음: projectId={}, filename={}", job.conversationId(), job.filename());
+                jobRepository.markChunked(id, 0);
+                complete(job, 0);
+                return;
+            }
+
+            sample = Timer.start(meterRegistry);
+            List<Document> chunks = projectRagService.split(
+                    job.userId(), job.conversationId(), id, job.filename(), text);
+            sample.stop(stageTimer("chunk"));
+            if (!jobRepository.markChunked(id, chunks.size())) {
+                cancel(job, job.chunksDone() > 0);
+                return;
+            }
+            embedExecutor.execute(() -> embed(job, chunks));
+        } catch (Exception e) {
+            if (isShutdown(e)) {
+                suspend(job);
+                return;
+            }
+            fail(job, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * embed 단계: chunks_done 이후 청크를 batch-size개씩 임베딩 + 벡터 저장
+     */
+    private void embed(IngestionJob job, List<Document> chunks) {
+        long id = job.documentId();
+        try {
+            if (!jobRepository.markStage(id, DocumentIngestionStatus.EMBEDDING)) {
+                cancel(job, job.chunksDone() > 0);
+                return;
+            }
+            int done = Math.min(job.chunksDone(), chunks.size());
+            while (done < chunks.size()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    suspend(job);
+                    return;
+                }
+                int to = Math.min(done + batchSize, chunks.size());
+                Timer.Sample sample = Timer.start(meterRegistry);
+                projectRagService.addChunks(chunks.subList(done, to));
+                sample.stop(stageTimer("embed"));
+                meterRegistry.counter("project.ingestion.chunks").increment(to - done);
+                done = to;
+                if (!jobRepository.recordProgress(id, done)) {
+                    cancel(job, true);
+                    return;
+                }
+            }
+            complete(job, chunks.size());
+        } catch (Exception e) {
+            if (isShutdown(e)) {
+                suspend(job);
+                return;
+            }
+            fail(job, e.getMessage(), e);
+        }
+    }
+
+    private void complete(IngestionJob job, int chunks) {
+        jobRepository.markCompleted(job.documentId());
+        finish(job, "completed");
+        log.info("RAG 문서 추가 완료: projectId={}, documentId={}, filename={}, chunks={}",
+                job.conversationId(), job.documentId(), job.filename(), chunks);
+        if (chunks > 0) {
+            // 파티션 모드에서 청크가 많아진 프로젝트는 전용 파티션으로 승격
+            vectorStorePartitionService.promoteIfLarge(job.conversationId());
+        }
+    }
+
+    /**
+     * 종료로 중단됨: 상태와 chunks_done, 저장된 청크를 그대로 두고 재개 스윕(재시작 후 또는 다른 노드)에 맡긴다
+     */
+    private void suspend(IngestionJob job) {
+        inFlight.remove(job.documentId());
+        log.info("문서 수집 중단(종료 중), 재개 대기: documentId={}", job.documentId());
+    }
+
+    /**
+     * 종료(executor shutdownNow)로 인한 인터럽트/작업 거부인지. 이 경우 문서는 실패가 아니라 재개 대상이다
+     */
+    private boolean isShutdown(Throwable e) {
+        if (stopping || Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 처리 중 문서가 삭제됨: 이미 저장된 청크 제거 후 종료
+     */
+    private void cancel(IngestionJob job, boolean vectorsStored) {
+        if (vectorsStored) {
+            try {
+                projectRagService.deleteByDocumentId(job.conversationId(), job.documentId());
+            } catch (Exception e) {
+                log.warn("삭제된 문서의 벡터 정리 실패: documentId={}, cause={}", job.documentId(), e.getMessage());
+            }
+        }
+        finish(job, "cancelled");
+        log.info("문서 수집 취소(문서 삭제됨): documentId={}", job.documentId());
+    }
+
+    /**
+     * 수집 실패: 일부 배치가 이미 저장됐을 수 있으므로 문서 청크를 정리한 뒤 FAILED 기록 (정리는 best-effort)
+     */
+    private void fail(IngestionJob job, String error, Exception cause) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        try {
+            projectRagService.deleteByDocumentId(job.conversationId(), job.documentId());
+        } catch (Exception e) {
+            log.warn("실패한 문서의 벡터 정리 실패: documentId={}, cause={}", job.documentId(), e.getMessage());
+        }
+        try {
+            jobRepository.markFailed(job.documentId(), message);
+        } catch (Exception e) {
+            log.warn("문서 수집 실패 기록 실패: documentId={}, cause={}", job.documentId(), e.getMessage());
+        }
+        finish(job, "failed");
+        log.error("문서 수집 실패: documentId={}, filename={}, error={}", job.documentId(), job.filename(), message, cause);
+    }
+
+    private void finish(IngestionJob job, String result) {
+        deleteQuietly(job.stagedPath());
+        inFlight.remove(job.documentId());
+        meterRegistry.counter("project.ingestion.jobs", "result", result).increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return meterRegistry.timer("project.ingestion.stage.duration", "stage", stage);
+    }
+
+    private void registerExecutorMetrics(String stage, ThreadPoolExecutor executor) {
+        meterRegistry.gauge("project.ingestion.queue", Tags.of("stage", stage), executor, e -> e.getQueue().size());
+        meterRegistry.gauge("project.ingestion.active", Tags.of("stage", stage), executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * 원본 확장자 유지 (Tika 형식 판별용). 경로 문자는 제거
+     */
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
+        }
+        return "." + filename.substring(dot + 1).replaceAll("[^A-Za-z0-9]", "");
+    }
+
+    private static void deleteQuietly(String path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(path));
+        } catch (IOException e) {
+            log.warn("업로드 임시 파일 삭제 실패: path={}, cause={}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kade.AIAssistant.feature.project.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * content-addressed 임베딩 캐시: (임베딩 모델, 정규화된 청크 텍스트 SHA-256) → 임베딩.
+ * <ul>
+ *   <li>L1: 프로세스 내 Caffeine LRU (l1-max-size, 1024차원 기준 항목당 약 4KB)</li>
+ *   <li>L2: Postgres EMBEDDING_CACHE (노드 간 공유, 재시작 후에도 유지)</li>
+ * </ul>
+ * <p>같은 파일을 다른 프로젝트에 다시 올리면 모든 청크가 적중한다. 일부만 바뀐 새 버전은 청크 경계가 문단 앵커
+ * 구획에 맞춰지므로(ProjectRagService.sections) 바뀐 문단이 속한 구획의 청크만 임베딩 모델을 호출한다.
+ * 빈 줄 문단이 없는 텍스트는 고정 토큰 창으로만 나뉘어 변경 지점 이후 청크가 모두 바뀐다(캐시 미스).
+ * <p>메트릭: {@code cache.gets{cache=embedding_l1}} 등 L1 통계, {@code project.embedding.cache.lookups{tier=db, result}},
+ * {@code project.embedding.cache.chunks{result=hit|miss}} (청크 기준 hit rate),
+ * {@code project.embedding.cache.saved.seconds} (hit 청크 수 × 최근 청크당 임베딩 시간으로 추정한 절약 시간)
+ */
+@Slf4j
+@Component
+public class EmbeddingCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final EmbeddingCacheRepository embeddingCacheRepository;
+    private final boolean enabled;
+    private final String model;
+    private final Cache<String, float[]> l1;
+
+    private final Counter dbHitCounter;
+    private final Counter dbMissCounter;
+    private final Counter chunkHitCounter;
+    private final Counter chunkMissCounter;
+    private final Counter savedSecondsCounter;
+
+    /**
+     * 최근 청크당 임베딩 시간(초) 지수 이동 평균. 아직 측정 전이면 0
+     */
+    private volatile double secondsPerChunk;
+
+    public EmbeddingCache(
+            EmbeddingCacheRepository embeddingCacheRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.project.embedding.cache.enabled:true}") boolean enabled,
+            @Value("${app.project.embedding.cache.l1-max-size:10000}") long l1MaxSize,
+            @Value("${spring.ai.ollama.embedding.options.model:default}") String model) {
+        this.embeddingCacheRepository = embeddingCacheRepository;
+        this.enabled = enabled;
+        this.model = model;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, "embedding_l1");
+        this.dbHitCounter = meterRegistry.counter("project.embedding.cache.lookups", "tier", "db", "result", "hit");
+        this.dbMissCounter = meterRegistry.counter("project.embedding.cache.lookups", "tier", "db", "result", "miss");
+        this.chunkHitCounter = meterRegistry.counter("project.embedding.cache.chunks", "result", "hit");
+        this.chunkMissCounter = meterRegistry.counter("project.embedding.cache.chunks", "result", "miss");
+        this.savedSecondsCounter = meterRegistry.counter("project.embedding.cache.saved.seconds");
+    }
+
+    /**
+     * 청크 텍스트의 캐시 키. 유니코드 NFC 정규화 + 연속 공백을 한 칸으로 + 앞뒤 공백 제거 후 SHA-256 (hex)
+     */
+    public static String contentHash(String text) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC)).replaceAll(" ").trim();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원", e);
+        }
+    }
+
+    /**
+     * L1 → DB 순으로 조회. DB에서 찾은 항목은 L1에 채운다. 캐시 조회 실패는 miss로 처리한다.
+     *
+     * @return content_hash → 임베딩 (캐시에 없는 hash는 포함되지 않음)
+     */
+    public Map<String, float[]> getAll(Collection<String> contentHashes) {
+        Map<String, float[]> found = new HashMap<>();
+        if (!enabled || contentHashes.isEmpty()) {
+            return found;
+        }
+        Map<String, String> keyToHash = new HashMap<>();
+        for (String hash : contentHashes) {
+            keyToHash.put(key(hash), hash);
+        }
+        l1.getAllPresent(keyToHash.keySet()).forEach((key, embedding) -> found.put(keyToHash.get(key), embedding));
+
+        List<String> misses = contentHashes.stream().filter(h -> !found.containsKey(h)).toList();
+        if (misses.isEmpty()) {
+            return found;
+        }
+        try {
+            Map<String, float[]> fromDb = embeddingCacheRepository.findAll(model, misses);
+            fromDb.forEach((hash, embedding) -> l1.put(key(hash), embedding));
+            found.putAll(fromDb);
+            dbHitCounter.increment(fromDb.size());
+            dbMissCounter.increment(misses.size() - fromDb.size());
+        } catch (Exception e) {
+            log.warn("임베딩 캐시 DB 조회 실패, 모두 임베딩: size={}, cause={}", misses.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * 새로 임베딩한 결과 저장 (L1 + DB). 저장 실패는 수집을 실패시키지 않는다.
+     */
+    public void putAll(Map<String, float[]> embeddings) {
+        if (!enabled || embeddings.isEmpty()) {
+            return;
+        }
+        embeddings.forEach((hash, embedding) -> l1.put(key(hash), embedding));
+        try {
+            embeddingCacheRepository.saveAll(model, embeddings);
+        } catch (Exception e) {
+            log.warn("임베딩 캐시 DB 저장 실패: size={}, cause={}", embeddings.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 청크 기준 캐시 결과 기록. hit 청크는 최근 청크당 임베딩 시간만큼 절약한 것으로 집계
+     *
+     * @param hits   캐시(또는 같은 요청 안의 동일 청크)로 임베딩을 건너뛴 청크 수
+     * @param misses 임베딩 모델을 호출한 청크 수
+     */
+    public void recordLookup(int hits, int misses) {
+        chunkHitCounter.increment(hits);
+        chunkMissCounter.increment(misses);
+        if (hits > 0) {
+            savedSecondsCounter.increment(hits * secondsPerChunk);
+        }
+    }
+
+    /**
+     * 실제 임베딩 호출 시간 기록 (절약 시간 추정용)
+     */
+    public void recordEmbedded(int chunks, long nanos) {
+        if (chunks <= 0) {
+            return;
+        }
+        double sample = nanos / 1e9 / chunks;
+        double current = secondsPerChunk;
+        secondsPerChunk = current == 0 ? sample : current + EWMA_ALPHA * (sample - current);
+    }
+
+    private String key(String contentHash) {
+        return model + ":" + contentHash;
+    }
+}
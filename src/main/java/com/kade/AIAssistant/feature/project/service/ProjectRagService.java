@@ -1,90 +1,270 @@
 package com.kade.AIAssistant.feature.project.service;
 
 import com.kade.AIAssistant.common.exceptions.customs.ForbiddenException;
-import com.kade.AIAssistant.feature.conversation.service.DocumentService;
 import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import com.kade.AIAssistant.feature.project.repository.VectorStoreSearchRepository;
+import com.kade.AIAssistant.feature.project.repository.VectorStoreWriteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
-import org.springframework.ai.vectorstore.SearchRequest;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 /**
  * RAG 기술 구현 (역할 구분: docs/RAG_SERVICE_ROLES.md 참고). 항상 userId, projectId를 인자로 받아 벡터 저장/검색만 수행. "지금 대화" 같은 컨텍스트는 모름. -
- * addDocument: 텍스트 추출 → 청킹 → 임베딩 → VectorStore 저장 - search / searchAsContext: conversation_id, user_id 메타데이터로 유사도 검색
+ * split/addChunks: 청킹 → 임베딩 → vector_store 저장 (DocumentIngestionService가 단계별로 호출) - search / searchAsContext: conversation_id, user_id 컬럼으로
+ * 전문 검색 + 유사도 검색(RRF 결합). 메트릭: {@code project.rag.search.duration{leg=vector|lexical|hybrid}},
+ * {@code project.rag.search.failures{leg}}
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ProjectRagService {
 
-    private static final int DEFAULT_TOP_K = 5;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_LEXICAL_TERMS = 16;
 
-    private final DocumentService documentService;
-    private final VectorStore vectorStore;
+    /**
+     * 문단 구분(빈 줄)
+     */
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /**
+     * 구획 최소 길이(문자). 이보다 짧으면 앵커 문단이어도 이어 붙여 작은 청크가 생기지 않게 한다
+     */
+    private static final int MIN_SECTION_CHARS = 1500;
+    /**
+     * 섞은 문단 해시의 상위 2비트가 0이면 앵커 (약 4문단에 1개)
+     */
+    private static final int ANCHOR_SHIFT = 30;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final EmbeddingModel embeddingModel;
+    private final VectorStoreSearchRepository vectorStoreSearchRepository;
+    private final VectorStoreWriteRepository vectorStoreWriteRepository;
+    private final MeterRegistry meterRegistry;
     private final UserProjectRepository userProjectRepository;
     private final TokenTextSplitter textSplitter;
+    private final ChunkEmbeddingService chunkEmbeddingService;
 
     /**
-     * 프로젝트에 문서를 추가한다. 텍스트 추출 → 청킹 → 임베딩 → 벡터 저장.
-     *
-     * @param userId    사용자 ID (USER-ID 헤더)
-     * @param projectId 프로젝트 ID
-     * @param file      업로드 파일 (PDF, HWP 등)
-     * @throws ForbiddenException 프로젝트 소유자가 아닌 경우
+     * lexical/벡터 검색을 병렬 실행하는 가상 스레드 (검색은 JDBC/임베딩 호출 대기가 대부분)
      */
-    public void addDocument(String userId, String projectId, MultipartFile file) {
-        validateProjectOwnership(userId, projectId);
+    private final ExecutorService searchExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rag-search-", 0).factory());
 
-        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
-        String text = documentService.extractText(file);
+    @Value("${app.project.rag.hybrid-enabled:true}")
+    private boolean hybridEnabled;
 
-        if (!StringUtils.hasText(text)) {
-            log.warn("문서에서 추출된 텍스트가 없음: projectId={}, filename={}", projectId, filename);
-            return;
-        }
+    @Value("${app.project.rag.top-k:5}")
+    private int topK;
+
+    @Value("${app.project.rag.candidate-k:20}")
+    private int candidateK;
+
+    @Value("${app.project.rag.rrf-k:60}")
+    private int rrfK;
 
+    @PreDestroy
+    void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+
+    /**
+     * 추출된 텍스트를 청크로 나눈다. 청크 id는 (documentId, 순번)으로 결정되므로
+     * 같은 문서를 다시 처리해도 같은 id로 저장(upsert)되어 중단된 작업을 이어서 저장할 수 있다.
+     * <p>토큰 분할은 {@link #sections} 구획마다 따로 수행하므로, 일부만 바뀐 새 버전도 바뀌지 않은 구획은
+     * 같은 청크 텍스트가 되어 EmbeddingCache에 적중한다.
+     *
+     * @param documentId PROJECT_DOCUMENT.id (청크 메타데이터 document_id)
+     */
+    public List<Document> split(String userId, String projectId, long documentId, String filename, String text) {
         Map<String, Object> metadata = Map.of(
                 "conversation_id", projectId,
                 "user_id", userId,
                 "filename", filename
         );
-        Document doc = new Document(text, metadata);
-        List<Document> chunks = textSplitter.apply(List.of(doc));
+        List<Document> split = new ArrayList<>();
+        for (String section : sections(text)) {
+            split.addAll(textSplitter.apply(List.of(new Document(section, metadata))));
+        }
+
+        List<Document> chunks = new ArrayList<>(split.size());
+        for (int i = 0; i < split.size(); i++) {
+            Map<String, Object> chunkMetadata = new HashMap<>(split.get(i).getMetadata());
+            chunkMetadata.put("conversation_id", projectId);
+            chunkMetadata.put("user_id", userId);
+            chunkMetadata.put("filename", filename);
+            chunkMetadata.put("document_id", String.valueOf(documentId));
+            chunks.add(Document.builder()
+                    .id(chunkId(documentId, i))
+                    .text(split.get(i).getText())
+                    .metadata(chunkMetadata)
+                    .build());
+        }
+        return chunks;
+    }
 
-        for (Document chunk : chunks) {
-            chunk.getMetadata().put("conversation_id", projectId);
-            chunk.getMetadata().put("user_id", userId);
-            chunk.getMetadata().put("filename", filename);
+    /**
+     * 빈 줄로 나뉜 문단을 내용으로 정해지는 앵커 문단에서 끊어 구획으로 묶는다 (content-defined boundary).
+     * 앵커 여부는 문단 자체의 해시로만 결정되므로 앞부분 편집은 그 구획(최소 길이 조건 때문에 길어야 다음 앵커까지)
+     * 안에서만 경계를 바꾸고 이후 구획은 그대로다. 빈 줄이 없는 텍스트는 구획 하나(고정 토큰 창 분할)가 된다.
+     */
+    static List<String> sections(String text) {
+        List<String> sections = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : PARAGRAPH_BREAK.split(text)) {
+            if (paragraph.isBlank()) {
+                continue;
+            }
+            if (!current.isEmpty()) {
+                current.append("\n\n");
+            }
+            current.append(paragraph);
+            if (current.length() >= MIN_SECTION_CHARS && isAnchor(paragraph)) {
+                sections.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            sections.add(current.toString());
         }
+        return sections;
+    }
+
+    private static boolean isAnchor(String paragraph) {
+        // String.hashCode는 명세로 고정되어 JVM/노드와 무관하게 같은 경계.
+        // 하위 비트는 31 ≡ -1 (mod 4)이라 문자 교대 합에만 좌우되어(반복 문형이면 모든 문단이 앵커) 곱셈으로 섞은 상위 비트 사용
+        int hash = WHITESPACE.matcher(paragraph.strip()).replaceAll(" ").hashCode();
+        return (hash * GOLDEN_RATIO) >>> ANCHOR_SHIFT == 0;
+    }
 
-        vectorStore.add(chunks);
-        log.info("RAG 문서 추가 완료: projectId={}, filename={}, chunks={}", projectId, filename, chunks.size());
+    /**
+     * 청크 임베딩 + 벡터 저장 (같은 id는 덮어씀). 토큰 기준 배치 병렬 임베딩 후 JDBC 배치 저장
+     */
+    public void addChunks(List<Document> chunks) {
+        chunkEmbeddingService.embedAndStore(chunks);
     }
 
     /**
-     * 프로젝트 내 문서에서 유사도 검색.
+     * 프로젝트 내 문서 검색. hybrid-enabled면 전문 검색(lexical)과 벡터 유사도 검색을 병렬로 실행하고
+     * reciprocal rank fusion(RRF)으로 합쳐 상위 top-k개를 반환한다. 한쪽이 실패하면 다른 쪽 결과만 사용한다.
      */
     public List<Document> search(String userId, String projectId, String query) {
         validateProjectOwnership(userId, projectId);
+        if (!hybridEnabled) {
+            return timed("vector", () -> searchVector(userId, projectId, query, topK));
+        }
 
-        String filterExpr = String.format("conversation_id == '%s' && user_id == '%s'",
-                escapeFilterValue(projectId),
-                escapeFilterValue(userId));
+        Timer.Sample total = Timer.start(meterRegistry);
+        String tsQuery = toLexicalQuery(query);
+        CompletableFuture<List<Document>> vector = CompletableFuture.supplyAsync(
+                () -> timed("vector", () -> searchVector(userId, projectId, query, candidateK)), searchExecutor);
+        CompletableFuture<List<Document>> lexical = tsQuery.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : CompletableFuture.supplyAsync(
+                        () -> timed("lexical", () -> vectorStoreSearchRepository.searchLexical(
+                                projectId, userId, tsQuery, candidateK)), searchExecutor);
 
-        return vectorStore.similaritySearch(
-                SearchRequest.builder()
-                        .query(query)
-                        .topK(DEFAULT_TOP_K)
-                        .filterExpression(filterExpr)
-                        .build()
-        );
+        List<Document> vectorHits = join(vector, "vector", projectId);
+        List<Document> lexicalHits = join(lexical, "lexical", projectId);
+        if (vectorHits == null && lexicalHits == null) {
+            throw new IllegalStateException("문서 검색 실패: projectId=" + projectId);
+        }
+        List<Document> fused = fuse(
+                vectorHits != null ? vectorHits : List.of(),
+                lexicalHits != null ? lexicalHits : List.of());
+        long nanos = total.stop(meterRegistry.timer("project.rag.search.duration", "leg", "hybrid"));
+        log.debug("하이브리드 검색: projectId={}, vector={}, lexical={}, fused={}, elapsedMs={}",
+                projectId, vectorHits != null ? vectorHits.size() : -1, lexicalHits != null ? lexicalHits.size() : -1,
+                fused.size(), nanos / 1_000_000);
+        return fused;
+    }
+
+    private List<Document> searchVector(String userId, String projectId, String query, int k) {
+        float[] embedding = embeddingModel.embed(query);
+        return vectorStoreSearchRepository.searchVector(projectId, userId, embedding, k);
+    }
+
+    /**
+     * RRF: 각 결과 목록에서의 순위 r(1부터)에 대해 1 / (rrf-k + r)을 더한 점수 순 (score에 RRF 점수 기록)
+     */
+    List<Document> fuse(List<Document> vectorHits, List<Document> lexicalHits) {
+        Map<String, Document> docs = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (List<Document> hits : List.of(vectorHits, lexicalHits)) {
+            for (int i = 0; i < hits.size(); i++) {
+                Document doc = hits.get(i);
+                docs.putIfAbsent(doc.getId(), doc);
+                scores.merge(doc.getId(), 1.0 / (rrfK + i + 1), Double::sum);
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(topK)
+                .map(e -> docs.get(e.getKey()).mutate().score(e.getValue()).build())
+                .toList();
+    }
+
+    /**
+     * 검색어 → {@code 토큰1:* | 토큰2:*} (글자/숫자 토큰 접두어 매칭, OR 결합, 최대 MAX_LEXICAL_TERMS개).
+     * 자연어 질문 전체가 들어오므로 AND 대신 OR로 묶고 ts_rank로 많이 겹치는 청크를 앞에 둔다.
+     */
+    static String toLexicalQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(query))
+                .filter(t -> !t.isEmpty())
+                .map(t -> t.toLowerCase(Locale.ROOT))
+                .distinct()
+                .limit(MAX_LEXICAL_TERMS)
+                .map(t -> t + ":*")
+                .collect(Collectors.joining(" | "));
+    }
+
+    /**
+     * @return 검색 결과, 실패 시 null
+     */
+    private List<Document> join(CompletableFuture<List<Document>> future, String leg, String projectId) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            meterRegistry.counter("project.rag.search.failures", "leg", leg).increment();
+            log.warn("{} 검색 실패, 다른 검색 결과만 사용: projectId={}, cause={}",
+                    leg, projectId, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T timed(String leg, Supplier<T> search) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return search.get();
+        } finally {
+            sample.stop(meterRegistry.timer("project.rag.search.duration", "leg", leg));
+        }
     }
 
     /**
@@ -107,36 +287,36 @@ public class ProjectRagService {
         }
     }
 
-    private String escapeFilterValue(String value) {
-        if (value == null) {
-            return "";
-        }
-        return value.replace("'", "''");
-    }
-
     /**
-     * 프로젝트 삭제 시 벡터 저장소에서 해당 conversation_id, user_id 메타데이터를 가진 문서 삭제.
+     * 프로젝트 삭제 시 벡터 저장소에서 해당 conversation_id, user_id를 가진 청크 삭제.
      */
     public void deleteByProject(String userId, String projectId) {
         validateProjectOwnership(userId, projectId);
-        String filterExpr = String.format("conversation_id == '%s' && user_id == '%s'",
-                escapeFilterValue(projectId),
-                escapeFilterValue(userId));
-        vectorStore.delete(filterExpr);
-        log.info("프로젝트 벡터 삭제 완료: projectId={}, userId={}", projectId, userId);
+        int deleted = vectorStoreWriteRepository.deleteByProject(projectId, userId);
+        log.info("프로젝트 벡터 삭제 완료: projectId={}, userId={}, chunks={}", projectId, userId, deleted);
+    }
+
+    /**
+     * 수집 중 삭제된 문서의 벡터 청크를 document_id 메타데이터로 삭제한다. (소유권은 호출 측에서 확인됨)
+     */
+    public void deleteByDocumentId(String projectId, long documentId) {
+        int deleted = vectorStoreWriteRepository.deleteByDocumentId(projectId, documentId);
+        log.info("문서 벡터 삭제 완료: documentId={}, chunks={}", documentId, deleted);
+    }
+
+    private static String chunkId(long documentId, int index) {
+        return UUID.nameUUIDFromBytes((documentId + ":" + index).getBytes(StandardCharsets.UTF_8)).toString();
     }
 
     /**
-     * 단일 문서의 벡터 청크를 삭제한다. conversation_id, user_id, filename 메타데이터로 필터링.
+     * 단일 문서의 벡터 청크를 document_id 메타데이터로 삭제한다. 같은 파일명의 다른 문서(재업로드) 청크는 남긴다.
+     * document_id 없이 저장된 이전 버전 청크만 filename으로 함께 정리한다.
      */
-    public void deleteByDocument(String userId, String conversationId, String filename) {
+    public void deleteByDocument(String userId, String conversationId, long documentId, String filename) {
         validateProjectOwnership(userId, conversationId);
-        String filterExpr = String.format(
-                "conversation_id == '%s' && user_id == '%s' && filename == '%s'",
-                escapeFilterValue(conversationId),
-                escapeFilterValue(userId),
-                escapeFilterValue(filename));
-        vectorStore.delete(filterExpr);
-        log.info("문서 벡터 삭제 완료: conversationId={}, filename={}", conversationId, filename);
+        int deleted = vectorStoreWriteRepository.deleteByDocumentId(conversationId, documentId);
+        int legacy = vectorStoreWriteRepository.deleteLegacyByFilename(conversationId, userId, filename);
+        log.info("문서 벡터 삭제 완료: conversationId={}, documentId={}, chunks={}, legacyChunks={}",
+                conversationId, documentId, deleted, legacy);
     }
 }
@@ -1,9 +1,11 @@
 package com.kade.AIAssistant.feature.project.service;
 
 import com.kade.AIAssistant.common.exceptions.customs.ForbiddenException;
+import com.kade.AIAssistant.feature.conversation.dto.request.ConversationListCursor;
 import com.kade.AIAssistant.feature.project.dto.reqeust.CreateProjectRequest;
 import com.kade.AIAssistant.feature.project.dto.response.CreateProjectResponse;
 import com.kade.AIAssistant.feature.project.dto.response.ProjectDocumentResponse;
+import com.kade.AIAssistant.feature.project.dto.response.ProjectPageResponse;
 import com.kade.AIAssistant.feature.project.entity.ProjectDocumentEntity;
 import com.kade.AIAssistant.feature.project.entity.UserProjectEntity;
 import com.kade.AIAssistant.feature.project.repository.ProjectDocumentRepository;
@@ -13,15 +15,18 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 프로젝트 도메인 진입점 (역할 구분: docs/RAG_SERVICE_ROLES.md 참고).
  * <ul>
- *   <li>파일 벡터 저장: 사용자 요청 → ProjectRagService + 문서 목록 등록</li>
- *   <li>문서 목록 반환: projectId/userId 기준 저장 문서 목록</li>
+ *   <li>파일 벡터 저장: 사용자 요청 → DocumentIngestionService에 비동기 수집 등록 (진행 상황은 SSE로 구독)</li>
+ *   <li>문서 목록 반환: projectId/userId 기준 저장 문서 목록 (수집 상태 포함)</li>
  * </ul>
  * RAG 컨텍스트 설정·정리는 스트리밍 계층(ModelExecuteService)에서 RagService를 직접 호출.
  */
@@ -33,14 +38,51 @@ public class ProjectService {
     private final UserProjectRepository projectRepository;
     private final ProjectDocumentRepository projectDocumentRepository;
     private final ProjectRagService projectRagService;
+    private final DocumentIngestionService documentIngestionService;
 
+    @Value("${app.conversation.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${app.conversation.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * 프로젝트 목록(최신순, 최대 500개). 페이지 단위 조회는 {@link #getProjectPage} 사용.
+     */
     public List<CreateProjectResponse> getProjectList(String userId) {
-        return projectRepository.findById_UserIdOrderByUpdatedAtDesc(userId, Pageable.unpaged())
+        return projectRepository.findById_UserIdOrderByUpdatedAtDesc(userId, PageRequest.of(0, 500))
                 .stream()
                 .map(CreateProjectResponse::from)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 프로젝트 목록 커서 페이지 ((updated_at, conversation_id) keyset, 최신순).
+     *
+     * @param limit  없으면 기본 20개, 있으면 해당 개수(최대 100개)만 조회
+     * @param cursor 이전 응답의 nextCursor (없으면 첫 페이지)
+     */
+    public ProjectPageResponse getProjectPage(String userId, Integer limit, String cursor) {
+        int effectiveLimit = (limit == null || limit <= 0) ? defaultLimit : Math.min(limit, maxLimit);
+        // 다음 페이지 존재 여부 확인을 위해 1개 더 조회
+        PageRequest pageRequest = PageRequest.of(0, effectiveLimit + 1);
+        List<UserProjectEntity> rows;
+        if (StringUtils.hasText(cursor)) {
+            ConversationListCursor decoded = ConversationListCursor.decode(cursor);
+            rows = projectRepository.findPageByUserIdBefore(
+                    userId, decoded.updatedAt(), decoded.conversationId(), pageRequest);
+        } else {
+            rows = projectRepository.findPageByUserId(userId, pageRequest);
+        }
+        boolean hasMore = rows.size() > effectiveLimit;
+        List<UserProjectEntity> page = hasMore ? rows.subList(0, effectiveLimit) : rows;
+        UserProjectEntity last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore && last != null
+                ? new ConversationListCursor(last.getUpdatedAt(), last.getId().getConversationId()).encode()
+                : null;
+        return new ProjectPageResponse(page.stream().map(CreateProjectResponse::from).toList(), nextCursor, hasMore);
+    }
+
     /**
      * 새 프로젝트를 생성하여 DB에 저장한다. project_id = conversation_id로 동일 UUID 사용. USER_PROJECT와 USER_CONVERSATION에 모두 등록하여
      * CHAT_MESSAGE/CHAT_ATTACHMENT와 통합.
@@ -57,14 +99,31 @@ public class ProjectService {
     }
 
     /**
-     * 사용자가 요청한 파일을 벡터로 저장하고, 문서 목록에 등록한다.
+     * 사용자가 요청한 파일을 문서 목록에 등록하고 벡터 저장을 백그라운드 수집 파이프라인에 맡긴다.
+     *
+     * @return 등록된 문서 (status=QUEUED). 진행 상황은 {@link #subscribeDocumentProgress}로 구독
+     * @throws ForbiddenException 해당 프로젝트 소유가 아닌 경우
      */
-    public void addDocument(String userId, String conversationId, MultipartFile file) {
-        projectRagService.addDocument(userId, conversationId, file);
-        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown";
-        String mimeType = file.getContentType();
-        Long size = file.getSize() >= 0 ? file.getSize() : null;
-        projectDocumentRepository.save(new ProjectDocumentEntity(conversationId, userId, filename, mimeType, size));
+    public ProjectDocumentResponse addDocument(String userId, String conversationId, MultipartFile file) {
+        return documentIngestionService.submit(userId, conversationId, file);
+    }
+
+    /**
+     * 문서 한 건의 수집 상태 조회
+     *
+     * @throws ForbiddenException 문서가 없거나, 해당 프로젝트 소유가 아닌 경우
+     */
+    public ProjectDocumentResponse getDocument(String userId, String conversationId, String documentId) {
+        return ProjectDocumentResponse.from(findOwnedDocument(userId, conversationId, documentId));
+    }
+
+    /**
+     * 문서 수집 진행 상황 SSE 구독 (progress 이벤트, 완료/실패 시 종료)
+     *
+     * @throws ForbiddenException 문서가 없거나, 해당 프로젝트 소유가 아닌 경우
+     */
+    public SseEmitter subscribeDocumentProgress(String userId, String conversationId, String documentId) {
+        return documentIngestionService.subscribe(findOwnedDocument(userId, conversationId, documentId).getId());
     }
 
     /**
@@ -86,6 +145,13 @@ public class ProjectService {
      * @throws ForbiddenException 문서가 없거나, 해당 프로젝트 소유가 아닌 경우
      */
     public void deleteDocument(String userId, String conversationId, String documentId) {
+        ProjectDocumentEntity entity = findOwnedDocument(userId, conversationId, documentId);
+        // 수집 중인 문서는 행 삭제 후 파이프라인이 다음 진행 기록 시점에 중단하고 저장한 청크를 정리한다
+        projectRagService.deleteByDocument(userId, conversationId, entity.getId(), entity.getFilename());
+        projectDocumentRepository.delete(entity);
+    }
+
+    private ProjectDocumentEntity findOwnedDocument(String userId, String conversationId, String documentId) {
         Long id;
         try {
             id = Long.parseLong(documentId);
@@ -97,7 +163,6 @@ public class ProjectService {
         if (!entity.getConversationId().equals(conversationId) || !entity.getUserId().equals(userId)) {
             throw new ForbiddenException("문서를 찾을 수 없거나 해당 프로젝트에 속하지 않습니다.");
         }
-        projectRagService.deleteByDocument(userId, conversationId, entity.getFilename());
-        projectDocumentRepository.delete(entity);
+        return entity;
     }
 }
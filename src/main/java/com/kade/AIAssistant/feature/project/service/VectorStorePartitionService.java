@@ -0,0 +1,194 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import com.kade.AIAssistant.feature.project.repository.VectorStorePartitionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 파티션 모드 vector_store(app.project.vector-store.partitioned=true, db/vector_store_partitioned.sql) 관리.
+ * <ul>
+ *   <li>승격: 문서 수집이 끝났을 때 프로젝트 청크 수가 promote-threshold 이상이면 공유 파티션에서 전용 파티션으로 옮긴다.
+ *   전용 파티션은 HNSW 인덱스를 따로 가지므로 다른 사용자의 쓰기가 이 프로젝트 인덱스 유지 비용에 영향을 주지 않는다</li>
+ *   <li>삭제: 전용 파티션이 있는 프로젝트는 purge 시 DETACH + DROP으로 한 번에 제거 (행 단위 DELETE, bloat 없음)</li>
+ * </ul>
+ * <p>승격의 복사/인덱스 생성/CHECK 검증은 잠금 없이 하고, 잠금 구간은 변경분 반영·삭제·ATTACH로 제한한다.
+ * 잠금 구간에서도 공유 파티션 쓰기와, 프로젝트가 속한 하위 파티션 검증 스캔 및 ATTACH 동안의 읽기는 막히므로
+ * 큰 프로젝트에 한 번만 일어나도록 임계값을 크게 잡는다. 공유 파티션에서 지운 행은 autovacuum이 회수한다.
+ * 잠금 대기가 lock-timeout-ms를 넘으면 포기하고 다음 수집 완료 시 다시 시도한다.
+ * <p>메트릭: {@code project.vector.partition{action=promoted|dropped|failed}},
+ * {@code project.vector.partition.promote.duration}
+ */
+@Slf4j
+@Service
+public class VectorStorePartitionService {
+
+    private final VectorStorePartitionRepository partitionRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transaction;
+
+    private final boolean partitioned;
+    private final long promoteThreshold;
+    private final long lockTimeoutMs;
+    private final long copyBatchPages;
+
+    public VectorStorePartitionService(
+            VectorStorePartitionRepository partitionRepository,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.project.vector-store.partitioned:false}") boolean partitioned,
+            @Value("${app.project.vector-store.promote-threshold:200000}") long promoteThreshold,
+            @Value("${app.project.vector-store.lock-timeout-ms:5000}") long lockTimeoutMs,
+            @Value("${app.project.vector-store.copy-batch-pages:4096}") long copyBatchPages) {
+        this.partitionRepository = partitionRepository;
+        this.meterRegistry = meterRegistry;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.partitioned = partitioned;
+        this.promoteThreshold = promoteThreshold;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.copyBatchPages = copyBatchPages;
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * 프로젝트 청크 수가 임계값 이상이면 전용 파티션으로 승격. 실패해도 예외를 던지지 않는다 (공유 파티션에서 계속 동작)
+     */
+    public void promoteIfLarge(String conversationId) {
+        String partitionName = VectorStorePartitionRepository.partitionName(conversationId);
+        if (!partitioned || promoteThreshold <= 0 || partitionName == null) {
+            return;
+        }
+        try {
+            if (partitionRepository.exists(partitionName)
+                    || partitionRepository.countChunks(conversationId) < promoteThreshold) {
+                return;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // 다른 노드가 같은 프로젝트를 준비 중이면 null (그 노드가 승격)
+            Integer moved = partitionRepository.withBuildLock(partitionName,
+                    () -> promote(conversationId, partitionName));
+            sample.stop(meterRegistry.timer("project.vector.partition.promote.duration"));
+            if (moved != null) {
+                count("promoted");
+                log.info("프로젝트 전용 벡터 파티션 승격: projectId={}, partition={}, chunks={}",
+                        conversationId, partitionName, moved);
+            }
+        } catch (Exception e) {
+            count("failed");
+            log.warn("프로젝트 전용 벡터 파티션 승격 실패, 공유 파티션 유지: projectId={}, cause={}",
+                    conversationId, e.getMessage());
+        }
+    }
+
+    /**
+     * 1~3단계는 공유 파티션을 잠그지 않는다 (검색/쓰기 계속 가능).
+     * <ol>
+     *   <li>준비 테이블 생성 후 공유 파티션에서 copy-batch-pages 블록씩 복사 (배치마다 커밋)</li>
+     *   <li>부모와 같은 인덱스(HNSW 포함) 생성</li>
+     *   <li>프로젝트가 없는 나머지 공유 하위 파티션에 제외 CHECK를 NOT VALID로 추가 후 VALIDATE</li>
+     *   <li>짧은 잠금 트랜잭션에서 변경분 반영, 공유 파티션 삭제, ATTACH ({@link VectorStorePartitionRepository#attach})</li>
+     * </ol>
+     * 실패하면 준비 테이블과 제외 CHECK를 정리하고 예외를 던진다.
+     *
+     * @return 옮긴 청크 수, 이미 승격됐거나 옮길 청크가 없으면 null
+     */
+    private Integer promote(String conversationId, String partitionName) {
+        if (partitionRepository.exists(partitionName)) {
+            return null;
+        }
+        String sourceLeaf = partitionRepository.sharedLeafOf(conversationId);
+        if (sourceLeaf == null) {
+            return null;
+        }
+        List<String> leaves = partitionRepository.sharedLeaves();
+        try {
+            partitionRepository.createBuildTable(partitionName, conversationId);
+            long pages = partitionRepository.pageCount(sourceLeaf);
+            long copied = 0;
+            for (long from = 0; from < pages; from += copyBatchPages) {
+                copied += partitionRepository.copyPages(
+                        partitionName, sourceLeaf, conversationId, from, from + copyBatchPages);
+            }
+            partitionRepository.createIndexes(partitionName);
+
+            for (String leaf : leaves) {
+                if (leaf.equals(sourceLeaf)) {
+                    // 프로젝트 청크가 있는 하위 파티션은 삭제 후에만 검증 가능 (잠금 구간에서 처리)
+                    continue;
+                }
+                transaction.executeWithoutResult(status -> {
+                    partitionRepository.setLockTimeout(lockTimeoutMs);
+                    partitionRepository.addExclusionCheck(leaf, partitionName, conversationId);
+                });
+                partitionRepository.validateExclusionCheck(leaf, partitionName);
+            }
+
+            long copiedRows = copied;
+            Integer moved = transaction.execute(status -> {
+                partitionRepository.lockForDdl(lockTimeoutMs);
+                // 잠금을 기다리는 동안 다른 노드가 승격했을 수 있음
+                if (partitionRepository.exists(partitionName)) {
+                    return null;
+                }
+                return partitionRepository.attach(conversationId, partitionName, sourceLeaf, leaves, copiedRows);
+            });
+            if (moved == null) {
+                cleanUp(partitionName, leaves);
+            }
+            return moved;
+        } catch (RuntimeException e) {
+            cleanUp(partitionName, leaves);
+            throw e;
+        }
+    }
+
+    /**
+     * 실패/중단한 승격의 준비 테이블과 제외 CHECK 정리 (best-effort, 남아도 다음 시도가 교체)
+     */
+    private void cleanUp(String partitionName, List<String> leaves) {
+        try {
+            partitionRepository.dropBuildTable(partitionName);
+            for (String leaf : leaves) {
+                transaction.executeWithoutResult(status -> {
+                    partitionRepository.setLockTimeout(lockTimeoutMs);
+                    partitionRepository.dropExclusionCheck(leaf, partitionName);
+                });
+            }
+        } catch (Exception e) {
+            log.warn("벡터 파티션 승격 준비 정리 실패: partition={}, cause={}", partitionName, e.getMessage());
+        }
+    }
+
+    /**
+     * 전용 파티션이 있으면 분리 후 삭제 (purge 시). 예외는 호출 측 재시도 정책을 따른다.
+     *
+     * @return 전용 파티션을 삭제했으면 true, 공유 파티션 프로젝트면 false (행 단위 삭제 필요)
+     */
+    public boolean dropIfDedicated(String conversationId) {
+        String partitionName = VectorStorePartitionRepository.partitionName(conversationId);
+        if (!partitioned || partitionName == null || !partitionRepository.exists(partitionName)) {
+            return false;
+        }
+        transaction.executeWithoutResult(status -> {
+            partitionRepository.lockForDdl(lockTimeoutMs);
+            if (partitionRepository.exists(partitionName)) {
+                partitionRepository.detachAndDrop(partitionName);
+            }
+        });
+        count("dropped");
+        log.info("프로젝트 전용 벡터 파티션 삭제: projectId={}, partition={}", conversationId, partitionName);
+        return true;
+    }
+
+    private void count(String action) {
+        meterRegistry.counter("project.vector.partition", "action", action).increment();
+    }
+}
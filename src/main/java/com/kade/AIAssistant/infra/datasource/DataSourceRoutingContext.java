@@ -0,0 +1,26 @@
+package com.kade.AIAssistant.infra.datasource;
+
+/**
+ * 현재 요청의 사용자 ID (DataSource 라우팅의 read-your-writes 판단용).
+ * <p>USER-ID 헤더를 검증하는 필터에서 요청 스레드에 바인딩한다.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+        // 유틸 클래스 - 인스턴스 생성 금지
+    }
+
+    public static void bind(String userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+
+    public static String currentUser() {
+        return CURRENT_USER.get();
+    }
+}
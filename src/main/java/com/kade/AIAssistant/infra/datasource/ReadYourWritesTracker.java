@@ -0,0 +1,46 @@
+package com.kade.AIAssistant.infra.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 사용자별 최근 쓰기 시점 추적 (read-your-writes).
+ * <p>쓰기 후 sticky-seconds 동안은 해당 사용자의 읽기 전용 트랜잭션도 primary로 보내
+ * 복제 지연으로 방금 쓴 데이터가 보이지 않는 문제를 막는다.
+ * <p>프로세스 내 기록이므로 같은 사용자의 다음 요청이 다른 노드로 가면 적용되지 않는다
+ * (로드밸런서 sticky session과 함께 사용).
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(
+            @Value("${app.datasource.replica.sticky-seconds:5}") long stickySeconds,
+            @Value("${app.datasource.replica.sticky-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(stickySeconds))
+                .build();
+    }
+
+    /**
+     * 사용자의 쓰기를 기록 (sticky 시간 갱신)
+     */
+    public void markWrite(String userId) {
+        if (StringUtils.hasText(userId)) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 최근 쓰기가 있어 primary에서 읽어야 하는지
+     */
+    public boolean isSticky(String userId) {
+        return StringUtils.hasText(userId) && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kade.AIAssistant.infra.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * 읽기 전용 트랜잭션을 replica로, 그 외(쓰기 트랜잭션, 트랜잭션 밖 호출)는 primary로 보내는 DataSource.
+ * <ul>
+ *   <li>replica가 여러 개면 round-robin</li>
+ *   <li>현재 사용자가 최근에 쓰기를 했으면({@link ReadYourWritesTracker}) 읽기 전용이어도 primary</li>
+ *   <li>쓰기 트랜잭션이 primary로 갈 때 현재 사용자의 쓰기를 기록</li>
+ * </ul>
+ * 트랜잭션의 readOnly 여부는 커넥션을 실제로 얻는 시점에 판단해야 하므로
+ * 반드시 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}로 감싸서 사용한다.
+ * <p>메트릭: {@code datasource.routing{target=primary|replica, reason=write|sticky|read}}
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private final List<String> replicaKeys;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writeRoutes;
+    private final Counter stickyRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker,
+                                    MeterRegistry meterRegistry) {
+        Assert.notEmpty(replicas, "replicas cannot be empty");
+        Map<Object, Object> targets = new HashMap<>();
+        List<String> keys = new ArrayList<>(replicas.size());
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = REPLICA_PREFIX + i;
+            targets.put(key, replicas.get(i));
+            keys.add(key);
+        }
+        this.replicaKeys = List.copyOf(keys);
+        this.tracker = tracker;
+        this.writeRoutes = routeCounter(meterRegistry, PRIMARY, "write");
+        this.stickyRoutes = routeCounter(meterRegistry, PRIMARY, "sticky");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica", "read");
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String userId = DataSourceRoutingContext.currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.markWrite(userId);
+            }
+            writeRoutes.increment();
+            return PRIMARY;
+        }
+        if (tracker.isSticky(userId)) {
+            stickyRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
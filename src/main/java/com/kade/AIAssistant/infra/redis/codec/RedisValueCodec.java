@@ -0,0 +1,21 @@
+package com.kade.AIAssistant.infra.redis.codec;
+
+/**
+ * Redis value 바이너리 코덱.
+ * <p>{@link VersionedRedisSerializer}가 프레임 헤더(포맷 ID, 타입, 압축 여부)를 붙이고,
+ * 코덱은 payload 직렬화만 담당한다. 새 포맷을 추가할 때는 겹치지 않는 {@link #formatId()}를 사용한다.
+ */
+public interface RedisValueCodec {
+
+    /**
+     * 프레임 헤더에 기록되는 포맷 ID (읽기 시 코덱 선택에 사용)
+     */
+    byte formatId();
+
+    byte[] encode(Object value) throws Exception;
+
+    /**
+     * @param type 저장 시 기록된 타입 (알 수 없으면 Object.class)
+     */
+    Object decode(byte[] payload, Class<?> type) throws Exception;
+}
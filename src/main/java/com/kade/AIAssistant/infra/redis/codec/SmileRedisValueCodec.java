@@ -0,0 +1,42 @@
+package com.kade.AIAssistant.infra.redis.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Jackson Smile(바이너리 JSON) 코덱.
+ * <p>필드명 back-reference와 바이너리 숫자 인코딩으로 JSON 대비 크기/파싱 비용이 작고,
+ * 기존 Jackson 매핑(record, Lombok DTO, java.time)을 그대로 사용할 수 있다.
+ */
+public class SmileRedisValueCodec implements RedisValueCodec {
+
+    public static final byte FORMAT_ID = 1;
+
+    private final ObjectMapper smileMapper;
+
+    public SmileRedisValueCodec() {
+        this.smileMapper = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return smileMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] payload, Class<?> type) throws Exception {
+        return smileMapper.readValue(payload, type);
+    }
+}
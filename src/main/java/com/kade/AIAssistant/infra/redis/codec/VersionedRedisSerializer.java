@@ -0,0 +1,225 @@
+package com.kade.AIAssistant.infra.redis.codec;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 타입/버전 정보를 담은 바이너리 프레임으로 Redis value를 직렬화한다.
+ * <pre>
+ * [MAGIC 0xCA][frame version][format id][flags][type name length(u16)][type name(UTF-8)]
+ * [(압축 시) 원본 길이(int)][payload]
+ * </pre>
+ * <ul>
+ *   <li>타입 이름을 함께 저장하므로 역직렬화 시 LinkedHashMap이 아닌 원래 타입으로 복원된다
+ *       (허용 패키지/타입만, 그 외에는 Map/List 등 기본 타입으로 복원)</li>
+ *   <li>payload가 압축 임계값 이상이면 Deflate(BEST_SPEED)로 압축 (flags bit0)</li>
+ *   <li>MAGIC으로 시작하지 않는 값은 기존 JSON 형식으로 보고 legacy 직렬화기로 읽는다 (점진적 마이그레이션)</li>
+ *   <li>writer가 null이면 기존 JSON 형식으로 기록 (롤백용)</li>
+ * </ul>
+ * <p>메트릭: {@code redis.codec.bytes{type, op}}, {@code redis.codec.time{type, op}} (op=write|read)
+ */
+@Slf4j
+public class VersionedRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xCA;
+    private static final byte FRAME_VERSION = 1;
+    private static final byte FLAG_DEFLATE = 0x01;
+    private static final int HEADER_SIZE = 6;
+    private static final String ALLOWED_PACKAGE = "com.kade.AIAssistant.";
+    private static final Set<String> ALLOWED_JDK_TYPES = Stream.of(
+                    String.class, Long.class, Integer.class, Boolean.class, Double.class)
+            .map(Class::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final Map<Byte, RedisValueCodec> codecs;
+    private final RedisValueCodec writer;
+    private final RedisSerializer<Object> legacy;
+    private final int compressionThreshold;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param codecs               읽기 가능한 코덱 목록
+     * @param writer               기록에 사용할 코덱 (null이면 legacy JSON으로 기록)
+     * @param legacy               기존 JSON 직렬화기 (MAGIC이 없는 값 읽기/롤백 기록용)
+     * @param compressionThreshold 압축 임계값(바이트), 0 이하면 압축하지 않음
+     */
+    public VersionedRedisSerializer(Iterable<RedisValueCodec> codecs, RedisValueCodec writer,
+                                    RedisSerializer<Object> legacy, int compressionThreshold,
+                                    MeterRegistry meterRegistry) {
+        Map<Byte, RedisValueCodec> byId = new HashMap<>();
+        codecs.forEach(codec -> byId.put(codec.formatId(), codec));
+        this.codecs = Map.copyOf(byId);
+        this.writer = writer;
+        this.legacy = legacy;
+        this.compressionThreshold = compressionThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (writer == null) {
+            return legacy.serialize(value);
+        }
+        String typeName = value.getClass().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            byte[] payload = writer.encode(value);
+            int rawLength = payload.length;
+            byte flags = 0;
+            if (compressionThreshold > 0 && rawLength >= compressionThreshold) {
+                byte[] compressed = deflate(payload);
+                if (compressed.length < rawLength) {
+                    payload = compressed;
+                    flags |= FLAG_DEFLATE;
+                }
+            }
+
+            byte[] type = isAllowed(typeName) ? typeName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            boolean deflated = (flags & FLAG_DEFLATE) != 0;
+            ByteBuffer buffer = ByteBuffer.allocate(
+                    HEADER_SIZE + type.length + (deflated ? Integer.BYTES : 0) + payload.length);
+            buffer.put(MAGIC).put(FRAME_VERSION).put(writer.formatId()).put(flags)
+                    .putShort((short) type.length).put(type);
+            if (deflated) {
+                buffer.putInt(rawLength);
+            }
+            buffer.put(payload);
+            byte[] bytes = buffer.array();
+            record(value.getClass(), "write", bytes.length, sample);
+            return bytes;
+        } catch (Exception e) {
+            throw new SerializationException("Redis value 직렬화 실패: " + typeName, e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // 기존 JSON 형식 (마이그레이션 전 저장된 값)
+            return legacy.deserialize(bytes);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get(); // MAGIC
+            byte frameVersion = buffer.get();
+            if (frameVersion != FRAME_VERSION) {
+                throw new SerializationException("지원하지 않는 Redis value 프레임 버전: " + frameVersion);
+            }
+            byte formatId = buffer.get();
+            byte flags = buffer.get();
+            RedisValueCodec codec = codecs.get(formatId);
+            if (codec == null) {
+                throw new SerializationException("등록되지 않은 Redis value 포맷: " + formatId);
+            }
+            byte[] type = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(type);
+            Class<?> targetType = resolveType(new String(type, StandardCharsets.UTF_8));
+
+            byte[] payload;
+            if ((flags & FLAG_DEFLATE) != 0) {
+                int rawLength = buffer.getInt();
+                payload = inflate(bytes, buffer.position(), bytes.length - buffer.position(), rawLength);
+            } else {
+                payload = new byte[buffer.remaining()];
+                buffer.get(payload);
+            }
+            Object value = codec.decode(payload, targetType);
+            record(targetType, "read", bytes.length, sample);
+            return value;
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Redis value 역직렬화 실패", e);
+        }
+    }
+
+    private static boolean isAllowed(String typeName) {
+        return typeName.startsWith(ALLOWED_PACKAGE) || ALLOWED_JDK_TYPES.contains(typeName);
+    }
+
+    private static Class<?> resolveType(String typeName) {
+        if (typeName.isEmpty() || !isAllowed(typeName)) {
+            return Object.class;
+        }
+        try {
+            return ClassUtils.forName(typeName, null);
+        } catch (ClassNotFoundException e) {
+            // 클래스가 이름 변경/삭제된 경우 기본 타입(Map 등)으로 복원
+            log.warn("[VersionedRedisSerializer] 알 수 없는 타입, Object로 역직렬화: {}", typeName);
+            return Object.class;
+        }
+    }
+
+    private void record(Class<?> type, String op, int size, Timer.Sample sample) {
+        String typeTag = type.getSimpleName();
+        sample.stop(meterRegistry.timer("redis.codec.time", "type", typeTag, "op", op));
+        DistributionSummary.builder("redis.codec.bytes")
+                .baseUnit("bytes")
+                .tag("type", typeTag)
+                .tag("op", op)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            byte[] out = new byte[rawLength];
+            int written = 0;
+            while (written < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(out, written, rawLength - written);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                written += n;
+            }
+            if (written != rawLength) {
+                throw new DataFormatException("압축 해제 길이 불일치: " + written + " != " + rawLength);
+            }
+            return out;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.kade.AIAssistant.infra.redis.context;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 채팅 메모리 L1 캐시 (프로세스 내, 역직렬화된 Message 리스트).
+ * <p>RedisChatMemory 앞단에서 Redis GET + JSON 파싱을 생략한다. 크기/TTL 제한이 있으며,
+ * 다른 노드에서 같은 대화를 갱신하면 Redis pub/sub 무효화 메시지로 로컬 항목을 제거한다.
+ * <p>무효화 메시지 형식: {@code nodeId|conversationId} (자기 노드가 보낸 메시지는 무시)
+ * <p>pub/sub 메시지가 유실되더라도 TTL이 지나면 Redis(L2)에서 다시 읽으므로 최대 TTL만큼만 stale 가능.
+ */
+@Slf4j
+public class ChatMemoryLocalCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = RedisKeyPrefix.CHAT_MEMORY + ":invalidate";
+    private static final String SEPARATOR = "|";
+
+    private final Cache<String, List<Message>> cache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter redisHitCounter;
+    private final Counter redisMissCounter;
+
+    public ChatMemoryLocalCache(StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry,
+                                long maximumSize, Duration ttl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // hit ratio 등: cache.gets{cache=chat_memory_l1, result=hit|miss}, cache.evictions 등
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat_memory_l1");
+        // L1 미스 후 Redis(L2) 조회 결과
+        this.redisHitCounter = Counter.builder("chat.memory.cache.lookups")
+                .tag("tier", "redis").tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMissCounter = Counter.builder("chat.memory.cache.lookups")
+                .tag("tier", "redis").tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * L1 미스 후 Redis(L2) 조회 결과 기록
+     */
+    public void recordRedisLookup(boolean hit) {
+        (hit ? redisHitCounter : redisMissCounter).increment();
+    }
+
+    /**
+     * 로컬 캐시 조회 (없으면 null)
+     */
+    public List<Message> get(String conversationId) {
+        return cache.getIfPresent(conversationId);
+    }
+
+    /**
+     * 로컬 캐시에 저장하고, 다른 노드의 로컬 캐시는 무효화한다. Redis(L2) 갱신 직후 호출.
+     */
+    public void put(String conversationId, List<Message> messages) {
+        cache.put(conversationId, List.copyOf(messages));
+        publishInvalidation(conversationId);
+    }
+
+    /**
+     * Redis(L2)에서 읽은 값을 로컬 캐시에만 채운다 (다른 노드 무효화 없음).
+     */
+    public void fill(String conversationId, List<Message> messages) {
+        cache.put(conversationId, List.copyOf(messages));
+    }
+
+    /**
+     * 로컬 및 다른 노드의 캐시 항목 제거
+     */
+    public void invalidate(String conversationId) {
+        cache.invalidate(conversationId);
+        publishInvalidation(conversationId);
+    }
+
+    private void publishInvalidation(String conversationId) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + SEPARATOR + conversationId);
+        } catch (Exception e) {
+            // 무효화 실패 시 다른 노드는 TTL 만료까지 이전 값을 볼 수 있음
+            log.warn("[ChatMemoryLocalCache] 무효화 메시지 발행 실패 - conversationId: {}, cause: {}",
+                    conversationId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int idx = body.indexOf(SEPARATOR);
+        if (idx < 0) {
+            return;
+        }
+        if (body.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        String conversationId = body.substring(idx + 1);
+        cache.invalidate(conversationId);
+        log.debug("[ChatMemoryLocalCache] 원격 무효화 - conversationId: {}", conversationId);
+    }
+}
@@ -0,0 +1,117 @@
+package com.kade.AIAssistant.infra.redis.context;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+/**
+ * 채팅 메모리 메시지의 식별 메타데이터 유틸리티.
+ * <p>CHAT_MESSAGE.id(UUID)와 64비트 content hash를 Message metadata로 전달하여,
+ * 캐시/Repository에서 {@code type + "::" + content} 문자열을 만들지 않고 중복을 판단한다.
+ * <ul>
+ *   <li>id가 있는 메시지: id로만 중복 판단 (같은 내용의 메시지도 서로 다른 행이면 유지)</li>
+ *   <li>id가 없는 메시지 (MessageChatMemoryAdvisor가 추가한 응답 등): 아직 저장되지 않은 새 메시지로 보고 항상 추가.
+ *   이후 DB에 저장된 같은 type + content hash 메시지가 들어오면 그 행(id 있음)으로 교체된다</li>
+ * </ul>
+ */
+public final class ChatMessageMetadata {
+
+    /**
+     * CHAT_MESSAGE.id (UUID 문자열)
+     */
+    public static final String MESSAGE_ID = "messageId";
+
+    /**
+     * content의 64비트 해시 (Long). Redis 캐시에 메시지와 함께 저장해 조회 시 다시 계산하지 않는다
+     */
+    public static final String CONTENT_HASH = "contentHash";
+
+    private ChatMessageMetadata() {
+        // 유틸 클래스 - 인스턴스 생성 금지
+    }
+
+    /**
+     * 중복 판단 키 (메시지 타입 + content hash). 문자열 결합 없이 고정 크기로 비교한다.
+     */
+    public record ContentKey(String type, long hash) {
+    }
+
+    /**
+     * content의 64비트 해시 (UTF-8 바이트의 MD5 앞 8바이트). null은 빈 문자열로 취급한다.
+     */
+    public static long contentHash(String content) {
+        byte[] bytes = (content != null ? content : "").getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(bytes);
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * metadata의 messageId 반환 (없거나 형식이 잘못되면 null)
+     */
+    public static UUID messageId(Message message) {
+        Object raw = message.getMetadata().get(MESSAGE_ID);
+        if (raw instanceof UUID uuid) {
+            return uuid;
+        }
+        if (raw instanceof String s && !s.isBlank()) {
+            try {
+                return UUID.fromString(s);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * metadata에 계산된 hash가 있으면 재사용하고, 없으면 content로 계산한다.
+     */
+    public static long contentHash(Message message) {
+        Object raw = message.getMetadata().get(CONTENT_HASH);
+        if (raw instanceof Number n) {
+            return n.longValue();
+        }
+        return contentHash(message.getText());
+    }
+
+    public static ContentKey contentKey(Message message) {
+        return new ContentKey(message.getMessageType().name(), contentHash(message));
+    }
+
+    /**
+     * 타입/본문/식별 메타데이터로 Spring AI Message 생성.
+     *
+     * @param type        Spring AI MessageType
+     * @param text        본문
+     * @param messageId   CHAT_MESSAGE.id (없으면 null)
+     * @param contentHash 미리 계산된 hash (Redis 캐시에 저장된 값, 없으면 null)
+     */
+    public static Message toMessage(MessageType type, String text, UUID messageId, Long contentHash) {
+        Map<String, Object> metadata = new HashMap<>();
+        if (messageId != null) {
+            metadata.put(MESSAGE_ID, messageId.toString());
+        }
+        if (contentHash != null) {
+            metadata.put(CONTENT_HASH, contentHash);
+        }
+        return switch (type) {
+            case SYSTEM -> SystemMessage.builder().text(text).metadata(metadata).build();
+            case USER -> UserMessage.builder().text(text).metadata(metadata).build();
+            case ASSISTANT -> new AssistantMessage(text, metadata);
+            default -> new AssistantMessage(text, metadata);
+        };
+    }
+}
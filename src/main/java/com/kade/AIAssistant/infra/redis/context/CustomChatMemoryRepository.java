@@ -3,19 +3,22 @@ package com.kade.AIAssistant.infra.redis.context;
 import com.kade.AIAssistant.common.enums.MessageType;
 import com.kade.AIAssistant.feature.conversation.entity.ChatMessageEntity;
 import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
@@ -23,18 +26,39 @@ import org.springframework.util.Assert;
  * 커스텀 ChatMemoryRepository 구현.
  * <p>CHAT_MESSAGE 테이블을 사용하여 메시지를 저장/조회합니다.
  * <p>saveAll()은 전체 교체가 아닌 추가만 수행합니다 (기존 메시지 유지).
+ * 저장은 {@code INSERT ... ON CONFLICT (id) DO NOTHING} JDBC 배치 한 번으로 처리합니다.
+ * <p>조회한 메시지는 metadata에 CHAT_MESSAGE.id를 담아 반환하며, 중복 판단은 {@link ChatMessageMetadata} 기준입니다.
  */
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class CustomChatMemoryRepository implements ChatMemoryRepository {
 
+    private static final String INSERT_IGNORE_SQL = """
+            INSERT INTO CHAT_MESSAGE (id, conversation_id, content, type, "timestamp")
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING""";
+
     private final ChatMessageRepository chatMessageRepository;
+    private final JdbcTemplate jdbcTemplate;
     @Value("${app.conversation.context-limit:20}")
     private int defaultMessageLimit; // Reids 캐시 미스 시 조회할 기본 메시지 수
 
     @Override
     public List<Message> findByConversationId(String conversationId) {
+        return findRecentWithTimestamp(conversationId).stream()
+                .map(TimestampedMessage::message)
+                .toList();
+    }
+
+    /**
+     * 최신 N개 메시지를 CHAT_MESSAGE.timestamp와 함께 조회 (한 번의 쿼리).
+     * <p>RedisChatMemory 캐시 미스 시 실제 timestamp로 캐시를 채우기 위해 사용합니다.
+     *
+     * @param conversationId 대화 ID
+     * @return 최신 메시지가 앞에 오는 리스트
+     */
+    public List<TimestampedMessage> findRecentWithTimestamp(String conversationId) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
 
         // 최신 N개만 조회 (페이징)
@@ -43,10 +67,16 @@ public class CustomChatMemoryRepository implements ChatMemoryRepository {
                 .findRecentByConversationId(conversationId, pageable);
 
         return entities.stream()
-                .map(this::toMessage)
+                .map(e -> new TimestampedMessage(toMessage(e), e.getTimestamp()))
                 .toList();
     }
 
+    /**
+     * 조회된 메시지와 CHAT_MESSAGE.timestamp
+     */
+    public record TimestampedMessage(Message message, Instant timestamp) {
+    }
+
     @Override
     public void saveAll(String conversationId, List<Message> messages) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
@@ -58,40 +88,29 @@ public class CustomChatMemoryRepository implements ChatMemoryRepository {
             return;
         }
 
-        // 기존 메시지 조회 (중복 체크용)
-        List<ChatMessageEntity> existing = chatMessageRepository
-                .findRecentByConversationId(conversationId, PageRequest.of(0, 100));
-
-        // 기존 메시지의 content + type을 Set으로 변환 (중복 체크용)
-        java.util.Set<String> existingKeys = existing.stream()
-                .map(e -> createEntityKey(e.getType(), e.getContent()))
-                .collect(java.util.stream.Collectors.toSet());
-
-        // Message를 ChatMessageEntity로 변환 (중복 제외)
+        // id가 있는 메시지는 INSERT ... ON CONFLICT (id) DO NOTHING이 중복을 처리하므로 배치 내 중복만 제거.
+        // id가 없는 메시지는 아직 저장되지 않은 새 메시지이므로 여기서 id를 부여한다
+        // (같은 내용의 이전 메시지와 비교하지 않음: "네", "감사합니다" 같은 반복 발화도 각각 저장)
         List<ChatMessageEntity> entities = new ArrayList<>();
+        Set<UUID> batchIds = new HashSet<>();
         Instant now = Instant.now();
 
         for (Message message : messages) {
             // Spring AI MessageType을 우리 MessageType enum으로 변환
             MessageType type = MessageType.fromValue(message.getMessageType().getValue());
             String content = message.getText();
-            String key = createEntityKey(type, content);
+            UUID id = ChatMessageMetadata.messageId(message);
 
-            // 중복 체크: 기존에 같은 type + content가 있으면 스킵
-            if (existingKeys.contains(key)) {
-                log.debug("[CustomChatMemoryRepository] 중복 메시지 스킵 - conversationId: {}, type: {}, content 길이: {}",
-                        conversationId, type, content != null ? content.length() : 0);
+            if (id != null && !batchIds.add(id)) {
+                log.debug("[CustomChatMemoryRepository] 중복 메시지 스킵 - conversationId: {}, type: {}, id: {}",
+                        conversationId, type, id);
                 continue;
             }
 
-            ChatMessageEntity entity = new ChatMessageEntity(
-                    conversationId,
-                    type,
-                    content,
-                    now // timestamp는 현재 시간 사용
-            );
+            ChatMessageEntity entity = id != null
+                    ? new ChatMessageEntity(id, conversationId, type, content, now)
+                    : new ChatMessageEntity(conversationId, type, content, now); // id 생성, timestamp는 현재 시간 사용
             entities.add(entity);
-            existingKeys.add(key); // 같은 배치 내 중복 방지
         }
 
         if (entities.isEmpty()) {
@@ -99,19 +118,31 @@ public class CustomChatMemoryRepository implements ChatMemoryRepository {
             return;
         }
 
-        // JPA saveAll로 저장 (새 메시지만)
-        // ChatMessageRepository는 JpaRepository를 상속하므로 saveAll() 사용 가능
-        chatMessageRepository.saveAll(entities);
+        // 한 번의 JDBC 배치로 INSERT (이미 존재하는 id는 DB에서 무시)
+        long inserted = insertIgnore(entities);
 
-        log.debug("[CustomChatMemoryRepository] 메시지 저장 완료 - conversationId: {}, 저장된 메시지 수: {}",
-                conversationId, entities.size());
+        log.debug("[CustomChatMemoryRepository] 메시지 저장 완료 - conversationId: {}, 요청: {}, 저장된 메시지 수: {}",
+                conversationId, entities.size(), inserted);
     }
 
     /**
-     * Entity의 고유 키 생성 (type + content)
+     * CHAT_MESSAGE 행을 한 번의 JDBC 배치로 INSERT한다. 이미 존재하는 id는 무시한다.
+     *
+     * @param entities 저장할 메시지 (id는 호출 측에서 생성)
+     * @return 실제 INSERT된 행 수
      */
-    private String createEntityKey(MessageType type, String content) {
-        return type.name() + "::" + (content != null ? content : "");
+    public long insertIgnore(List<ChatMessageEntity> entities) {
+        if (entities.isEmpty()) {
+            return 0;
+        }
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_IGNORE_SQL, entities, entities.size(), (ps, e) -> {
+            ps.setObject(1, e.getId());
+            ps.setString(2, e.getConversationId());
+            ps.setString(3, e.getContent());
+            ps.setString(4, e.getType().name());
+            ps.setTimestamp(5, Timestamp.from(e.getTimestamp()));
+        });
+        return Arrays.stream(results).flatMapToInt(Arrays::stream).filter(n -> n > 0).count();
     }
 
     @Override
@@ -153,18 +184,9 @@ public class CustomChatMemoryRepository implements ChatMemoryRepository {
      * ChatMessageEntity를 Spring AI Message로 변환
      */
     private Message toMessage(ChatMessageEntity entity) {
-        MessageType type = entity.getType();
-        String text = entity.getContent();
-
-        // Spring AI MessageType으로 변환
-        org.springframework.ai.chat.messages.MessageType springAiType = 
-                org.springframework.ai.chat.messages.MessageType.fromValue(type.getValue());
-
-        return switch (springAiType) {
-            case SYSTEM -> new SystemMessage(text);
-            case USER -> new UserMessage(text);
-            case ASSISTANT -> new AssistantMessage(text);
-            default -> new AssistantMessage(text);
-        };
+        // Spring AI MessageType으로 변환, CHAT_MESSAGE.id는 metadata로 전달 (중복 판단용)
+        org.springframework.ai.chat.messages.MessageType springAiType =
+                org.springframework.ai.chat.messages.MessageType.fromValue(entity.getType().getValue());
+        return ChatMessageMetadata.toMessage(springAiType, entity.getContent(), entity.getId(), null);
     }
 }
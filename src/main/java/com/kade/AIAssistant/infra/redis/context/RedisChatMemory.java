@@ -2,31 +2,39 @@ package com.kade.AIAssistant.infra.redis.context;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kade.AIAssistant.feature.conversation.entity.ChatMessageEntity;
-import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
 import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.loader.SingleFlightLoader;
 import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.MessageType;
-import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
  * Cache-Aside 패턴 ChatMemory 구현.
- * <p>get: Redis 조회 → miss 시 RDB(ChatMemoryRepository) 조회 → Redis 캐싱 후 반환.
+ * <p>get: L1(프로세스 내 {@link ChatMemoryLocalCache}) 조회 → Redis 조회 → miss 시 RDB(ChatMemoryRepository) 조회
+ * → Redis/L1 캐싱 후 반환.
  * add: 기존 로드 후 append → RDB 저장 → Redis 갱신. clear: RDB 삭제 + Redis 삭제.
+ * <p>Redis 갱신/삭제 시 L1도 함께 갱신하고, 다른 노드의 L1은 pub/sub으로 무효화한다.
  * <p>
  * <b>보안:</b> conversationId는 "userId:sessionId" 또는 "userId:uuid" 형식 권장.
  * userId 검증은 상위 레이어(Controller/Service)에서 수행해야 함.
@@ -42,7 +50,8 @@ public class RedisChatMemory implements ChatMemory {
     private final RedisCacheService cache;
     private final ChatMemoryRepository repository;
     private final ObjectMapper objectMapper;
-    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMemoryLocalCache localCache;
+    private final SingleFlightLoader singleFlightLoader;
     private final @Value("${app.conversation.cache-limit:20}") int maxCachedMessages;
 
     @Override
@@ -91,7 +100,10 @@ public class RedisChatMemory implements ChatMemory {
         if (stored == text) {
             return m;
         }
-        return new UserMessage(stored);
+        // messageId는 유지하고, 본문이 바뀌었으므로 hash는 다시 계산되도록 제거
+        Map<String, Object> metadata = new HashMap<>(user.getMetadata());
+        metadata.remove(ChatMessageMetadata.CONTENT_HASH);
+        return UserMessage.builder().text(stored).metadata(metadata).build();
     }
 
     private static final String FILE_ATTACHMENT_MARKER = "다음 첨부파일(문서) 내용:";
@@ -110,18 +122,53 @@ public class RedisChatMemory implements ChatMemory {
     public List<Message> get(String conversationId) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
 
+        List<Message> local = localCache.get(conversationId);
+        if (local != null) {
+            log.debug("[RedisChatMemory] L1 캐시 히트: {}", conversationId);
+            return local;
+        }
+
         String cacheKey = cacheKey(conversationId);
         Optional<Object> cached = cache.get(cacheKey);
 
-        if (cached.isPresent() && cached.get() instanceof String json) {
+        if (cached.isPresent()) {
             log.debug("[RedisChatMemory] Redis 캐시 히트: {}", conversationId);
-            return fromJson(json);
+            localCache.recordRedisLookup(true);
+            List<Message> messages = fromCached(cached.get());
+            localCache.fill(conversationId, messages);
+            return messages;
         }
 
         log.debug("[RedisChatMemory] Redis 캐시 미스, RDB 조회: {}", conversationId);
+        localCache.recordRedisLookup(false);
+        // 같은 대화의 동시 미스(재시도 등)는 RDB 조회 한 번으로 합침
+        return singleFlightLoader.load("chat_memory", cacheKey, () -> loadFromRepository(conversationId));
+    }
+
+    /**
+     * L1에 캐시되어 있어 {@link #get}이 Redis를 읽지 않는지 (요청 시작 prefetch 대상 판단용)
+     */
+    public boolean isLocallyCached(String conversationId) {
+        return localCache.get(conversationId) != null;
+    }
+
+    /**
+     * RDB 조회 후 Redis/L1 캐시 저장
+     */
+    private List<Message> loadFromRepository(String conversationId) {
+        if (repository instanceof CustomChatMemoryRepository custom) {
+            // id/timestamp를 한 번의 쿼리로 함께 조회하여 실제 timestamp로 캐시에 저장
+            List<CustomChatMemoryRepository.TimestampedMessage> fromDb = custom.findRecentWithTimestamp(conversationId);
+            List<Message> messages = fromDb.stream()
+                    .map(CustomChatMemoryRepository.TimestampedMessage::message)
+                    .toList();
+            writeCacheWithTimestamp(conversationId, messages, fromDb.stream()
+                    .map(CustomChatMemoryRepository.TimestampedMessage::timestamp)
+                    .toList());
+            return messages;
+        }
         List<Message> fromDb = repository.findByConversationId(conversationId);
-        // DB에서 조회한 메시지는 실제 timestamp 정보를 사용하여 캐시에 저장
-        writeCacheWithTimestamp(conversationId, fromDb);
+        writeCache(conversationId, fromDb);
         return fromDb;
     }
 
@@ -130,9 +177,36 @@ public class RedisChatMemory implements ChatMemory {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
         repository.deleteByConversationId(conversationId);
         cache.delete(cacheKey(conversationId));
+        localCache.invalidate(conversationId);
         log.debug("[RedisChatMemory] clear 완료: {}", conversationId);
     }
 
+    /**
+     * 캐시(Redis, L1)만 제거한다. DB 메시지는 삭제하지 않는다 (대화 삭제 시 DB는 purge 작업이 배치 삭제).
+     */
+    public void evictCache(String conversationId) {
+        Assert.hasText(conversationId, "conversationId cannot be null or empty");
+        cache.delete(cacheKey(conversationId));
+        localCache.invalidate(conversationId);
+    }
+
+    /**
+     * {@link #evictCache}를 트랜잭션 커밋 후에 수행 (트랜잭션 밖이면 즉시). 커밋 전에 제거하면 그 사이 조회가
+     * 삭제 전 데이터로 캐시를 다시 채울 수 있다.
+     */
+    public void evictCacheAfterCommit(String conversationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictCache(conversationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictCache(conversationId);
+            }
+        });
+    }
+
     /**
      * 조회된 대화 목록으로 Redis 캐시를 갱신한다. getConversation 등에서 DB 조회 후 ChatMemory가 이를 활용할 수 있도록 호출.
      * <p>기존 캐시와 병합하여 중복을 제거하고 timestamp 기준으로 정렬합니다.
@@ -156,7 +230,14 @@ public class RedisChatMemory implements ChatMemory {
 
     /**
      * 메시지 리스트를 병합합니다. 중복 제거 후 timestamp 기준으로 정렬합니다.
-     * <p>중복 판단 기준: content + messageType
+     * <p>중복 판단 기준 ({@link ChatMessageMetadata}):
+     * <ul>
+     *   <li>messageId가 있으면 messageId로 판단 (같은 내용의 다른 메시지는 유지)</li>
+     *   <li>messageId가 있는 새 메시지는 아직 저장 전(id 없음)으로 캐시된 같은 type + content hash 메시지 1건을 대체한다
+     *   (advisor가 캐시에 넣은 응답을 DB에 저장된 행으로 교체)</li>
+     *   <li>messageId가 없는 새 메시지는 아직 저장되지 않은 새 턴이므로 내용 비교 없이 추가한다
+     *   ("네", "감사합니다" 같은 반복 발화가 이전 턴과 합쳐지지 않도록)</li>
+     * </ul>
      */
     private List<Message> mergeMessages(List<Message> existing, List<Message> newMessages) {
         if (existing.isEmpty()) {
@@ -166,56 +247,79 @@ public class RedisChatMemory implements ChatMemory {
             return new ArrayList<>(existing);
         }
 
-        // content + messageType을 키로 사용하여 중복 제거
         // timestamp 정보를 함께 저장하여 정렬 가능하도록 함
-        java.util.Map<String, MessageWithTimestamp> messageMap = new java.util.LinkedHashMap<>();
-        java.time.Instant now = java.time.Instant.now();
+        List<MessageWithTimestamp> merged = new ArrayList<>(existing.size() + newMessages.size());
+        Map<UUID, MessageWithTimestamp> byId = new HashMap<>();
+        // 아직 저장 전(id 없음)인 기존 메시지만 내용으로 매칭 대상이 된다
+        Map<ChatMessageMetadata.ContentKey, Deque<MessageWithTimestamp>> unpersistedByContent = new HashMap<>();
+        Instant now = Instant.now();
 
         // 기존 메시지 추가 (역순 인덱스로 timestamp 추정)
         for (int i = 0; i < existing.size(); i++) {
             Message msg = existing.get(i);
-            String key = createMessageKey(msg);
             // 기존 메시지는 더 오래된 것으로 간주 (역순 인덱스)
-            java.time.Instant timestamp = now.minusSeconds(existing.size() - i);
-            messageMap.putIfAbsent(key, new MessageWithTimestamp(msg, timestamp));
+            MessageWithTimestamp mwt = new MessageWithTimestamp(msg, now.minusSeconds(existing.size() - i));
+            merged.add(mwt);
+            UUID id = ChatMessageMetadata.messageId(msg);
+            if (id != null) {
+                byId.put(id, mwt);
+            } else {
+                unpersistedByContent.computeIfAbsent(ChatMessageMetadata.contentKey(msg), k -> new ArrayDeque<>())
+                        .add(mwt);
+            }
         }
 
         // 새 메시지 추가 (기존 것과 중복되지 않는 것만, 최신 timestamp)
         for (Message msg : newMessages) {
-            String key = createMessageKey(msg);
-            if (!messageMap.containsKey(key)) {
-                // 새 메시지는 가장 최신으로 간주
-                messageMap.put(key, new MessageWithTimestamp(msg, now));
+            UUID id = ChatMessageMetadata.messageId(msg);
+            if (id != null) {
+                if (byId.containsKey(id)) {
+                    continue;
+                }
+                MessageWithTimestamp match = pollCandidate(
+                        unpersistedByContent.get(ChatMessageMetadata.contentKey(msg)));
+                if (match != null) {
+                    // id 없이 캐시된 메시지를 id 있는 메시지로 교체
+                    match.message = msg;
+                    byId.put(id, match);
+                    continue;
+                }
+            }
+            // 새 메시지는 가장 최신으로 간주
+            MessageWithTimestamp mwt = new MessageWithTimestamp(msg, now);
+            merged.add(mwt);
+            if (id != null) {
+                byId.put(id, mwt);
             }
         }
 
         // timestamp 기준 내림차순 정렬 (최신 메시지가 앞에)
-        return messageMap.values().stream()
+        return merged.stream()
                 .sorted((a, b) -> b.timestamp.compareTo(a.timestamp))
                 .map(mwt -> mwt.message)
-                .collect(java.util.stream.Collectors.toList());
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 같은 type + content hash로 캐시된 저장 전 메시지를 하나 꺼낸다 (1건당 한 번만 매칭).
+     */
+    private static MessageWithTimestamp pollCandidate(Deque<MessageWithTimestamp> candidates) {
+        return candidates != null ? candidates.pollFirst() : null;
     }
 
     /**
      * Message와 timestamp를 함께 저장하는 내부 클래스
      */
     private static class MessageWithTimestamp {
-        final Message message;
-        final java.time.Instant timestamp;
+        Message message;
+        final Instant timestamp;
 
-        MessageWithTimestamp(Message message, java.time.Instant timestamp) {
+        MessageWithTimestamp(Message message, Instant timestamp) {
             this.message = message;
             this.timestamp = timestamp;
         }
     }
 
-    /**
-     * Message의 고유 키 생성 (content + messageType)
-     */
-    private String createMessageKey(Message message) {
-        return createMessageKey(message.getMessageType().getValue(), message.getText());
-    }
-
     /**
      * 메시지 리스트를 최신 N개로 제한합니다.
      * <p>메모리 효율을 위해 캐시에는 최신 메시지만 유지합니다.
@@ -232,97 +336,82 @@ public class RedisChatMemory implements ChatMemory {
         return messages.subList(0, limit);
     }
 
-    private String cacheKey(String conversationId) {
+    /**
+     * 채팅 메모리 캐시 key (요청 시작 시 prefetch 대상)
+     */
+    public static String cacheKey(String conversationId) {
         return String.format("%s:%s", RedisKeyPrefix.CHAT_MEMORY, conversationId);
     }
 
 
     private void writeCache(String conversationId, List<Message> messages) {
-        String cacheKey = cacheKey(conversationId);
-        String json = toJson(messages);
-        cache.set(cacheKey, json, CACHE_TTL);
+        writeCacheWithTimestamp(conversationId, messages, null);
     }
 
     /**
-     * DB에서 조회한 메시지를 캐시에 저장 (실제 timestamp 사용)
+     * 캐시 저장. DB에서 조회한 메시지는 실제 timestamp를 함께 저장한다.
+     *
+     * @param timestamps messages와 같은 순서의 CHAT_MESSAGE.timestamp (null이면 추정값 사용)
      */
-    private void writeCacheWithTimestamp(String conversationId, List<Message> messages) {
-        if (messages.isEmpty()) {
-            writeCache(conversationId, messages);
-            return;
-        }
-
-        // DB에서 실제 timestamp 조회
-        org.springframework.data.domain.Pageable pageable =
-                org.springframework.data.domain.PageRequest.of(0, messages.size());
-        List<ChatMessageEntity> entities =
-                chatMessageRepository.findRecentByConversationId(conversationId, pageable);
-
-        // Message와 timestamp를 매핑
-        java.util.Map<String, java.time.Instant> timestampMap = new java.util.HashMap<>();
-        for (ChatMessageEntity entity : entities) {
-            String key = createMessageKey(entity.getType().name(), entity.getContent());
-            timestampMap.put(key, entity.getTimestamp());
-        }
-
-        // timestamp 정보를 포함하여 JSON 생성
+    private void writeCacheWithTimestamp(String conversationId, List<Message> messages, List<Instant> timestamps) {
         String cacheKey = cacheKey(conversationId);
-        String json = toJsonWithTimestamp(messages, timestampMap);
-        cache.set(cacheKey, json, CACHE_TTL);
-    }
-
-    /**
-     * Message의 고유 키 생성 (type + content)
-     */
-    private String createMessageKey(String type, String content) {
-        return type.toUpperCase() + "::" + (content != null ? content : "");
-    }
-
-    private String toJson(List<Message> messages) {
-        return toJsonWithTimestamp(messages, null);
+        cache.set(cacheKey, new CachedMessages(toDtos(messages, timestamps)), CACHE_TTL);
+        localCache.put(conversationId, messages);
     }
 
     /**
-     * Message 리스트를 JSON으로 변환 (timestamp 정보 포함 가능)
+     * Message 리스트를 캐시 DTO로 변환 (timestamp 정보 포함 가능)
      *
-     * @param messages     메시지 리스트
-     * @param timestampMap Message의 고유 키를 키로 하는 timestamp 맵 (null이면 추정값 사용)
+     * @param messages   메시지 리스트
+     * @param timestamps messages와 같은 순서의 timestamp (null이면 추정값 사용)
      */
-    private String toJsonWithTimestamp(List<Message> messages,
-                                       java.util.Map<String, java.time.Instant> timestampMap) {
-        try {
-            java.time.Instant baseTime = java.time.Instant.now();
-            List<MessageDto> dtos = new java.util.ArrayList<>();
-
-            for (int i = 0; i < messages.size(); i++) {
-                Message m = messages.get(i);
-                String key = createMessageKey(m.getMessageType().getValue(), m.getText());
-
-                java.time.Instant timestamp;
-                if (timestampMap != null && timestampMap.containsKey(key)) {
-                    // DB에서 조회한 실제 timestamp 사용
-                    timestamp = timestampMap.get(key);
-                } else {
-                    // 추정 timestamp (최신 메시지가 앞에 있으므로 역순)
-                    timestamp = baseTime.minusSeconds(i);
-                }
-
-                dtos.add(new MessageDto(m.getMessageType().getValue(), m.getText(), timestamp));
+    private List<MessageDto> toDtos(List<Message> messages, List<Instant> timestamps) {
+        Instant baseTime = Instant.now();
+        List<MessageDto> dtos = new ArrayList<>(messages.size());
+
+        for (int i = 0; i < messages.size(); i++) {
+            Message m = messages.get(i);
+            UUID id = ChatMessageMetadata.messageId(m);
+
+            Instant timestamp;
+            if (timestamps != null && timestamps.get(i) != null) {
+                // DB에서 조회한 실제 timestamp 사용
+                timestamp = timestamps.get(i);
+            } else {
+                // 추정 timestamp (최신 메시지가 앞에 있으므로 역순)
+                timestamp = baseTime.minusSeconds(i);
             }
 
-            return objectMapper.writeValueAsString(dtos);
-        } catch (Exception e) {
-            log.warn("[RedisChatMemory] 직렬화 실패", e);
-            throw new RuntimeException("채팅 메모리 직렬화 실패", e);
+            // hash는 메시지당 한 번만 계산하여 캐시에 함께 저장 (이후 조회 시 재사용)
+            dtos.add(new MessageDto(m.getMessageType().getValue(), m.getText(), timestamp,
+                    id != null ? id.toString() : null, ChatMessageMetadata.contentHash(m)));
         }
+        return dtos;
     }
 
-    private List<Message> fromJson(String json) {
-        if (json == null || json.isBlank()) {
-            return List.of();
-        }
+    /**
+     * 캐시 값을 Message 리스트로 변환.
+     * <ul>
+     *   <li>{@link CachedMessages}: 바이너리 코덱으로 저장된 값 (타입 그대로 복원)</li>
+     *   <li>Map: JSON 코덱으로 저장된 {@link CachedMessages}</li>
+     *   <li>String: 이전 형식 (JSON 문자열을 다시 JSON으로 저장한 값)</li>
+     * </ul>
+     */
+    private List<Message> fromCached(Object cached) {
         try {
-            List<MessageDto> dtos = objectMapper.readValue(json, MESSAGE_LIST_TYPE);
+            List<MessageDto> dtos;
+            if (cached instanceof CachedMessages snapshot) {
+                dtos = snapshot.messages();
+            } else if (cached instanceof Map<?, ?> map) {
+                dtos = objectMapper.convertValue(map, CachedMessages.class).messages();
+            } else if (cached instanceof String json && !json.isBlank()) {
+                dtos = objectMapper.readValue(json, MESSAGE_LIST_TYPE);
+            } else {
+                return List.of();
+            }
+            if (dtos == null) {
+                return List.of();
+            }
             // timestamp 기준 내림차순 정렬 (최신 메시지가 앞에)
             return dtos.stream()
                     .sorted((a, b) -> {
@@ -340,19 +429,22 @@ public class RedisChatMemory implements ChatMemory {
                     .map(this::toMessage)
                     .toList();
         } catch (Exception e) {
-            log.warn("[RedisChatMemory] 역직렬화 실패: {}", json, e);
+            log.warn("[RedisChatMemory] 역직렬화 실패: {}", cached, e);
             return List.of();
         }
     }
 
     private Message toMessage(MessageDto dto) {
         MessageType type = MessageType.fromValue(dto.messageType());
-        return switch (type) {
-            case SYSTEM -> new SystemMessage(dto.text());
-            case USER -> new UserMessage(dto.text());
-            case ASSISTANT -> new AssistantMessage(dto.text());
-            default -> new AssistantMessage(dto.text());
-        };
+        UUID id = null;
+        if (StringUtils.hasText(dto.id())) {
+            try {
+                id = UUID.fromString(dto.id());
+            } catch (IllegalArgumentException e) {
+                log.debug("[RedisChatMemory] 잘못된 messageId 무시: {}", dto.id());
+            }
+        }
+        return ChatMessageMetadata.toMessage(type, dto.text(), id, dto.hash());
     }
 
     /**
@@ -364,7 +456,7 @@ public class RedisChatMemory implements ChatMemory {
      * @param limit           조회 개수
      * @return 병합된 메시지 리스트
      */
-    public List<Message> getWithPaging(String conversationId, java.time.Instant beforeTimestamp, int limit) {
+    public List<Message> getWithPaging(String conversationId, Instant beforeTimestamp, int limit) {
         Assert.hasText(conversationId, "conversationId cannot be null or empty");
         Assert.notNull(beforeTimestamp, "beforeTimestamp cannot be null");
 
@@ -393,10 +485,19 @@ public class RedisChatMemory implements ChatMemory {
         return merged;
     }
 
-    private record MessageDto(String messageType, String text, java.time.Instant timestamp) {
+    /**
+     * Redis 캐시 값 (JSON 문자열로 한 번 더 감싸지 않고 객체 그대로 저장)
+     */
+    private record CachedMessages(List<MessageDto> messages) {
+    }
+
+    /**
+     * 캐시 저장 형식. id(CHAT_MESSAGE.id)와 hash(content hash)는 이전 형식 캐시에는 없을 수 있다.
+     */
+    private record MessageDto(String messageType, String text, Instant timestamp, String id, Long hash) {
         // 하위 호환성을 위해 timestamp가 없는 경우를 위한 생성자
         MessageDto(String messageType, String text) {
-            this(messageType, text, null);
+            this(messageType, text, null, null, null);
         }
     }
 }
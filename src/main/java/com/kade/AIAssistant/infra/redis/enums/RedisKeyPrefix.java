@@ -5,7 +5,9 @@ public enum RedisKeyPrefix {
     USER_PREFERENCE_PROMPT("user_preference_prompt"),
     CHAT_MEMORY("chat_memory"),
     IDEMPOTENCY("idempotency"),
-    USER_STATISTIC("user_statistic");
+    USER_STATISTIC("user_statistic"),
+    LEASE("lease"),
+    USER_CONVERSATIONS("user_conversations");
 
     private final String value;
 
@@ -0,0 +1,228 @@
+package com.kade.AIAssistant.infra.redis.loader;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * 캐시 스탬피드 방지용 single-flight 로더.
+ * <ul>
+ *   <li>프로세스 내: 같은 key의 동시 로드는 하나의 CompletableFuture로 합쳐 loader를 한 번만 실행</li>
+ *   <li>노드 간 (선택): Redis lease lock({@code lease:{key}})을 잡은 노드만 loader 실행,
+ *       나머지는 캐시 재조회(recheck)로 대기하다가 lease 대기 시간이 지나면 직접 로드 (fail-open)</li>
+ *   <li>조기 확률적 갱신: 로드 시점과 소요 시간을 기억해 TTL 만료 전에 확률적으로 백그라운드 갱신
+ *       ({@link #shouldRefreshEarly})</li>
+ * </ul>
+ * <p>메트릭: {@code cache.singleflight.loads{name, result=leader|collapsed|lease_wait_hit|lease_timeout}},
+ * {@code cache.singleflight.early_refresh{name}}
+ */
+@Slf4j
+@Component
+public class SingleFlightLoader {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+    private static final double EARLY_REFRESH_BETA = 1.0;
+    private static final DefaultRedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    /**
+     * key별 마지막 로드 정보 (조기 갱신 판단용, 크기 제한)
+     */
+    private final Cache<String, LoadStat> loadStats = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public SingleFlightLoader(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 노드 간 lease 설정
+     *
+     * @param ttl         lease 유지 시간 (loader 최대 실행 시간보다 길게)
+     * @param waitTimeout 다른 노드의 로드를 기다리는 최대 시간
+     */
+    public record Lease(Duration ttl, Duration waitTimeout) {
+    }
+
+    private record LoadStat(long loadedAtMillis, long computeMillis) {
+    }
+
+    /**
+     * 프로세스 내 single-flight 로드.
+     *
+     * @param name   메트릭 태그 (예: system_prompt)
+     * @param key    로드 단위 key (보통 캐시 key)
+     * @param loader 실제 로드 (캐시 저장 포함)
+     */
+    public <T> T load(String name, String key, Supplier<T> loader) {
+        return load(name, key, null, null, loader);
+    }
+
+    /**
+     * 프로세스 내 single-flight + Redis lease lock 로드.
+     *
+     * @param lease   lease 설정 (null이면 프로세스 내에서만 합침)
+     * @param recheck lease를 얻지 못했을 때 다른 노드가 채운 캐시를 확인하는 조회
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String name, String key, Lease lease, Supplier<Optional<T>> recheck, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            count(name, "collapsed");
+            log.debug("[SingleFlightLoader] 진행 중인 로드에 합류 - key: {}", key);
+            return (T) join(existing);
+        }
+
+        try {
+            T value = lease != null && recheck != null
+                    ? loadWithLease(name, key, lease, recheck, loader)
+                    : runLoader(name, key, loader);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 캐시 히트 시 조기 갱신 여부 판단 (XFetch: {@code -compute * beta * ln(rand) >= 남은 TTL}).
+     * <p>이 노드에서 로드한 적이 없는 key는 false (다른 노드가 로드했다면 그 노드가 갱신).
+     */
+    public boolean shouldRefreshEarly(String key, Duration ttl) {
+        LoadStat stat = loadStats.getIfPresent(key);
+        if (stat == null) {
+            return false;
+        }
+        long remainingMillis = stat.loadedAtMillis() + ttl.toMillis() - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return true;
+        }
+        double gap = -stat.computeMillis() * EARLY_REFRESH_BETA * Math.log(ThreadLocalRandom.current().nextDouble());
+        return gap >= remainingMillis;
+    }
+
+    /**
+     * 백그라운드 갱신. 같은 key가 이미 로드 중이면 아무것도 하지 않는다.
+     */
+    public <T> void refreshAsync(String name, String key, Supplier<T> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        meterRegistry.counter("cache.singleflight.early_refresh", "name", name).increment();
+        Thread.ofVirtual().name("early-refresh-" + name).start(() -> {
+            try {
+                load(name, key, loader);
+            } catch (Exception e) {
+                log.warn("[SingleFlightLoader] 조기 갱신 실패 - key: {}, cause: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private <T> T loadWithLease(String name, String key, Lease lease, Supplier<Optional<T>> recheck,
+                                Supplier<T> loader) {
+        String leaseKey = String.format("%s:%s", RedisKeyPrefix.LEASE, key);
+        String token = UUID.randomUUID().toString();
+        if (tryAcquire(leaseKey, token, lease.ttl())) {
+            try {
+                return runLoader(name, key, loader);
+            } finally {
+                release(leaseKey, token);
+            }
+        }
+
+        // 다른 노드가 로드 중: 캐시가 채워질 때까지 대기.
+        // 요청 scope에는 시작 시점의 미스가 기록돼 있으므로 scope를 거치지 않고 Redis를 다시 읽는다
+        long deadline = System.nanoTime() + lease.waitTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<T> filled = RedisRequestScope.bypass(recheck);
+            if (filled.isPresent()) {
+                count(name, "lease_wait_hit");
+                return filled.get();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        count(name, "lease_timeout");
+        log.warn("[SingleFlightLoader] lease 대기 시간 초과, 직접 로드 - key: {}", key);
+        return runLoader(name, key, loader);
+    }
+
+    private <T> T runLoader(String name, String key, Supplier<T> loader) {
+        count(name, "leader");
+        long start = System.currentTimeMillis();
+        T value = loader.get();
+        long end = System.currentTimeMillis();
+        loadStats.put(key, new LoadStat(end, end - start));
+        return value;
+    }
+
+    private boolean tryAcquire(String leaseKey, String token, Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, token, ttl));
+        } catch (Exception e) {
+            // Redis 장애 시 lease 없이 로드 (프로세스 내 single-flight는 유지)
+            log.warn("[SingleFlightLoader] lease 획득 실패, lease 없이 로드 - key: {}, cause: {}",
+                    leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void release(String leaseKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), token);
+        } catch (Exception e) {
+            log.warn("[SingleFlightLoader] lease 해제 실패 (TTL 만료로 해제됨) - key: {}, cause: {}",
+                    leaseKey, e.getMessage());
+        }
+    }
+
+    private void count(String name, String result) {
+        Counter.builder("cache.singleflight.loads")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.kade.AIAssistant.infra.redis.pipeline;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 단위 Redis 파이프라인 실행기.
+ * <p>요청 시작 시 서로 독립적인 읽기(시스템 프롬프트, 사용자 선호, 채팅 메모리)를 파이프라인 한 번으로 가져온다.
+ * <p>메트릭: {@code redis.request.round_trips{name}} (RedisCacheService를 거친 요청당 Redis 왕복 횟수)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisRequestBatcher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * scope를 열고 prefetchKeys를 한 번에 읽은 뒤 body를 실행한다. 종료 시 왕복 횟수를 기록한다.
+     * <p>이미 scope가 열려 있으면 기존 scope에 prefetch만 추가하고 body를 실행한다.
+     *
+     * @param name         메트릭 태그 (예: stream_start, stream_completion)
+     * @param prefetchKeys 미리 읽을 key (null 요소는 무시)
+     */
+    public <T> T call(String name, List<String> prefetchKeys, Supplier<T> body) {
+        RedisRequestScope existing = RedisRequestScope.current();
+        if (existing != null) {
+            prefetch(existing, prefetchKeys);
+            return body.get();
+        }
+
+        RedisRequestScope scope = new RedisRequestScope(name);
+        scope.bind();
+        try {
+            prefetch(scope, prefetchKeys);
+            return body.get();
+        } finally {
+            RedisRequestScope.unbind();
+            DistributionSummary.builder("redis.request.round_trips")
+                    .tag("name", scope.name())
+                    .register(meterRegistry)
+                    .record(scope.roundTrips());
+        }
+    }
+
+    private void prefetch(RedisRequestScope scope, List<String> keys) {
+        List<String> toRead = keys == null ? List.of() : keys.stream()
+                .filter(k -> k != null && !scope.contains(k))
+                .distinct()
+                .toList();
+        if (toRead.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> values = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (String key : toRead) {
+                        operations.opsForValue().get(key);
+                    }
+                    return null;
+                }
+            });
+            scope.countRoundTrip();
+            for (int i = 0; i < toRead.size(); i++) {
+                scope.prefetched(toRead.get(i), values.get(i));
+            }
+        } catch (Exception e) {
+            // prefetch 실패 시 각 조회가 개별적으로 Redis에 접근
+            log.warn("[RedisRequestBatcher] prefetch 실패, 개별 조회로 진행 - keys: {}, cause: {}", toRead, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.kade.AIAssistant.infra.redis.pipeline;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 요청 단위 Redis 접근 묶음 (현재 스레드에 바인딩).
+ * <ul>
+ *   <li>prefetch: 요청 시작 시 파이프라인 한 번으로 읽어 둔 값. {@code RedisCacheService.get}이 Redis 대신 사용</li>
+ *   <li>round trip 수: scope 안에서 발생한 Redis 왕복 횟수 (메트릭)</li>
+ * </ul>
+ * <p>{@link RedisRequestBatcher}가 열고 닫는다.
+ */
+public final class RedisRequestScope {
+
+    private static final ThreadLocal<RedisRequestScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    /**
+     * key → 값 (null이면 Redis에 없음을 확인한 상태)
+     */
+    private final Map<String, Object> values = new HashMap<>();
+    private int roundTrips;
+
+    RedisRequestScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 현재 스레드의 scope (없으면 null)
+     */
+    public static RedisRequestScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 현재 scope에 Redis 왕복 1회 기록 (scope 밖이면 무시)
+     */
+    public static void recordRoundTrip() {
+        RedisRequestScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.roundTrips++;
+        }
+    }
+
+    /**
+     * 현재 scope를 잠시 해제한 채 body를 실행한다. prefetch 이후 다른 노드/스레드가 채운 값을 다시 확인해야 하는
+     * 조회(lease 대기 중 캐시 재조회 등)가 scope에 기록된 미스를 보지 않고 Redis를 직접 읽도록 할 때 사용
+     */
+    public static <T> T bypass(Supplier<T> body) {
+        RedisRequestScope scope = CURRENT.get();
+        if (scope == null) {
+            return body.get();
+        }
+        CURRENT.remove();
+        try {
+            return body.get();
+        } finally {
+            CURRENT.set(scope);
+        }
+    }
+
+    /**
+     * prefetch로 값을 알고 있는 key인지
+     */
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * 알고 있는 값 (없음으로 확인된 경우 null)
+     */
+    public Object value(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * 즉시 기록된 값을 반영 (이후 scope 안의 조회가 이전 prefetch 값을 보지 않도록)
+     */
+    public void written(String key, Object value) {
+        if (values.containsKey(key)) {
+            values.put(key, value);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    void prefetched(String key, Object value) {
+        values.put(key, value);
+    }
+
+    int roundTrips() {
+        return roundTrips;
+    }
+
+    void countRoundTrip() {
+        roundTrips++;
+    }
+
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+}
@@ -4,11 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Optional;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestScope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Redis Key-Value 접근.
+ * <p>{@link RedisRequestScope}가 열려 있으면 prefetch된 값을 Redis 대신 사용하고, 왕복 횟수를 scope에 기록한다.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -25,6 +30,7 @@ public class RedisCacheService {
      */
     public void set(String key, Object value) {
         redisTemplate.opsForValue().set(key, value);
+        written(key, value);
         log.debug("Redis Set - Key: {}, Value: {}", key, value);
     }
 
@@ -37,6 +43,7 @@ public class RedisCacheService {
      */
     public void set(String key, Object value, Duration duration) {
         redisTemplate.opsForValue().set(key, value, duration);
+        written(key, value);
         log.debug("Redis Set with Duration - Key: {}, Value: {}, Duration: {}", key, value, duration);
     }
 
@@ -47,7 +54,7 @@ public class RedisCacheService {
      * @return 저장된 값 (없으면 Optional.empty)
      */
     public Optional<Object> get(String key) {
-        Object value = redisTemplate.opsForValue().get(key);
+        Object value = read(key);
         log.debug("Redis Get - Key: {}, Value: {}", key, value);
         return Optional.ofNullable(value);
     }
@@ -63,7 +70,7 @@ public class RedisCacheService {
      * @return 저장된 값 (없으면 Optional.empty)
      */
     public <T> Optional<T> get(String key, Class<T> type) {
-        Object value = redisTemplate.opsForValue().get(key);
+        Object value = read(key);
         if (value == null) {
             return Optional.empty();
         }
@@ -91,6 +98,7 @@ public class RedisCacheService {
      */
     public boolean delete(String key) {
         Boolean result = redisTemplate.delete(key);
+        written(key, null);
         log.debug("Redis Delete - Key: {}, Result: {}", key, result);
         return Boolean.TRUE.equals(result);
     }
@@ -102,7 +110,33 @@ public class RedisCacheService {
      * @return 존재 여부
      */
     public boolean hasKey(String key) {
+        RedisRequestScope scope = RedisRequestScope.current();
+        if (scope != null && scope.contains(key)) {
+            return scope.value(key) != null;
+        }
         Boolean result = redisTemplate.hasKey(key);
+        RedisRequestScope.recordRoundTrip();
         return Boolean.TRUE.equals(result);
     }
+
+    /**
+     * 요청 scope에서 이미 알고 있는 값이면 사용하고, 아니면 Redis GET
+     */
+    private Object read(String key) {
+        RedisRequestScope scope = RedisRequestScope.current();
+        if (scope != null && scope.contains(key)) {
+            return scope.value(key);
+        }
+        Object value = redisTemplate.opsForValue().get(key);
+        RedisRequestScope.recordRoundTrip();
+        return value;
+    }
+
+    private static void written(String key, Object value) {
+        RedisRequestScope.recordRoundTrip();
+        RedisRequestScope scope = RedisRequestScope.current();
+        if (scope != null) {
+            scope.written(key, value);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+-- CHAT_MESSAGE.content_hash 제거 스크립트 (수동 실행, schema.sql처럼 시작 시 자동 실행되지 않음)
+-- content_hash는 더 이상 읽지도 쓰지도 않는다 (중복 판단은 CHAT_MESSAGE.id, INSERT ... ON CONFLICT (id) DO NOTHING)
+-- content_hash 컬럼이 있는 기존 DB에만 필요하다 (새 DB는 CREATE TABLE에 컬럼이 없으므로 실행하지 않는다)
+-- 두 문장 모두 메타데이터만 변경하므로 스캔/재작성 없이 ACCESS EXCLUSIVE 잠금을 잠깐만 잡는다.
+-- 긴 쿼리 뒤에서 잠금을 기다리며 채팅 쓰기를 막지 않도록 lock_timeout을 두고, 실패하면 다시 실행
+--
+-- 1. 배포 전: NOT NULL 해제 (백필 스크립트로 NOT NULL을 적용한 DB에서 새 버전의 INSERT가 실패하지 않도록).
+--    구버전은 계속 값을 채워 INSERT하므로 영향 없음
+-- 2. 배포 후 (구버전 인스턴스가 모두 내려간 뒤): 컬럼 삭제
+
+SET lock_timeout = '5s';
+
+-- 1. 배포 전
+ALTER TABLE CHAT_MESSAGE ALTER COLUMN content_hash DROP NOT NULL;
+
+-- 2. 배포 후
+ALTER TABLE CHAT_MESSAGE DROP COLUMN IF EXISTS content_hash;
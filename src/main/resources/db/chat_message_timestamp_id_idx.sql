@@ -0,0 +1,24 @@
+-- CHAT_MESSAGE (conversation_id, "timestamp" DESC, id DESC) 인덱스 적용 스크립트 (수동 1회 실행, schema.sql처럼 시작 시 자동 실행되지 않음)
+-- (timestamp, id) keyset 페이지네이션/최신 N개 조회용. IF NOT EXISTS이므로 다시 실행해도 된다
+-- psql로 autocommit 상태에서 실행 (CREATE/DROP INDEX CONCURRENTLY는 트랜잭션 블록 안에서 실행할 수 없음)
+--
+-- 1. 새 인덱스를 CONCURRENTLY로 생성 (쓰기를 막지 않음)
+-- 2. 새 인덱스가 유효할 때만(psql \if) 기존 (conversation_id, "timestamp" DESC) 인덱스를 제거한다 (새 인덱스의 prefix이므로 대체됨).
+--    생성이 실패해 INVALID 인덱스가 남으면 기존 인덱스를 그대로 두고,
+--    DROP INDEX CONCURRENTLY chat_message_conversation_id_timestamp_id_idx 후 다시 실행
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CHAT_MESSAGE_CONVERSATION_ID_TIMESTAMP_ID_IDX
+    ON CHAT_MESSAGE(conversation_id, "timestamp" DESC, id DESC);
+
+-- 새 인덱스가 유효할 때만 기존 인덱스 제거 (psql \gset/\if)
+SELECT EXISTS (
+    SELECT 1 FROM pg_index i
+    JOIN pg_class c ON c.oid = i.indexrelid
+    WHERE c.relname = 'chat_message_conversation_id_timestamp_id_idx' AND i.indisvalid
+) AS new_index_valid \gset
+
+\if :new_index_valid
+DROP INDEX CONCURRENTLY IF EXISTS CHAT_MESSAGE_CONVERSATION_ID_TIMESTAMP_IDX;
+\else
+\echo 'chat_message_conversation_id_timestamp_id_idx가 유효하지 않아 기존 인덱스를 유지합니다'
+\endif
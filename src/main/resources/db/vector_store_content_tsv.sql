@@ -0,0 +1,15 @@
+-- vector_store.content_tsv(RAG 하이브리드 검색의 전문 검색) 적용 스크립트 (수동 1회 실행, schema.sql처럼 시작 시 자동 실행되지 않음)
+-- 하이브리드 검색을 쓰는 버전을 배포하기 전에 실행한다. IF NOT EXISTS이므로 다시 실행해도 된다
+-- 파티션 모드(db/vector_store_partitioned.sql 적용)에서는 컬럼과 인덱스가 이미 있으므로 실행하지 않는다
+-- psql로 autocommit 상태에서 실행 (CREATE INDEX CONCURRENTLY는 트랜잭션 블록 안에서 실행할 수 없음)
+--
+-- 1. 컬럼 추가: 기존 테이블에 STORED 생성 컬럼을 추가하면 테이블 재작성(ACCESS EXCLUSIVE 잠금)이 일어나므로 점검 시간에 실행.
+--    INSERT는 컬럼을 명시하므로 생성 컬럼을 추가해도 영향 없음
+-- 2. GIN 인덱스: CONCURRENTLY로 쓰기를 막지 않고 생성. 실패해 INVALID 인덱스가 남으면
+--    DROP INDEX CONCURRENTLY vector_store_content_tsv_idx 후 다시 실행
+-- 식은 schema.sql의 vector_store.content_tsv와 같다
+
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS content_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, coalesce(content, ''))) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_content_tsv_idx ON vector_store USING GIN (content_tsv);
@@ -0,0 +1,19 @@
+-- vector_store 검색/삭제 필터 컬럼(conversation_id, user_id) 적용 스크립트 (수동 1회 실행, schema.sql처럼 시작 시 자동 실행되지 않음)
+-- 컬럼으로 필터하는 버전을 배포하기 전에 실행한다. IF NOT EXISTS이므로 다시 실행해도 된다
+-- 파티션 모드(db/vector_store_partitioned.sql 적용)에서는 컬럼과 인덱스가 이미 있으므로 실행하지 않는다
+-- psql로 autocommit 상태에서 실행 (CREATE/DROP INDEX CONCURRENTLY는 트랜잭션 블록 안에서 실행할 수 없음)
+--
+-- 1. 컬럼 추가: 기존 테이블에 STORED 생성 컬럼을 추가하면 테이블 재작성(ACCESS EXCLUSIVE 잠금)이 일어나므로 점검 시간에 실행.
+--    생성 컬럼이므로 기존 행도 함께 채워지고 INSERT 코드는 바꿀 필요 없다
+-- 2. (conversation_id, user_id) 인덱스를 CONCURRENTLY로 생성한 뒤, 이 인덱스로 대체되는 기존 식 인덱스를 제거한다
+--    (새 인덱스가 만들어지기 전에는 기존 인덱스로 조회하도록 순서 유지)
+--    생성이 실패해 INVALID 인덱스가 남으면 DROP INDEX CONCURRENTLY vector_store_conversation_user_idx 후 다시 실행
+
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS conversation_id TEXT
+    GENERATED ALWAYS AS (metadata->>'conversation_id') STORED;
+ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS user_id TEXT
+    GENERATED ALWAYS AS (metadata->>'user_id') STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_conversation_user_idx ON vector_store (conversation_id, user_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS vector_store_conversation_id_idx;
@@ -0,0 +1,66 @@
+-- vector_store 파티션 전환 스크립트 (수동 1회 실행, schema.sql처럼 시작 시 자동 실행되지 않음)
+-- 적용 후 app.project.vector-store.partitioned=true로 재시작
+--
+-- 구조: LIST(conversation_id)
+--   ├─ vector_store_p_<프로젝트 id>   : 청크가 많은 프로젝트 전용 파티션 (VectorStorePartitionService가 자동 승격)
+--   └─ vector_store_shared (DEFAULT)  : 나머지 프로젝트, HASH(conversation_id) 16개 하위 파티션
+-- 인덱스는 부모에 만들면 파티션마다 생성되므로 HNSW 그래프도 파티션별로 유지된다.
+-- 검색/삭제 SQL은 모두 conversation_id = ?로 필터하므로 실행 시 해당 파티션 하나만 읽는다 (partition pruning).
+--
+-- 파티션 키는 생성 컬럼일 수 없으므로 conversation_id, user_id는 일반 컬럼 (VectorStoreWriteRepository가 직접 기록)
+-- 파티션 테이블의 PK/UNIQUE는 파티션 키를 포함해야 하므로 PK는 (id, conversation_id)
+-- 복사 중에는 vector_store 쓰기를 멈춰야 한다 (점검 시간에 실행)
+
+BEGIN;
+
+ALTER TABLE vector_store RENAME TO vector_store_legacy;
+ALTER INDEX vector_store_pkey RENAME TO vector_store_legacy_pkey;
+ALTER INDEX IF EXISTS vector_store_embedding_idx RENAME TO vector_store_legacy_embedding_idx;
+ALTER INDEX IF EXISTS vector_store_conversation_user_idx RENAME TO vector_store_legacy_conversation_user_idx;
+ALTER INDEX IF EXISTS vector_store_content_tsv_idx RENAME TO vector_store_legacy_content_tsv_idx;
+
+CREATE TABLE vector_store (
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    content TEXT,
+    metadata json,
+    embedding vector(1024),
+    conversation_id TEXT NOT NULL,
+    user_id TEXT,
+    content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, coalesce(content, ''))) STORED,
+    PRIMARY KEY (id, conversation_id)
+) PARTITION BY LIST (conversation_id);
+
+CREATE TABLE vector_store_shared PARTITION OF vector_store DEFAULT PARTITION BY HASH (conversation_id);
+CREATE TABLE vector_store_shared_0 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE vector_store_shared_1 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE vector_store_shared_2 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE vector_store_shared_3 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE vector_store_shared_4 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE vector_store_shared_5 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE vector_store_shared_6 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE vector_store_shared_7 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE vector_store_shared_8 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE vector_store_shared_9 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE vector_store_shared_10 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE vector_store_shared_11 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE vector_store_shared_12 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE vector_store_shared_13 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE vector_store_shared_14 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE vector_store_shared_15 PARTITION OF vector_store_shared FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+INSERT INTO vector_store (id, content, metadata, embedding, conversation_id, user_id)
+SELECT id, content, metadata, embedding, metadata->>'conversation_id', metadata->>'user_id'
+FROM vector_store_legacy
+WHERE metadata->>'conversation_id' IS NOT NULL;
+
+-- 데이터 적재 후 인덱스 생성 (행마다 갱신하는 것보다 빠름)
+CREATE INDEX vector_store_embedding_idx ON vector_store USING HNSW (embedding vector_cosine_ops);
+CREATE INDEX vector_store_conversation_user_idx ON vector_store (conversation_id, user_id);
+CREATE INDEX vector_store_content_tsv_idx ON vector_store USING GIN (content_tsv);
+
+COMMIT;
+
+ANALYZE vector_store;
+
+-- 결과 확인 후 기존 테이블 삭제
+-- DROP TABLE vector_store_legacy;
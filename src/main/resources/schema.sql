@@ -9,24 +9,49 @@ CREATE TABLE IF NOT EXISTS vector_store (
     id UUID DEFAULT uuid_generate_v4() PRIMARY KEY,
     content TEXT,
     metadata json,
-    embedding vector(1024)
+    embedding vector(1024),
+    conversation_id TEXT GENERATED ALWAYS AS (metadata->>'conversation_id') STORED,
+    user_id TEXT GENERATED ALWAYS AS (metadata->>'user_id') STORED,
+    content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, coalesce(content, ''))) STORED
 );
 
 CREATE INDEX IF NOT EXISTS vector_store_embedding_idx
 ON vector_store USING HNSW (embedding vector_cosine_ops);
 
+-- 검색/삭제 필터용 컬럼: metadata(json)의 conversation_id, user_id를 생성 컬럼으로 꺼내 B-tree 인덱스로 조회
+-- json 필터(metadata::jsonb @@ jsonpath)는 행마다 캐스팅해야 해 인덱스를 쓸 수 없고, HNSW 스캔 후 필터링하면 recall이 떨어진다
+-- 새 테이블은 CREATE TABLE에서 컬럼을 만든다. 기존 테이블의 컬럼 추가(테이블 재작성)와 (conversation_id, user_id)
+-- 인덱스(CONCURRENTLY)는 db/vector_store_filter_columns.sql을 수동 1회 실행 (새 DB도 인덱스를 위해 실행)
+
+-- RAG 하이브리드 검색의 lexical 쪽: 청크 본문 전문 검색 (식별자/코드/고유명사처럼 임베딩으로 잘 안 잡히는 검색어)
+-- CHAT_MESSAGE.content_tsv와 같은 'simple' 설정 + 접두어 매칭. 청크는 수백 토큰이므로 길이 제한 없음
+-- 새 테이블은 CREATE TABLE에서 컬럼을 만든다. 기존 테이블의 컬럼 추가(테이블 재작성)와 GIN 인덱스(CONCURRENTLY)는
+-- db/vector_store_content_tsv.sql을 수동 1회 실행 (새 DB도 인덱스를 위해 실행)
+
 -- 채팅 메시지 테이블 (안정적인 id로 모든 대화 히스토리 저장)
 -- id는 안정적으로 유지되므로 CHAT_ATTACHMENT와 FK 제약 가능
+-- id는 애플리케이션에서 UUIDv7(시간 순)로 생성 (UuidV7). DEFAULT는 수동 INSERT용으로만 남겨둠
+-- 기존 행의 랜덤 UUID(v4)는 그대로 유효하므로 데이터 변경 없이 적용됨 (UUID 타입/FK 변경 없음)
 CREATE TABLE IF NOT EXISTS CHAT_MESSAGE (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     conversation_id VARCHAR(36) NOT NULL,
     content TEXT NOT NULL,
     type VARCHAR(20) NOT NULL,
-    "timestamp" TIMESTAMP NOT NULL
+    "timestamp" TIMESTAMP NOT NULL,
+    content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, left(content, 100000))) STORED
 );
 
-CREATE INDEX IF NOT EXISTS CHAT_MESSAGE_CONVERSATION_ID_TIMESTAMP_IDX
-ON CHAT_MESSAGE(conversation_id, "timestamp" DESC);
+-- (timestamp, id) keyset 페이지네이션/최신 N개 조회용 복합 인덱스 (conversation_id, "timestamp" DESC, id DESC)는
+-- 시작할 때마다 쓰기를 막으며 만들지 않도록 db/chat_message_timestamp_id_idx.sql을 수동 1회 실행 (CONCURRENTLY, 새 DB도 실행)
+
+-- content_hash 컬럼은 제거됨 (중복 판단은 id 기준). 컬럼이 남아 있는 기존 DB는 db/chat_message_drop_content_hash.sql을 수동 실행
+
+-- 대화 기록 전문 검색용 tsvector (생성 컬럼, INSERT 시 자동 계산)
+-- 'simple' 설정: 한국어 사전이 없으므로 공백/구두점 단위 토큰 + 소문자화만 하고, 검색어는 접두어(:*)로 매칭해
+-- 조사가 붙은 한국어 어절("검색은")과 영어 활용형("searching")도 찾는다
+-- 본문 앞 100,000자만 색인 (tsvector 최대 크기 1MB)
+-- 새 테이블은 CREATE TABLE에서 컬럼을 만든다. 기존 테이블의 컬럼 추가(테이블 재작성)와 GIN 인덱스(CONCURRENTLY)는
+-- 시작할 때마다 잠금이 걸리지 않도록 db/chat_message_content_tsv.sql을 수동 1회 실행 (새 DB도 인덱스를 위해 실행)
 
 -- Spring AI JDBC Chat Memory (PostgreSQL) - 더 이상 사용하지 않음 (제거됨)
 -- 이전에는 JdbcChatMemoryRepository가 SPRING_AI_CHAT_MEMORY 테이블을 사용했으나,
@@ -44,7 +69,11 @@ CREATE TABLE IF NOT EXISTS USER_CONVERSATION (
     PRIMARY KEY (user_id, conversation_id)
 );
 
-CREATE INDEX IF NOT EXISTS USER_CONVERSATION_USER_ID_IDX ON USER_CONVERSATION(user_id);
+-- 목록 keyset 페이지네이션 (user_id, updated_at DESC, conversation_id DESC) 순서 그대로 인덱스 스캔
+-- (user_id 단독 인덱스는 PK와 이 인덱스의 선두 컬럼으로 대체)
+DROP INDEX IF EXISTS USER_CONVERSATION_USER_ID_IDX;
+CREATE INDEX IF NOT EXISTS USER_CONVERSATION_USER_UPDATED_AT_IDX
+    ON USER_CONVERSATION(user_id, updated_at DESC, conversation_id DESC);
 
 -- 유저별 프로젝트 소유 매핑 (project_id = conversation_id 통일, 프로젝트 생성 시 USER_CONVERSATION에도 등록)
 CREATE TABLE IF NOT EXISTS USER_PROJECT (
@@ -56,7 +85,11 @@ CREATE TABLE IF NOT EXISTS USER_PROJECT (
     PRIMARY KEY (user_id, conversation_id)
 );
 
-CREATE INDEX IF NOT EXISTS USER_PROJECT_USER_ID_IDX ON USER_PROJECT(user_id);
+-- 목록 keyset 페이지네이션 (user_id, updated_at DESC, conversation_id DESC) 순서 그대로 인덱스 스캔
+-- (user_id 단독 인덱스는 PK와 이 인덱스의 선두 컬럼으로 대체)
+DROP INDEX IF EXISTS USER_PROJECT_USER_ID_IDX;
+CREATE INDEX IF NOT EXISTS USER_PROJECT_USER_UPDATED_AT_IDX
+    ON USER_PROJECT(user_id, updated_at DESC, conversation_id DESC);
 
 -- 프로젝트별 업로드 문서 목록 (벡터 저장 시 파일명 등록, 목록 조회용, chat_attachment와 동일하게 size/mime_type 보관)
 CREATE TABLE IF NOT EXISTS PROJECT_DOCUMENT (
@@ -71,6 +104,31 @@ CREATE TABLE IF NOT EXISTS PROJECT_DOCUMENT (
 
 CREATE INDEX IF NOT EXISTS PROJECT_DOCUMENT_PROJECT_USER_IDX ON PROJECT_DOCUMENT(conversation_id, user_id);
 
+-- 문서 수집(ingestion) 작업 상태: QUEUED → EXTRACTING → EMBEDDING → COMPLETED / FAILED
+-- 기존 행은 동기 저장으로 이미 완료된 문서이므로 COMPLETED
+-- staged_path: 처리 대기 중인 업로드 파일 (재시작 시 이어서 처리, 완료/실패 후 삭제)
+-- updated_at: 진행 하트비트 (오래 갱신되지 않은 미완료 작업은 다시 선점해 이어서 처리)
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS chunks_total INT;
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS chunks_done INT NOT NULL DEFAULT 0;
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS error_message TEXT;
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS staged_path VARCHAR(1024);
+ALTER TABLE PROJECT_DOCUMENT ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS PROJECT_DOCUMENT_ACTIVE_IDX ON PROJECT_DOCUMENT(updated_at)
+    WHERE status IN ('QUEUED', 'EXTRACTING', 'EMBEDDING');
+
+-- 임베딩 캐시 (content-addressed): (임베딩 모델, 정규화된 청크 텍스트 SHA-256) → 임베딩
+-- 같은 파일이나 내용이 바뀌지 않은 청크를 다시 업로드하면 임베딩 모델을 호출하지 않고 재사용
+-- 모델마다 차원이 다를 수 있으므로 embedding은 차원 미지정 vector
+CREATE TABLE IF NOT EXISTS EMBEDDING_CACHE (
+    model VARCHAR(200) NOT NULL,
+    content_hash BYTEA NOT NULL,
+    embedding vector NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (model, content_hash)
+);
+
 -- 채팅 메시지 첨부파일 메타데이터 (message_id로 CHAT_MESSAGE 참조)
 -- FK 제약 추가: CHAT_MESSAGE의 id는 안정적이므로 FK 제약 가능
 -- CASCADE 삭제는 JPA에서 처리 (orphanRemoval = true)
@@ -87,6 +145,26 @@ CREATE TABLE IF NOT EXISTS CHAT_ATTACHMENT (
 CREATE INDEX IF NOT EXISTS CHAT_ATTACHMENT_MESSAGE_ID_IDX ON CHAT_ATTACHMENT(message_id);
 CREATE INDEX IF NOT EXISTS CHAT_ATTACHMENT_CONVERSATION_ID_IDX ON CHAT_ATTACHMENT(conversation_id);
 
+-- 대화/프로젝트 삭제 purge 작업
+-- 삭제 요청 시 소유 매핑(USER_CONVERSATION/USER_PROJECT)만 즉시 제거(soft-delete)하고 이 테이블에 등록,
+-- 백그라운드 작업(ConversationPurgeJob)이 메시지/첨부/문서/벡터를 배치 단위로 삭제한다.
+-- status: PENDING → RUNNING → DONE (실패 시 next_attempt_at 이후 재시도, max-attempts 초과 시 FAILED)
+CREATE TABLE IF NOT EXISTS CONVERSATION_PURGE (
+    conversation_id VARCHAR(36) PRIMARY KEY,
+    user_id VARCHAR(64) NOT NULL,
+    is_project BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    deleted_rows BIGINT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    requested_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS CONVERSATION_PURGE_STATUS_NEXT_ATTEMPT_IDX
+ON CONVERSATION_PURGE(status, next_attempt_at);
+
 -- 사용자 테이블
 CREATE TABLE IF NOT EXISTS "user" (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -0,0 +1,158 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.feature.conversation.entity.UserConversationEntity;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageExportRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageExportRepository.ExportedMessage;
+import com.kade.AIAssistant.feature.conversation.repository.UserConversationRepository;
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 대화 내보내기: 대화 크기와 무관하게 페이지 크기만큼씩 짧은 트랜잭션으로 읽고,
+ * 응답을 쓰는 동안에는 트랜잭션(커넥션)을 잡고 있지 않아야 한다.
+ */
+class ConversationExportServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String CONVERSATION_ID = "conversation-1";
+    private static final int MESSAGE_COUNT = 100_000;
+    private static final int PAGE_SIZE = 500;
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ChatMessageExportRepository exportRepository;
+    private ConversationExportService exportService;
+    /**
+     * 현재 열려 있는 트랜잭션 수
+     */
+    private final AtomicInteger openTransactions = new AtomicInteger();
+    private final AtomicInteger maxPageRows = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        exportRepository = mock(ChatMessageExportRepository.class);
+        UserConversationRepository userConversationRepository = mock(UserConversationRepository.class);
+        UserConversationEntity conversation = mock(UserConversationEntity.class);
+        when(conversation.getSubject()).thenReturn("긴 대화");
+        when(userConversationRepository.findById_UserIdAndId_ConversationId(USER_ID, CONVERSATION_ID))
+                .thenReturn(Optional.of(conversation));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            openTransactions.incrementAndGet();
+            return new SimpleTransactionStatus(true);
+        });
+        doAnswer(invocation -> {
+            openTransactions.decrementAndGet();
+            return null;
+        }).when(transactionManager).commit(any(TransactionStatus.class));
+
+        // MESSAGE_COUNT개 메시지가 있는 대화: (timestamp, id) keyset으로 after 이후 최대 pageSize개
+        when(exportRepository.readPage(eq(CONVERSATION_ID), any(), anyInt())).thenAnswer(invocation -> {
+            assertThat(openTransactions.get()).as("페이지 조회는 트랜잭션 안에서").isEqualTo(1);
+            ExportedMessage after = invocation.getArgument(1);
+            int pageSize = invocation.getArgument(2);
+            int start = after == null ? 0 : (int) after.id().getLeastSignificantBits() + 1;
+            int end = Math.min(MESSAGE_COUNT, start + pageSize);
+            List<ExportedMessage> page = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                page.add(message(i));
+            }
+            maxPageRows.accumulateAndGet(page.size(), Math::max);
+            return page;
+        });
+
+        exportService = new ConversationExportService(exportRepository, userConversationRepository,
+                mock(UserProjectRepository.class), JsonMapper.builder().findAndAddModules().build(),
+                transactionManager);
+        ReflectionTestUtils.setField(exportService, "pageSize", PAGE_SIZE);
+        ReflectionTestUtils.setField(exportService, "flushEvery", 200);
+    }
+
+    @Test
+    @DisplayName("10만 메시지 대화를 페이지 크기씩 짧은 트랜잭션으로 읽어 모두 내보낸다")
+    void exportsHundredThousandMessagesInBoundedPages() throws Exception {
+        StreamingResponseBody body = exportService.export(
+                USER_ID, CONVERSATION_ID, ConversationExportService.Format.NDJSON);
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        body.writeTo(out);
+
+        assertThat(out.lines).isEqualTo(MESSAGE_COUNT);
+        assertThat(out.writesInsideTransaction).as("응답 쓰기 중 트랜잭션 유지 안 함").isZero();
+        assertThat(openTransactions.get()).isZero();
+        assertThat(maxPageRows.get()).isEqualTo(PAGE_SIZE);
+
+        // 가득 찬 페이지 200개 + 끝을 확인하는 빈 페이지 1개, 페이지마다 트랜잭션 하나
+        int expectedPages = MESSAGE_COUNT / PAGE_SIZE + 1;
+        ArgumentCaptor<ExportedMessage> after = ArgumentCaptor.forClass(ExportedMessage.class);
+        verify(exportRepository, times(expectedPages))
+                .readPage(eq(CONVERSATION_ID), after.capture(), eq(PAGE_SIZE));
+        assertThat(after.getAllValues().get(0)).isNull();
+        // 다음 페이지 커서는 이전 페이지의 마지막 메시지
+        for (int page = 1; page < expectedPages; page++) {
+            assertThat(after.getAllValues().get(page).id()).isEqualTo(id(page * PAGE_SIZE - 1));
+        }
+    }
+
+    private static ExportedMessage message(int i) {
+        return new ExportedMessage(id(i), i % 2 == 0 ? MessageType.USER : MessageType.ASSISTANT,
+                BASE.plusMillis(i), "message-" + i, List.of());
+    }
+
+    private static UUID id(int i) {
+        return new UUID(0, i);
+    }
+
+    /**
+     * 응답 본문을 보관하지 않고 줄 수만 센다
+     */
+    private final class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+        private long writesInsideTransaction;
+
+        @Override
+        public void write(int b) {
+            if (openTransactions.get() > 0) {
+                writesInsideTransaction++;
+            }
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository.PurgeTask;
+import com.kade.AIAssistant.feature.conversation.repository.ConversationPurgeRepository.Target;
+import com.kade.AIAssistant.feature.project.service.VectorStorePartitionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 대화 purge: 삭제 후 같은 id로 다시 대화해 소유 매핑이 되살아난 대화는 지우지 않아야 한다.
+ */
+class ConversationPurgeJobTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String CONVERSATION_ID = "conversation-1";
+    private static final int BATCH_SIZE = 1000;
+
+    private ConversationPurgeRepository purgeRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ConversationPurgeJob purgeJob;
+
+    @BeforeEach
+    void setUp() {
+        purgeRepository = mock(ConversationPurgeRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        purgeJob = new ConversationPurgeJob(purgeRepository, mock(VectorStorePartitionService.class), meterRegistry);
+        ReflectionTestUtils.setField(purgeJob, "enabled", true);
+        ReflectionTestUtils.setField(purgeJob, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(purgeJob, "tasksPerRun", 5);
+        ReflectionTestUtils.setField(purgeJob, "maxAttempts", 8);
+        ReflectionTestUtils.setField(purgeJob, "retryBaseSeconds", 30L);
+        ReflectionTestUtils.setField(purgeJob, "staleSeconds", 300L);
+        ReflectionTestUtils.setField(purgeJob, "retentionDays", 7L);
+
+        PurgeTask task = new PurgeTask(CONVERSATION_ID, USER_ID, false, Instant.parse("2026-01-01T00:00:00Z"), 1);
+        when(purgeRepository.claim(anyInt(), anyLong())).thenReturn(List.of(task));
+    }
+
+    @Test
+    @DisplayName("삭제 → 같은 id로 재요청(매핑 복구) → purge 실행 시 데이터를 지우지 않고 DONE 처리한다")
+    void skipsConversationReOwnedBeforePurge() {
+        // ensure()가 삭제 지연 시간 안에 들어온 재요청으로 USER_CONVERSATION 매핑을 되살림
+        when(purgeRepository.isOwned(CONVERSATION_ID, USER_ID)).thenReturn(true);
+
+        purgeJob.run();
+
+        verify(purgeRepository, never()).deleteBatch(any(), any(), anyInt());
+        verify(purgeRepository).markDone(CONVERSATION_ID);
+        verify(purgeRepository, never()).markFailed(any(), any(), any());
+        assertThat(meterRegistry.counter("conversation.purge.tasks", "result", "skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("매핑이 없으면 첨부 → 메시지 순으로 배치 삭제 후 DONE 처리한다")
+    void purgesConversationWithoutOwner() {
+        when(purgeRepository.isOwned(CONVERSATION_ID, USER_ID)).thenReturn(false);
+        when(purgeRepository.deleteBatch(eq(Target.ATTACHMENT), any(), eq(BATCH_SIZE))).thenReturn(3);
+        when(purgeRepository.deleteBatch(eq(Target.MESSAGE), any(), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE, 10);
+
+        purgeJob.run();
+
+        verify(purgeRepository).recordProgress(CONVERSATION_ID, 3);
+        verify(purgeRepository).recordProgress(CONVERSATION_ID, BATCH_SIZE);
+        verify(purgeRepository).recordProgress(CONVERSATION_ID, 10);
+        verify(purgeRepository, never()).deleteBatch(eq(Target.DOCUMENT), any(), anyInt());
+        verify(purgeRepository).markDone(CONVERSATION_ID);
+        assertThat(meterRegistry.counter("conversation.purge.tasks", "result", "done").count()).isEqualTo(1);
+    }
+}
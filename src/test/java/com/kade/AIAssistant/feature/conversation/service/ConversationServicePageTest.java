@@ -0,0 +1,150 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.feature.conversation.dto.response.ConversationMessagePageDto;
+import com.kade.AIAssistant.feature.conversation.repository.ChatAttachmentRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatAttachmentView;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageView;
+import com.kade.AIAssistant.feature.conversation.repository.UserConversationRepository;
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import com.kade.AIAssistant.infra.redis.context.RedisChatMemory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 대화 메시지 페이지 조회: 메시지/첨부파일 조회 행 수가 대화 전체가 아니라 limit에 비례해야 한다.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConversationServicePageTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String CONVERSATION_ID = "conversation-1";
+    private static final int LIMIT = 20;
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+    @Mock
+    private ChatAttachmentRepository chatAttachmentRepository;
+    @Mock
+    private UserConversationRepository userConversationRepository;
+    @Mock
+    private UserProjectRepository userProjectRepository;
+    @Mock
+    private RedisChatMemory redisChatMemory;
+
+    @InjectMocks
+    private ConversationService conversationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(conversationService, "defaultLimit", LIMIT);
+        ReflectionTestUtils.setField(conversationService, "maxLimit", 100);
+        when(userConversationRepository.existsById_UserIdAndId_ConversationId(USER_ID, CONVERSATION_ID))
+                .thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("첨부파일은 페이지에 포함된 메시지 id로만 조회하고, 메시지는 limit + 1개만 읽는다")
+    void attachmentsAreLoadedForPageMessagesOnly() {
+        // 대화에는 더 많은 메시지가 있지만 저장소는 요청한 limit + 1개만 돌려준다
+        List<ChatMessageView> rows = views(Instant.parse("2026-01-01T00:00:00Z"), LIMIT + 1);
+        when(chatMessageRepository.findPageByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(rows);
+        UUID withAttachment = rows.get(0).id();
+        when(chatAttachmentRepository.findViewsByMessageIdIn(any())).thenReturn(List.of(
+                new ChatAttachmentView(withAttachment, "a.pdf", "application/pdf", 10L, Instant.now())));
+
+        ConversationMessagePageDto page = conversationService.getConversationPage(USER_ID, CONVERSATION_ID, null, null);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(chatMessageRepository).findPageByConversationId(eq(CONVERSATION_ID), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(LIMIT + 1);
+
+        ArgumentCaptor<Collection<UUID>> messageIds = messageIdsCaptor();
+        verify(chatAttachmentRepository, times(1)).findViewsByMessageIdIn(messageIds.capture());
+        assertThat(messageIds.getValue())
+                .hasSize(LIMIT)
+                .containsExactlyElementsOf(rows.subList(0, LIMIT).stream().map(ChatMessageView::id).toList())
+                .doesNotContain(rows.get(LIMIT).id());
+        // 대화 전체 첨부파일 조회는 사용하지 않음
+        verify(chatAttachmentRepository, never()).findByConversationIdOrderByCreatedAtDesc(anyString());
+
+        assertThat(page.messages()).hasSize(LIMIT);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(page.messages().stream().filter(m -> m.attachments() != null)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("다음 페이지도 커서 이후 limit + 1개와 그 페이지 메시지의 첨부파일만 조회한다")
+    void nextPageIsBoundedByLimit() {
+        List<ChatMessageView> first = views(Instant.parse("2026-01-01T01:00:00Z"), LIMIT + 1);
+        when(chatMessageRepository.findPageByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(first);
+        List<ChatMessageView> second = views(Instant.parse("2026-01-01T00:00:00Z"), 5);
+        when(chatMessageRepository.findPageByConversationIdBefore(
+                eq(CONVERSATION_ID), any(Instant.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(second);
+        when(chatAttachmentRepository.findViewsByMessageIdIn(any())).thenReturn(List.of());
+
+        String cursor = conversationService.getConversationPage(USER_ID, CONVERSATION_ID, null, null).nextCursor();
+        ConversationMessagePageDto page = conversationService.getConversationPage(
+                USER_ID, CONVERSATION_ID, null, cursor);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(chatMessageRepository).findPageByConversationIdBefore(
+                eq(CONVERSATION_ID), eq(first.get(LIMIT - 1).timestamp()), eq(first.get(LIMIT - 1).id()),
+                pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(LIMIT + 1);
+
+        ArgumentCaptor<Collection<UUID>> messageIds = messageIdsCaptor();
+        verify(chatAttachmentRepository, times(2)).findViewsByMessageIdIn(messageIds.capture());
+        assertThat(messageIds.getAllValues().get(0)).hasSize(LIMIT);
+        assertThat(messageIds.getAllValues().get(1))
+                .containsExactlyElementsOf(second.stream().map(ChatMessageView::id).toList());
+
+        assertThat(page.messages()).hasSize(5);
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    /**
+     * 최신 순(timestamp DESC)으로 정렬된 메시지 count개
+     */
+    private static List<ChatMessageView> views(Instant newest, int count) {
+        List<ChatMessageView> views = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MessageType type = i % 2 == 0 ? MessageType.ASSISTANT : MessageType.USER;
+            views.add(new ChatMessageView(UUID.randomUUID(), type, "message-" + i, newest.minusSeconds(i)));
+        }
+        return views;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Collection<UUID>> messageIdsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+    }
+}
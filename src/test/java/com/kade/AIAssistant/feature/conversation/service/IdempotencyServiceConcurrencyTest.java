@@ -0,0 +1,213 @@
+package com.kade.AIAssistant.feature.conversation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kade.AIAssistant.common.exceptions.customs.IdempotencyConflictException;
+import com.kade.AIAssistant.infra.redis.enums.RedisKeyPrefix;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * IdempotencyService 상태 전이 동시성 테스트 (Lua 스크립트 원자성).
+ * <p>실제 Redis가 필요하다. 접속 정보는 {@code spring.data.redis.host/port} 시스템 프로퍼티
+ * (기본 localhost:6389, application.yaml과 동일)이며, 접속할 수 없으면 테스트를 건너뛴다.
+ */
+class IdempotencyServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static ExecutorService executor;
+
+    private IdempotencyService idempotencyService;
+    private String userId;
+    private String idempotencyKey;
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getProperty("spring.data.redis.host", "localhost");
+        int port = Integer.getInteger("spring.data.redis.port", 6389);
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            connectionFactory.getConnection().close();
+        } catch (Exception e) {
+            connectionFactory.destroy();
+            connectionFactory = null;
+            Assumptions.abort("Redis에 접속할 수 없어 건너뜀: " + host + ":" + port);
+        }
+
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(stringRedisTemplate, redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 1);
+        ReflectionTestUtils.setField(idempotencyService, "replayMaxBytes", 262144);
+        userId = "test-user-" + UUID.randomUUID();
+        idempotencyKey = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        stringRedisTemplate.delete(List.of(IdempotencyService.stateKey(userId, idempotencyKey),
+                legacyKey(userId, idempotencyKey)));
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 claim하면 정확히 하나만 성공하고 그 요청의 conversationId가 저장된다")
+    void concurrentClaimsHaveSingleWinner() throws Exception {
+        List<Boolean> results = race(i -> idempotencyService.claim(
+                userId, idempotencyKey, "conversation-" + i, UUID.randomUUID()));
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        IdempotencyState state = idempotencyService.get(userId, idempotencyKey).orElseThrow();
+        assertThat(state.getStatus()).isEqualTo(IdempotencyState.IN_PROGRESS);
+        assertThat(state.getAttempt()).isEqualTo(1);
+        assertThat(state.getConversationId()).isEqualTo("conversation-" + results.indexOf(true));
+    }
+
+    @Test
+    @DisplayName("FAILED 상태에서 동시에 재시도하면 정확히 하나만 IN_PROGRESS를 얻고 나머지는 충돌로 거절된다")
+    void concurrentRetriesHaveSingleWinner() throws Exception {
+        idempotencyService.claim(userId, idempotencyKey, "conversation", UUID.randomUUID());
+        idempotencyService.markFailed(userId, idempotencyKey, 1);
+
+        List<Boolean> results = race(i -> {
+            try {
+                IdempotencyState retry = idempotencyService.tryStartRetry(userId, idempotencyKey);
+                return retry != null && IdempotencyState.IN_PROGRESS.equals(retry.getStatus());
+            } catch (IdempotencyConflictException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        IdempotencyState state = idempotencyService.get(userId, idempotencyKey).orElseThrow();
+        assertThat(state.getStatus()).isEqualTo(IdempotencyState.IN_PROGRESS);
+        assertThat(state.getAttempt()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이전 시도의 늦은 완료/실패는 진행 중인 재시도를 덮어쓰지 않는다")
+    void staleTransitionsDoNotOverwriteRetry() throws Exception {
+        idempotencyService.claim(userId, idempotencyKey, "conversation", UUID.randomUUID());
+        idempotencyService.markFailed(userId, idempotencyKey, 1);
+        IdempotencyState retry = idempotencyService.tryStartRetry(userId, idempotencyKey);
+        assertThat(retry.getAttempt()).isEqualTo(2);
+
+        // attempt 1의 늦은 완료와 attempt 2의 완료가 동시에 도착
+        race(i -> {
+            if (i % 2 == 0) {
+                idempotencyService.markCompleted(userId, idempotencyKey, 1, null);
+            } else {
+                idempotencyService.markFailed(userId, idempotencyKey, 1);
+            }
+            return true;
+        });
+        assertThat(idempotencyService.get(userId, idempotencyKey).orElseThrow().getStatus())
+                .isEqualTo(IdempotencyState.IN_PROGRESS);
+
+        idempotencyService.markCompleted(userId, idempotencyKey, 2, null);
+        IdempotencyState state = idempotencyService.get(userId, idempotencyKey).orElseThrow();
+        assertThat(state.getStatus()).isEqualTo(IdempotencyState.COMPLETED);
+        assertThat(state.getAttempt()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이전 형식 FAILED 상태는 조회 시 hash로 옮겨져 재시도할 수 있다")
+    void legacyFailedStateIsRetryable() {
+        UUID userMessageId = UUID.randomUUID();
+        redisTemplate.opsForValue().set(legacyKey(userId, idempotencyKey), IdempotencyState.builder()
+                .status(IdempotencyState.FAILED)
+                .conversationId("legacy-conversation")
+                .userMessageId(userMessageId)
+                .build());
+
+        IdempotencyState state = idempotencyService.get(userId, idempotencyKey).orElseThrow();
+        assertThat(state.getStatus()).isEqualTo(IdempotencyState.FAILED);
+        assertThat(state.getUserMessageId()).isEqualTo(userMessageId);
+        assertThat(stringRedisTemplate.hasKey(legacyKey(userId, idempotencyKey))).isFalse();
+
+        IdempotencyState retry = idempotencyService.tryStartRetry(userId, idempotencyKey);
+        assertThat(retry).isNotNull();
+        assertThat(retry.getStatus()).isEqualTo(IdempotencyState.IN_PROGRESS);
+        assertThat(retry.getConversationId()).isEqualTo("legacy-conversation");
+        assertThat(retry.getAttempt()).isEqualTo(2);
+    }
+
+    private static String legacyKey(String userId, String idempotencyKey) {
+        return RedisKeyPrefix.IDEMPOTENCY + ":" + userId + ":" + idempotencyKey;
+    }
+
+    private interface Attempt<T> {
+        T run(int index) throws Exception;
+    }
+
+    /**
+     * THREADS개 스레드가 동시에 출발하도록 맞춘 뒤 실행하고, 스레드 순서대로 결과를 반환
+     */
+    private static <T> List<T> race(Attempt<T> attempt) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            Callable<T> task = () -> {
+                ready.countDown();
+                start.await();
+                return attempt.run(index);
+            };
+            futures.add(executor.submit(task));
+        }
+        ready.await(5, TimeUnit.SECONDS);
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
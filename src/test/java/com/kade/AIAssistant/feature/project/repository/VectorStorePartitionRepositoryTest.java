@@ -0,0 +1,91 @@
+package com.kade.AIAssistant.feature.project.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 전용 파티션 이름: DDL에 그대로 이어 붙이므로 UUID 형식의 프로젝트 id만 허용하고,
+ * 승격 준비 테이블은 전용 파티션과 다른 이름이어야 준비 중 {@code exists}가 false로 유지된다.
+ */
+class VectorStorePartitionRepositoryTest {
+
+    private static final String PROJECT_ID = "3F2504E0-4F89-11D3-9A0C-0305E82C3301";
+    private static final String PARTITION = "vector_store_p_3f2504e04f8911d39a0c0305e82c3301";
+
+    /**
+     * PostgreSQL 식별자 최대 길이 (NAMEDATALEN - 1), 넘으면 조용히 잘려 이름이 겹칠 수 있다
+     */
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    /**
+     * DDL 문에 포함된 vector_store_ 접두사 식별자
+     */
+    private static final Pattern IDENTIFIER = Pattern.compile("vector_store_[a-z]_[0-9a-z_]+");
+
+    @Test
+    @DisplayName("UUID 프로젝트 id는 하이픈을 제거한 소문자 파티션 이름이 된다")
+    void partitionNameFromUuid() {
+        assertThat(VectorStorePartitionRepository.partitionName(PROJECT_ID)).isEqualTo(PARTITION);
+        assertThat(VectorStorePartitionRepository.partitionName(PROJECT_ID.toLowerCase())).isEqualTo(PARTITION);
+    }
+
+    @Test
+    @DisplayName("UUID 형식이 아닌 id는 전용 파티션 대상이 아니다")
+    void partitionNameRejectsNonUuid() {
+        assertThat(VectorStorePartitionRepository.partitionName(null)).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName("")).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName("conversation-1")).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName("3f2504e04f8911d39a0c0305e82c3301")).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName(PROJECT_ID + " ")).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName(
+                "3f2504e0-4f89-11d3-9a0c-0305e82c3301; DROP TABLE vector_store")).isNull();
+        assertThat(VectorStorePartitionRepository.partitionName("3f2504e0-4f89-11d3-9a0c-0305e82c330g")).isNull();
+    }
+
+    @Test
+    @DisplayName("준비 테이블 이름은 접두사만 바꾸고, 파티션 이름과 겹치지 않는다")
+    void buildNameSwapsPrefix() {
+        String buildName = VectorStorePartitionRepository.buildName(PARTITION);
+
+        assertThat(buildName).isEqualTo("vector_store_b_3f2504e04f8911d39a0c0305e82c3301");
+        assertThat(buildName).isNotEqualTo(PARTITION);
+        assertThat(VectorStorePartitionRepository.partitionName(PROJECT_ID)).doesNotStartWith("vector_store_b_");
+    }
+
+    @Test
+    @DisplayName("준비 테이블은 준비 이름으로 만들고, 제약 이름은 파티션 이름 기준이며 식별자 길이 제한 안이다")
+    void buildTableDdlUsesBuildName() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        VectorStorePartitionRepository repository = new VectorStorePartitionRepository(jdbcTemplate);
+
+        repository.createBuildTable(PARTITION, PROJECT_ID);
+        repository.createIndexes(PARTITION);
+
+        ArgumentCaptor<String> ddl = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(6)).execute(ddl.capture());
+        List<String> statements = ddl.getAllValues();
+        String buildName = VectorStorePartitionRepository.buildName(PARTITION);
+        assertThat(statements.get(0)).isEqualTo("DROP TABLE IF EXISTS " + buildName);
+        assertThat(statements.get(1))
+                .startsWith("CREATE TABLE " + buildName + " ")
+                .contains("CONSTRAINT " + PARTITION + "_key CHECK (conversation_id = '" + PROJECT_ID + "')");
+        assertThat(statements.get(2)).startsWith("ALTER TABLE " + buildName + " ADD CONSTRAINT " + PARTITION + "_pkey");
+        assertThat(statements.subList(3, 6)).allSatisfy(index -> assertThat(index).contains(" ON " + buildName));
+        // 준비 중에는 전용 파티션 이름의 테이블을 만들지 않는다
+        assertThat(statements).noneMatch(sql -> sql.contains("TABLE " + PARTITION));
+
+        assertThat(statements.stream().flatMap(sql -> IDENTIFIER.matcher(sql).results().map(MatchResult::group)))
+                .isNotEmpty()
+                .allSatisfy(identifier -> assertThat(identifier.length()).isLessThanOrEqualTo(MAX_IDENTIFIER_LENGTH));
+    }
+}
@@ -0,0 +1,150 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.feature.project.repository.VectorStoreWriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+/**
+ * 청크 임베딩: 토큰 수/개수 기준으로 배치를 나누고, 실패한 배치만 재시도해 성공한 배치는 다시 임베딩하지 않아야 한다.
+ */
+class ChunkEmbeddingServiceTest {
+
+    private static final int MAX_BATCH_SIZE = 2;
+
+    private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+
+    private EmbeddingModel embeddingModel;
+    private VectorStoreWriteRepository writeRepository;
+    /**
+     * 배치 첫 텍스트 → 임베딩 호출 횟수
+     */
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    /**
+     * 이 텍스트를 포함한 배치는 남은 횟수만큼 실패
+     */
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = mock(EmbeddingModel.class);
+        writeRepository = mock(VectorStoreWriteRepository.class);
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            calls.computeIfAbsent(texts.get(0), t -> new AtomicInteger()).incrementAndGet();
+            for (String text : texts) {
+                AtomicInteger remaining = failures.get(text);
+                if (remaining != null && remaining.getAndDecrement() > 0) {
+                    throw new IllegalStateException("embedding server unavailable");
+                }
+            }
+            return texts.stream().map(t -> new float[]{t.length()}).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("실패한 배치만 재시도하고 성공한 배치는 한 번만 임베딩/저장한다")
+    void retriesOnlyFailedBatch() {
+        ChunkEmbeddingService service = service(8192, 3);
+        failures.put("chunk 2", new AtomicInteger(1));
+
+        service.embedAndStore(chunks(6));
+
+        // 배치 [0,1] [2,3] [4,5]: 두 번째 배치만 2회 호출
+        assertThat(calls).containsOnlyKeys("chunk 0", "chunk 2", "chunk 4");
+        assertThat(calls.get("chunk 0")).hasValue(1);
+        assertThat(calls.get("chunk 2")).hasValue(2);
+        assertThat(calls.get("chunk 4")).hasValue(1);
+        verify(writeRepository, times(3)).upsert(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("재시도를 소진한 배치가 있으면 예외를 던지지만 나머지 배치는 저장된다")
+    void exhaustedBatchFailsButOthersAreStored() {
+        ChunkEmbeddingService service = service(8192, 2);
+        failures.put("chunk 2", new AtomicInteger(Integer.MAX_VALUE));
+
+        assertThatThrownBy(() -> service.embedAndStore(chunks(6)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("임베딩 배치 실패");
+
+        assertThat(calls.get("chunk 2")).hasValue(2);
+        ArgumentCaptor<List<Document>> stored = documentsCaptor();
+        verify(writeRepository, times(2)).upsert(stored.capture(), anyList());
+        assertThat(stored.getAllValues().stream().flatMap(List::stream).map(Document::getText))
+                .containsExactlyInAnyOrder("chunk 0", "chunk 1", "chunk 4", "chunk 5");
+    }
+
+    @Test
+    @DisplayName("배치는 입력 순서를 유지하며 max-batch-size와 max-batch-tokens를 넘지 않고, 한도를 넘는 청크는 단독 배치가 된다")
+    void partitionRespectsTokenAndSizeLimits() {
+        List<String> texts = new ArrayList<>();
+        IntStream.range(0, 7).forEach(i -> texts.add("section " + i + " " + "lorem ipsum dolor ".repeat(20)));
+        texts.add(3, "oversized " + "lorem ipsum dolor ".repeat(400));
+        int typical = estimator.estimate(texts.get(0));
+        int maxBatchTokens = typical * 2 + typical / 2;
+        ChunkEmbeddingService service = service(maxBatchTokens, 3);
+
+        Map<String, List<Document>> byHash = new LinkedHashMap<>();
+        for (String text : texts) {
+            byHash.put(EmbeddingCache.contentHash(text), List.of(document(text)));
+        }
+        List<String> hashes = new ArrayList<>(byHash.keySet());
+
+        List<List<String>> batches = service.partition(hashes, byHash);
+
+        assertThat(batches.stream().flatMap(List::stream).toList()).isEqualTo(hashes);
+        String oversized = EmbeddingCache.contentHash(texts.get(3));
+        assertThat(batches).contains(List.of(oversized));
+        for (List<String> batch : batches) {
+            assertThat(batch.size()).isLessThanOrEqualTo(MAX_BATCH_SIZE);
+            if (batch.size() > 1) {
+                int tokens = batch.stream().mapToInt(h -> estimator.estimate(byHash.get(h).get(0).getText())).sum();
+                assertThat(tokens).isLessThanOrEqualTo(maxBatchTokens);
+            }
+        }
+    }
+
+    private ChunkEmbeddingService service(int maxBatchTokens, int maxAttempts) {
+        EmbeddingCache embeddingCache = mock(EmbeddingCache.class);
+        when(embeddingCache.getAll(any())).thenReturn(Collections.emptyMap());
+        return new ChunkEmbeddingService(embeddingModel, writeRepository, embeddingCache, new SimpleMeterRegistry(),
+                maxBatchTokens, MAX_BATCH_SIZE, 2, maxAttempts, 1);
+    }
+
+    private static List<Document> chunks(int count) {
+        return IntStream.range(0, count).mapToObj(i -> document("chunk " + i)).toList();
+    }
+
+    private static Document document(String text) {
+        return Document.builder().text(text).metadata(Map.of()).build();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<Document>> documentsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
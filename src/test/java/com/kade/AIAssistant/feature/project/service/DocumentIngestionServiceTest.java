@@ -0,0 +1,193 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.feature.conversation.service.DocumentService;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentJobRepository;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentJobRepository.IngestionJob;
+import com.kade.AIAssistant.feature.project.repository.ProjectDocumentRepository;
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.document.Document;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 문서 수집 상태 전이: chunks_done부터 이어서 저장하고, 삭제되면 취소, 실패하면 저장된 청크를 정리해야 한다.
+ * 종료(인터럽트)는 실패가 아니므로 재개할 수 있게 그대로 두고, extract 큐가 가득 차면 다음 재개 스윕에서 바로 선점되어야 한다.
+ */
+class DocumentIngestionServiceTest {
+
+    private static final long DOCUMENT_ID = 7L;
+    private static final String PROJECT_ID = "project-1";
+    private static final String USER_ID = "user-1";
+    private static final int BATCH_SIZE = 2;
+    private static final long STALE_SECONDS = 600;
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path stagingDir;
+
+    private ProjectDocumentJobRepository jobRepository;
+    private ProjectRagService projectRagService;
+    private DocumentService documentService;
+    private DocumentIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ProjectDocumentJobRepository.class);
+        projectRagService = mock(ProjectRagService.class);
+        documentService = mock(DocumentService.class);
+        when(jobRepository.markStage(anyLong(), any())).thenReturn(true);
+        when(jobRepository.markChunked(anyLong(), anyInt())).thenReturn(true);
+        when(jobRepository.recordProgress(anyLong(), anyInt())).thenReturn(true);
+        when(documentService.extractText(any(), anyString())).thenReturn("document text");
+        when(projectRagService.split(eq(USER_ID), eq(PROJECT_ID), anyLong(), anyString(), anyString()))
+                .thenReturn(chunks(5));
+        ingestionService = service(2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("재개 시 chunks_done 이후 청크만 batch-size씩 저장하고 완료 처리한다")
+    void resumesFromChunksDone() throws IOException {
+        resume(job(DOCUMENT_ID, 3));
+
+        verify(jobRepository, timeout(WAIT.toMillis())).markCompleted(DOCUMENT_ID);
+        ArgumentCaptor<List<Document>> batches = documentsCaptor();
+        verify(projectRagService).addChunks(batches.capture());
+        assertThat(batches.getAllValues()).singleElement()
+                .extracting(batch -> batch.stream().map(Document::getText).toList())
+                .isEqualTo(List.of("chunk 3", "chunk 4"));
+        verify(jobRepository).recordProgress(DOCUMENT_ID, 5);
+        verify(jobRepository, never()).markFailed(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("처리 중 문서가 삭제되면(진행 기록 대상 없음) 저장된 청크를 지우고 취소한다")
+    void cancelsWhenDocumentDeleted() throws IOException {
+        when(jobRepository.recordProgress(DOCUMENT_ID, 2)).thenReturn(false);
+
+        resume(job(DOCUMENT_ID, 0));
+
+        verify(projectRagService, timeout(WAIT.toMillis())).deleteByDocumentId(PROJECT_ID, DOCUMENT_ID);
+        verify(projectRagService).addChunks(any());
+        verify(jobRepository, never()).markCompleted(anyLong());
+        verify(jobRepository, never()).markFailed(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("임베딩 실패 시 이미 저장된 청크를 정리하고 FAILED로 기록한다")
+    void cleansUpOnFailure() throws IOException {
+        doThrow(new IllegalStateException("임베딩 배치 실패: boom"))
+                .when(projectRagService).addChunks(any());
+
+        resume(job(DOCUMENT_ID, 2));
+
+        verify(jobRepository, timeout(WAIT.toMillis())).markFailed(eq(DOCUMENT_ID), eq("임베딩 배치 실패: boom"));
+        verify(projectRagService).deleteByDocumentId(PROJECT_ID, DOCUMENT_ID);
+        verify(jobRepository, never()).markCompleted(anyLong());
+    }
+
+    @Test
+    @DisplayName("종료로 인한 인터럽트는 실패로 기록하지 않고 청크와 chunks_done을 남겨 재개 대상으로 둔다")
+    void interruptionLeavesJobResumable() throws IOException {
+        doThrow(new IllegalStateException("임베딩 대기 중 인터럽트", new InterruptedException()))
+                .when(projectRagService).addChunks(any());
+
+        resume(job(DOCUMENT_ID, 2));
+
+        verify(projectRagService, timeout(WAIT.toMillis())).addChunks(any());
+        await().atMost(WAIT).until(() -> inFlight().isEmpty());
+        verify(projectRagService, never()).deleteByDocumentId(anyString(), anyLong());
+        verify(jobRepository, never()).markFailed(anyLong(), any());
+        verify(jobRepository, never()).markCompleted(anyLong());
+    }
+
+    @Test
+    @DisplayName("extract 큐가 가득 차 제출하지 못한 작업은 다음 재개 스윕에서 바로 선점되도록 하트비트를 되돌린다")
+    void rejectedJobIsReleasedForNextSweep() throws IOException {
+        ingestionService.shutdown();
+        ingestionService = service(1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        when(documentService.extractText(any(), anyString())).thenAnswer(invocation -> {
+            blocked.await();
+            return "document text";
+        });
+        try {
+            // 1번은 extract 스레드가 처리 중, 2번은 큐 대기, 3번은 거부
+            resume(job(1L, 0), job(2L, 0), job(3L, 0));
+
+            verify(jobRepository).releaseForResume(3L, STALE_SECONDS);
+            verify(jobRepository, never()).releaseForResume(eq(1L), anyLong());
+            verify(jobRepository, never()).releaseForResume(eq(2L), anyLong());
+            assertThat(inFlight()).containsExactlyInAnyOrder(1L, 2L);
+        } finally {
+            blocked.countDown();
+        }
+    }
+
+    private void resume(IngestionJob... jobs) {
+        when(jobRepository.claimStale(anyInt(), eq(STALE_SECONDS))).thenReturn(List.of(jobs));
+        ingestionService.resumeStale();
+    }
+
+    private IngestionJob job(long documentId, int chunksDone) throws IOException {
+        Path staged = Files.writeString(stagingDir.resolve(documentId + ".txt"), "document text");
+        return new IngestionJob(documentId, PROJECT_ID, USER_ID, "doc.txt", staged.toString(), chunksDone);
+    }
+
+    private DocumentIngestionService service(int extractThreads, int extractQueueCapacity) {
+        return new DocumentIngestionService(mock(ProjectDocumentRepository.class), jobRepository,
+                mock(UserProjectRepository.class), projectRagService, documentService,
+                mock(VectorStorePartitionService.class), new SimpleMeterRegistry(),
+                stagingDir.toString(), extractThreads, extractQueueCapacity, 2, 20, BATCH_SIZE, STALE_SECONDS,
+                1000, 60_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> inFlight() {
+        return (Set<Long>) ReflectionTestUtils.getField(ingestionService, "inFlight");
+    }
+
+    private static List<Document> chunks(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Document.builder().text("chunk " + i).metadata(Map.of()).build())
+                .toList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<Document>> documentsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
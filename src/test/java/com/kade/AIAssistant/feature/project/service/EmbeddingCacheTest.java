@@ -0,0 +1,108 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.feature.project.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * 임베딩 캐시: 공백/유니코드 표현만 다른 청크는 같은 키가 되고, L1 → DB 순으로 조회해 DB 적중은 L1에 채워야 한다.
+ */
+class EmbeddingCacheTest {
+
+    private static final String MODEL = "bge-m3";
+
+    private EmbeddingCacheRepository repository;
+    private EmbeddingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmbeddingCacheRepository.class);
+        cache = new EmbeddingCache(repository, new SimpleMeterRegistry(), true, 100, MODEL);
+    }
+
+    @Test
+    @DisplayName("content hash는 연속 공백, 앞뒤 공백, 유니코드 정규화(NFC) 차이를 무시한다")
+    void contentHashNormalizesText() {
+        String hash = EmbeddingCache.contentHash("배포 절차 café");
+
+        assertThat(hash).hasSize(64).matches("[0-9a-f]+");
+        assertThat(EmbeddingCache.contentHash("  배포\t절차\n\n café ")).isEqualTo(hash);
+        // 'e' + 결합 악센트(NFD)와 'é'(NFC)
+        assertThat(EmbeddingCache.contentHash("배포 절차 cafe\u0301")).isEqualTo(hash);
+        assertThat(EmbeddingCache.contentHash("배포 절차 cafe")).isNotEqualTo(hash);
+    }
+
+    @Test
+    @DisplayName("L1에 없는 hash만 DB에서 조회하고, DB에서 찾은 임베딩은 L1에 채워 다음 조회는 DB를 거치지 않는다")
+    void fallsBackToDbAndFillsL1() {
+        float[] stored = {0.1f, 0.2f};
+        when(repository.findAll(eq(MODEL), any())).thenReturn(Map.of("h1", stored));
+
+        Map<String, float[]> first = cache.getAll(List.of("h1", "h2"));
+        Map<String, float[]> second = cache.getAll(List.of("h1"));
+
+        assertThat(first).containsOnlyKeys("h1");
+        assertThat(first.get("h1")).isSameAs(stored);
+        assertThat(second).containsOnlyKeys("h1");
+        verify(repository, times(1)).findAll(eq(MODEL), any());
+    }
+
+    @Test
+    @DisplayName("새로 저장한 임베딩은 L1에서 바로 찾고, DB 조회는 L1 미스 hash만 대상으로 한다")
+    void putAllServesFromL1() {
+        cache.putAll(Map.of("h1", new float[]{1f}));
+        when(repository.findAll(eq(MODEL), any())).thenReturn(Map.of());
+
+        Map<String, float[]> found = cache.getAll(List.of("h1", "h2"));
+
+        assertThat(found).containsOnlyKeys("h1");
+        verify(repository).saveAll(eq(MODEL), any());
+        ArgumentCaptor<Collection<String>> misses = missesCaptor();
+        verify(repository).findAll(eq(MODEL), misses.capture());
+        assertThat(misses.getValue()).containsExactly("h2");
+    }
+
+    @Test
+    @DisplayName("DB 조회/저장 실패는 캐시 미스로 처리하고 예외를 던지지 않는다")
+    void dbFailureIsTreatedAsMiss() {
+        when(repository.findAll(anyString(), any())).thenThrow(new IllegalStateException("db down"));
+        doThrow(new IllegalStateException("db down")).when(repository).saveAll(anyString(), any());
+
+        cache.putAll(Map.of("h1", new float[]{1f}));
+
+        assertThat(cache.getAll(List.of("h1", "h2"))).containsOnlyKeys("h1");
+    }
+
+    @Test
+    @DisplayName("비활성화하면 조회/저장 모두 DB를 사용하지 않는다")
+    void disabledCacheSkipsDb() {
+        EmbeddingCache disabled = new EmbeddingCache(repository, new SimpleMeterRegistry(), false, 100, MODEL);
+
+        disabled.putAll(Map.of("h1", new float[]{1f}));
+
+        assertThat(disabled.getAll(List.of("h1"))).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Collection<String>> missesCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+    }
+}
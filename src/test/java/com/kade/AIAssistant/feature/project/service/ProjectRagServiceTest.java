@@ -0,0 +1,244 @@
+package com.kade.AIAssistant.feature.project.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.kade.AIAssistant.feature.project.repository.UserProjectRepository;
+import com.kade.AIAssistant.feature.project.repository.VectorStoreSearchRepository;
+import com.kade.AIAssistant.feature.project.repository.VectorStoreWriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * RAG 하이브리드 검색: 전문 검색(lexical)과 벡터 검색 결과를 RRF로 합쳐, 임베딩이 놓치는 식별자 검색어도 찾아야 한다.
+ * 청킹 구획: 문단 앵커에서 끊어 일부만 바뀐 문서도 바뀌지 않은 구획은 같은 텍스트가 되어야 한다.
+ */
+class ProjectRagServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String PROJECT_ID = "project-1";
+    private static final int TOP_K = 2;
+    private static final int CANDIDATE_K = 4;
+    private static final int RRF_K = 60;
+
+    /**
+     * 청크 id → 본문
+     */
+    private static final Map<String, String> CORPUS = new LinkedHashMap<>();
+
+    static {
+        CORPUS.put("deploy", "서비스 배포 절차: 빌드 후 스테이징에 올리고 헬스체크가 통과하면 운영으로 전환한다");
+        CORPUS.put("rollback", "배포 실패 시 이전 버전으로 되돌리는 롤백 방법");
+        CORPUS.put("err4021", "ERR_CONN_4021 은 커넥션 풀 고갈 시 발생한다. maxPoolSize 를 늘린다");
+        CORPUS.put("pool", "데이터베이스 연결이 부족할 때 대응 방법");
+        CORPUS.put("kafka", "KafkaConsumerLagAlert 알림은 컨슈머 지연이 임계값을 넘으면 울린다");
+        CORPUS.put("alert", "모니터링 알림 설정과 임계값 조정 가이드");
+        CORPUS.put("cache", "캐시 만료 정책과 TTL 설정");
+        CORPUS.put("login", "로그인 실패 횟수 제한 정책");
+    }
+
+    /**
+     * 라벨링된 질의: 정답 청크와, 임베딩 유사도 순위(벡터 검색 결과로 사용). 식별자 질의는 임베딩이 정답을 놓친다
+     */
+    private record LabelledQuery(String query, String relevant, List<String> vectorRanking) {
+    }
+
+    private static final List<LabelledQuery> QUERIES = List.of(
+            new LabelledQuery("운영 배포는 어떻게 하나요", "deploy", List.of("deploy", "rollback", "cache", "login")),
+            new LabelledQuery("ERR_CONN_4021 해결", "err4021", List.of("pool", "rollback", "login", "cache")),
+            new LabelledQuery("KafkaConsumerLagAlert 원인", "kafka", List.of("alert", "cache", "login", "deploy")),
+            new LabelledQuery("이전 버전으로 되돌리기", "rollback", List.of("rollback", "deploy", "cache", "pool")));
+
+    private ProjectRagService ragService;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+        VectorStoreSearchRepository searchRepository = mock(VectorStoreSearchRepository.class);
+        UserProjectRepository userProjectRepository = mock(UserProjectRepository.class);
+        when(userProjectRepository.existsById_UserIdAndId_ConversationId(USER_ID, PROJECT_ID)).thenReturn(true);
+
+        // 질의 임베딩 = 질의 순번 (벡터 검색 fake가 해당 질의의 유사도 순위를 돌려준다)
+        when(embeddingModel.embed(anyString())).thenAnswer(invocation -> new float[]{
+                IntStream.range(0, QUERIES.size())
+                        .filter(i -> QUERIES.get(i).query().equals(invocation.getArgument(0)))
+                        .findFirst().orElseThrow()});
+        when(searchRepository.searchVector(eq(PROJECT_ID), eq(USER_ID), any(float[].class), anyInt()))
+                .thenAnswer(invocation -> {
+                    float[] embedding = invocation.getArgument(2);
+                    int limit = invocation.getArgument(3);
+                    return QUERIES.get((int) embedding[0]).vectorRanking().stream()
+                            .limit(limit)
+                            .map(ProjectRagServiceTest::chunk)
+                            .toList();
+                });
+        when(searchRepository.searchLexical(eq(PROJECT_ID), eq(USER_ID), anyString(), anyInt()))
+                .thenAnswer(invocation -> lexicalSearch(invocation.getArgument(2), invocation.getArgument(3)));
+
+        ragService = new ProjectRagService(embeddingModel, searchRepository, mock(VectorStoreWriteRepository.class),
+                new SimpleMeterRegistry(), userProjectRepository, mock(TokenTextSplitter.class),
+                mock(ChunkEmbeddingService.class));
+        ReflectionTestUtils.setField(ragService, "hybridEnabled", true);
+        ReflectionTestUtils.setField(ragService, "topK", TOP_K);
+        ReflectionTestUtils.setField(ragService, "candidateK", CANDIDATE_K);
+        ReflectionTestUtils.setField(ragService, "rrfK", RRF_K);
+    }
+
+    @Test
+    @DisplayName("라벨링된 질의에서 하이브리드 검색의 recall@k가 벡터 검색보다 높다 (식별자 질의 포함)")
+    void hybridImprovesRecallAtK() {
+        ReflectionTestUtils.setField(ragService, "hybridEnabled", false);
+        double vectorRecall = recallAtK();
+        ReflectionTestUtils.setField(ragService, "hybridEnabled", true);
+        double hybridRecall = recallAtK();
+
+        assertThat(vectorRecall).isEqualTo(0.5);
+        assertThat(hybridRecall).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("RRF: 두 검색 결과에 모두 있는 청크가 앞에 오고, 점수는 순위별 1/(k + r)의 합이며 top-k개만 반환한다")
+    void fuseRanksByReciprocalRankSum() {
+        List<Document> fused = ragService.fuse(
+                List.of(chunk("a"), chunk("b"), chunk("c")),
+                List.of(chunk("c"), chunk("d")));
+
+        assertThat(fused).hasSize(TOP_K);
+        assertThat(fused.get(0).getId()).isEqualTo("c");
+        assertThat(fused.get(0).getScore()).isEqualTo(1.0 / (RRF_K + 3) + 1.0 / (RRF_K + 1));
+        assertThat(fused.get(1).getId()).isEqualTo("a");
+        assertThat(fused.get(1).getScore()).isEqualTo(1.0 / (RRF_K + 1));
+    }
+
+    @Test
+    @DisplayName("RRF: 한쪽 결과가 비어 있으면 다른 쪽 순서를 그대로 유지한다")
+    void fuseKeepsSingleListOrder() {
+        List<Document> fused = ragService.fuse(List.of(), List.of(chunk("x"), chunk("y"), chunk("z")));
+
+        assertThat(fused).extracting(Document::getId).containsExactly("x", "y");
+    }
+
+    @Test
+    @DisplayName("검색어는 글자/숫자 토큰의 소문자 접두어 OR 질의가 되며 중복 제거 후 최대 16개만 사용한다")
+    void toLexicalQuery() {
+        assertThat(ProjectRagService.toLexicalQuery("Spring-AI 설정, spring ai?")).isEqualTo("spring:* | ai:* | 설정:*");
+        assertThat(ProjectRagService.toLexicalQuery("ERR_CONN_4021")).isEqualTo("err:* | conn:* | 4021:*");
+        assertThat(ProjectRagService.toLexicalQuery("?! -- ..")).isEmpty();
+        assertThat(ProjectRagService.toLexicalQuery(null)).isEmpty();
+
+        String manyTerms = String.join(" ", IntStream.range(0, 20).mapToObj(i -> "t" + i).toList());
+        assertThat(ProjectRagService.toLexicalQuery(manyTerms).split(" \\| ")).hasSize(16);
+    }
+
+    @Test
+    @DisplayName("빈 줄이 없는 텍스트는 구획 하나가 된다")
+    void sectionsWithoutParagraphBreaks() {
+        String text = "첫 줄\n둘째 줄\n셋째 줄";
+
+        assertThat(ProjectRagService.sections(text)).containsExactly(text);
+    }
+
+    @Test
+    @DisplayName("구획은 문단 단위로 나뉘며 마지막을 제외하면 최소 길이 이상이고, 이어 붙이면 원문과 같다")
+    void sectionsCoverTextOnParagraphBoundaries() {
+        List<String> paragraphs = paragraphs();
+        String text = String.join("\n\n", paragraphs);
+
+        List<String> sections = ProjectRagService.sections(text);
+
+        assertThat(sections).hasSizeGreaterThan(3);
+        assertThat(sections.subList(0, sections.size() - 1)).allMatch(section -> section.length() >= 1500);
+        assertThat(String.join("\n\n", sections)).isEqualTo(text);
+    }
+
+    @Test
+    @DisplayName("중간 문단을 고치면 그 문단이 속한 구획만 바뀐다")
+    void editedParagraphChangesOneSection() {
+        List<String> paragraphs = paragraphs();
+        List<String> original = ProjectRagService.sections(String.join("\n\n", paragraphs));
+        paragraphs.set(30, paragraphs.get(30).replace("deployment", "rollout"));
+
+        List<String> edited = ProjectRagService.sections(String.join("\n\n", paragraphs));
+
+        assertThat(edited).hasSameSizeAs(original);
+        assertThat(IntStream.range(0, original.size()).filter(i -> !original.get(i).equals(edited.get(i))))
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("앞에 문단을 추가해도 앵커에서 경계가 다시 맞춰져 뒤쪽 구획은 그대로다")
+    void insertedParagraphRealignsAtAnchor() {
+        List<String> paragraphs = paragraphs();
+        List<String> original = ProjectRagService.sections(String.join("\n\n", paragraphs));
+        paragraphs.add(0, "Inserted introduction paragraph about the new release. ".repeat(4));
+
+        List<String> edited = ProjectRagService.sections(String.join("\n\n", paragraphs));
+
+        assertThat(edited.subList(edited.size() - 4, edited.size()))
+                .isEqualTo(original.subList(original.size() - 4, original.size()));
+    }
+
+    /**
+     * 같은 문형이 반복되는 문단 60개 (약 220자씩)
+     */
+    private static List<String> paragraphs() {
+        return IntStream.range(0, 60)
+                .mapToObj(i -> "Paragraph %d describes step %d of the deployment runbook. ".formatted(i, i).repeat(4))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private double recallAtK() {
+        long hits = QUERIES.stream()
+                .filter(q -> ragService.search(USER_ID, PROJECT_ID, q.query()).stream()
+                        .limit(TOP_K)
+                        .anyMatch(doc -> doc.getId().equals(q.relevant())))
+                .count();
+        return (double) hits / QUERIES.size();
+    }
+
+    /**
+     * content_tsv @@ to_tsquery('simple', 'a:* | b:*')의 근사: 접두어가 일치하는 검색어 수가 많은 순
+     */
+    private static List<Document> lexicalSearch(String tsQuery, int limit) {
+        List<String> terms = Arrays.stream(tsQuery.split(" \\| "))
+                .map(t -> t.substring(0, t.length() - 2))
+                .toList();
+        Map<String, Long> matches = new LinkedHashMap<>();
+        CORPUS.forEach((id, text) -> {
+            List<String> tokens = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")).toList();
+            long matched = terms.stream().filter(term -> tokens.stream().anyMatch(t -> t.startsWith(term))).count();
+            if (matched > 0) {
+                matches.put(id, matched);
+            }
+        });
+        return matches.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(e -> chunk(e.getKey()))
+                .toList();
+    }
+
+    private static Document chunk(String id) {
+        return Document.builder().id(id).text(CORPUS.getOrDefault(id, id)).metadata(Map.of()).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.kade.AIAssistant.infra.redis.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kade.AIAssistant.common.enums.MessageType;
+import com.kade.AIAssistant.feature.conversation.entity.ChatMessageEntity;
+import com.kade.AIAssistant.feature.conversation.repository.ChatMessageRepository;
+import com.kade.AIAssistant.infra.redis.loader.SingleFlightLoader;
+import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * RedisChatMemory 캐시 미스 경로: RDB 조회는 미스 1건당 쿼리 한 번이어야 한다.
+ */
+class RedisChatMemoryTest {
+
+    private static final String CONVERSATION_ID = "user-1:conversation-1";
+
+    private RedisCacheService cache;
+    private ChatMessageRepository chatMessageRepository;
+    private JdbcTemplate jdbcTemplate;
+    private RedisChatMemory chatMemory;
+
+    @BeforeEach
+    void setUp() {
+        cache = mock(RedisCacheService.class);
+        chatMessageRepository = mock(ChatMessageRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        CustomChatMemoryRepository repository = new CustomChatMemoryRepository(chatMessageRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "defaultMessageLimit", 20);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatMemoryLocalCache localCache = new ChatMemoryLocalCache(
+                mock(StringRedisTemplate.class), meterRegistry, 100, Duration.ofMinutes(1));
+        @SuppressWarnings("unchecked")
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader(redisTemplate, meterRegistry);
+
+        chatMemory = new RedisChatMemory(cache, repository, new ObjectMapper(), localCache, singleFlightLoader, 20);
+    }
+
+    @Test
+    @DisplayName("캐시 미스 시 id/timestamp를 포함한 최신 메시지를 쿼리 한 번으로 읽어 캐시에 저장한다")
+    void cacheMissRunsSingleQuery() {
+        Instant now = Instant.now();
+        ChatMessageEntity assistant = new ChatMessageEntity(
+                UUID.randomUUID(), CONVERSATION_ID, MessageType.ASSISTANT, "답변", now);
+        ChatMessageEntity user = new ChatMessageEntity(
+                UUID.randomUUID(), CONVERSATION_ID, MessageType.USER, "질문", now.minusSeconds(1));
+        when(cache.get(anyString())).thenReturn(Optional.empty());
+        when(chatMessageRepository.findRecentByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(assistant, user));
+
+        List<Message> messages = chatMemory.get(CONVERSATION_ID);
+
+        assertThat(messages).extracting(ChatMessageMetadata::messageId)
+                .containsExactly(assistant.getId(), user.getId());
+        verify(chatMessageRepository, times(1)).findRecentByConversationId(eq(CONVERSATION_ID), any(Pageable.class));
+        verifyNoMoreInteractions(chatMessageRepository);
+        verifyNoInteractions(jdbcTemplate);
+        verify(cache, times(1)).set(eq(RedisChatMemory.cacheKey(CONVERSATION_ID)), any(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("미스로 채운 뒤 같은 대화를 다시 읽으면 L1에서 반환하고 RDB/Redis를 다시 조회하지 않는다")
+    void secondReadIsServedFromLocalCache() {
+        when(cache.get(anyString())).thenReturn(Optional.empty());
+        when(chatMessageRepository.findRecentByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(new ChatMessageEntity(
+                        UUID.randomUUID(), CONVERSATION_ID, MessageType.USER, "질문", Instant.now())));
+
+        chatMemory.get(CONVERSATION_ID);
+        chatMemory.get(CONVERSATION_ID);
+
+        verify(chatMessageRepository, times(1)).findRecentByConversationId(eq(CONVERSATION_ID), any(Pageable.class));
+        verify(cache, times(1)).get(RedisChatMemory.cacheKey(CONVERSATION_ID));
+    }
+}
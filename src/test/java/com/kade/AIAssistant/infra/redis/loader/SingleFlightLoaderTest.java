@@ -0,0 +1,82 @@
+package com.kade.AIAssistant.infra.redis.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestBatcher;
+import com.kade.AIAssistant.infra.redis.pipeline.RedisRequestScope;
+import com.kade.AIAssistant.infra.redis.prompt.RedisCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+/**
+ * lease 대기 중 캐시 재조회: 요청 scope에 prefetch된 미스가 아니라 다른 노드가 채운 Redis 값을 봐야 한다.
+ */
+class SingleFlightLoaderTest {
+
+    private static final String KEY = "prompt:system";
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private ValueOperations<String, Object> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightLoader loader;
+    private RedisRequestBatcher batcher;
+    private RedisCacheService cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        loader = new SingleFlightLoader(redisTemplate, meterRegistry);
+        batcher = new RedisRequestBatcher(redisTemplate, meterRegistry);
+        cacheService = new RedisCacheService(redisTemplate, new ObjectMapper());
+
+        // 요청 시작 시 prefetch: 아직 캐시 없음
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList((Object) null));
+        // 다른 노드가 lease를 잡고 로드 중
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(false);
+    }
+
+    @Test
+    @DisplayName("prefetch로 미스가 기록된 scope 안에서도 lease 대기 재조회는 다른 노드가 채운 값을 읽는다")
+    void leaseRecheckBypassesPrefetchedMiss() {
+        // prefetch 이후 다른 노드가 캐시를 채움
+        when(valueOperations.get(eq(KEY))).thenReturn("filled");
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightLoader.Lease lease = new SingleFlightLoader.Lease(Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+        Object value = batcher.call("stream_start", List.of(KEY), () -> {
+            // scope 안의 일반 조회는 prefetch된 미스를 사용
+            assertThat(cacheService.get(KEY)).isEmpty();
+            Object loaded = loader.load("system_prompt", KEY, lease, () -> cacheService.get(KEY), () -> {
+                loads.incrementAndGet();
+                return "loaded";
+            });
+            // 재조회 후 scope는 다시 바인딩됨
+            assertThat(RedisRequestScope.current()).isNotNull();
+            return loaded;
+        });
+
+        assertThat(value).isEqualTo("filled");
+        assertThat(loads).hasValue(0);
+        assertThat(meterRegistry.counter("cache.singleflight.loads",
+                "name", "system_prompt", "result", "lease_wait_hit").count()).isEqualTo(1);
+    }
+}